@@ -21,12 +21,35 @@ dependencies {
     implementation("org.apache.logging.log4j:log4j-slf4j-impl:2.20.0")
     implementation("org.apache.commons:commons-lang3:3.14.0")
     implementation("io.vavr:vavr:0.9.0")
+    implementation("org.ow2.asm:asm:9.6")
 }
 
 tasks.test {
     useJUnitPlatform()
 }
 
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    jmh.implementationConfigurationName("org.openjdk.jmh:jmh-core:1.37")
+    jmh.annotationProcessorConfigurationName("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs JMH benchmarks with the GC profiler. Extra JMH arguments can be passed with -PjmhArgs=\"...\"."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    workingDir = projectDir
+    args = listOf("-prof", "gc") + (project.findProperty("jmhArgs")?.toString()?.split(" ") ?: listOf())
+}
+
 tasks.jar {
     archiveBaseName.set("siulang")
     manifest {
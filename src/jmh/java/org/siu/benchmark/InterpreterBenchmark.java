@@ -0,0 +1,61 @@
+package org.siu.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.siu.ast.Program;
+import org.siu.error.ErrorHandlerImpl;
+import org.siu.interpreter.Engine;
+import org.siu.lexer.FilterCommentsLexer;
+import org.siu.lexer.LexerImpl;
+import org.siu.parser.Parser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run with: gradle jmh -PjmhArgs="InterpreterBenchmark"
+ * Allocation rate is reported by the GC profiler as gc.alloc.rate.norm (bytes per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpreterBenchmark {
+    @Param({"examples/factorial.txt", "loop.txt"})
+    public String script;
+
+    @Param({"TREE", "CLOSURE", "BYTECODE", "JIT"})
+    public Engine engine;
+
+    private Program program;
+    private PrintStream out;
+
+    @Setup
+    public void setup() throws IOException {
+        var parser = new Parser(new FilterCommentsLexer(new LexerImpl(new BufferedReader(new StringReader(readScript(script))), new ErrorHandlerImpl())), new ErrorHandlerImpl());
+        program = parser.buildProgram();
+        out = new PrintStream(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void interpret() {
+        engine.create(program, out).execute();
+    }
+
+    static String readScript(String script) throws IOException {
+        var path = Path.of(script);
+        if (Files.exists(path)) {
+            return Files.readString(path, StandardCharsets.UTF_8);
+        }
+        try (InputStream is = InterpreterBenchmark.class.getClassLoader().getResourceAsStream(script)) {
+            if (is == null) {
+                throw new FileNotFoundException(script);
+            }
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
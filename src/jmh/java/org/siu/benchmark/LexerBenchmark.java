@@ -0,0 +1,84 @@
+package org.siu.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.siu.error.ErrorHandlerImpl;
+import org.siu.lexer.Source;
+import org.siu.lexer.Trivia;
+import org.siu.token.TokenType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run with: gradle jmh -PjmhArgs="LexerBenchmark"
+ * Throughput of the table lexer over generated sources dominated by comments, by string literals or by code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmark {
+    private static final int LINES = 20_000;
+
+    public enum Input {
+        COMMENTS {
+            @Override
+            String line(int index) {
+                return "    # counts the " + index + "th element of the generated table, see the generator for details\n"
+                        + "    /* the element is kept for compatibility with older tables,\n       remove it with the next format */\n"
+                        + "    count = count + " + index + ";\n";
+            }
+        },
+        STRINGS {
+            @Override
+            String line(int index) {
+                return "    print(\"element " + index + " of the generated table:\\t\\\"value\\\" kept for compatibility with older tables\");\n";
+            }
+        },
+        CODE {
+            @Override
+            String line(int index) {
+                return "    int value" + index + " = (count + " + index + ") * 2 % 7;\n    if (value" + index + " >= 3) { count = count - 1; }\n";
+            }
+        };
+
+        abstract String line(int index);
+
+        String source() {
+            var sb = new StringBuilder("fn main(): int {\n    int count = 0;\n");
+            for (int i = 0; i < LINES; i++) {
+                sb.append(line(i));
+            }
+            return sb.append("    return count;\n}\n").toString();
+        }
+    }
+
+    @Param({"COMMENTS", "STRINGS", "CODE"})
+    public Input input;
+
+    @Param({"KEEP", "SKIP"})
+    public Trivia trivia;
+
+    private Source source;
+
+    @Setup
+    public void setup() {
+        source = Source.of(input.source());
+    }
+
+    @Benchmark
+    public int lex() {
+        var lexer = source.lexer(trivia, new ErrorHandlerImpl());
+        var tokens = 0;
+        while (lexer.nextToken().getType() != TokenType.END_OF_FILE) {
+            tokens++;
+        }
+        return tokens;
+    }
+
+    @Benchmark
+    public int tokenize() {
+        return source.tokenize(trivia, new ErrorHandlerImpl()).size();
+    }
+}
@@ -1,43 +1,46 @@
 package org.siu;
 
 import lombok.extern.slf4j.Slf4j;
-import org.siu.ast.Program;
-import org.siu.error.ErrorHandler;
-import org.siu.error.ErrorHandlerImpl;
-import org.siu.interpreter.FunctionReturnTypeVisitor;
-import org.siu.interpreter.InterpretingVisitor;
+import org.siu.interpreter.CompiledProgram;
+import org.siu.interpreter.Engine;
+import org.siu.interpreter.ProgramCompiler;
 import org.siu.interpreter.error.InterpreterException;
 import org.siu.interpreter.error.InvalidReturnTypeException;
-import org.siu.lexer.FilterCommentsLexer;
-import org.siu.lexer.Lexer;
-import org.siu.lexer.LexerImpl;
-import org.siu.parser.Parser;
+import org.siu.lexer.Source;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Optional;
 
 @Slf4j
 public class Main {
+    private static final String ENGINE_OPTION = "--engine=";
+    private static final String STANDARD_INPUT = "-";
+
     public static void main(final String[] args) {
-        if (args.length != 1) {
-            log.error("Usage: java -jar <jar-file> <path-to-source-file>");
+        if (args.length < 1 || args.length > 2) {
+            log.error("Usage: java [-Dsiu.maxStackSize=<frames>] [-Dsiu.memoSize=<entries>] [-Dsiu.programImages=true] -jar <jar-file> <path-to-source-file|-> [--engine=tree|closure|bytecode|jit]");
             System.exit(1);
         }
 
         String filePath = args[0];
-        final ErrorHandler errorHandler = new ErrorHandlerImpl();
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            Lexer lexer = new LexerImpl(reader, errorHandler);
-            Lexer filteredLexer = new FilterCommentsLexer(lexer);
-            Parser parser = new Parser(filteredLexer, errorHandler);
-            var program = parser.buildProgram();
+        Engine engine = Engine.TREE;
+        if (args.length == 2) {
+            engine = parseEngine(args[1]);
+        }
 
-            checkReturnTypes(program);
-            interpretProgram(program);
+        try {
+            var compiler = new ProgramCompiler(0, System.out);
+            var program = STANDARD_INPUT.equals(filePath)
+                    ? compiler.compile(Source.read(new InputStreamReader(System.in, StandardCharsets.UTF_8)))
+                    : compiler.compile(Path.of(filePath));
+            interpretProgram(program, engine);
         } catch (InvalidReturnTypeException e) {
             log.error("Invalid return type: {}", e.getMessage());
             System.exit(2);
-        } catch (FileNotFoundException e) {
+        } catch (FileNotFoundException | NoSuchFileException e) {
             log.error("File not found: {}", filePath);
             System.exit(3);
         } catch (IOException e) {
@@ -55,16 +58,18 @@ public class Main {
         }
     }
 
-    private static void checkReturnTypes(Program program) throws InvalidReturnTypeException {
-        FunctionReturnTypeVisitor returnTypeVisitor = new FunctionReturnTypeVisitor(program, System.out);
-        returnTypeVisitor.execute();
-        if (returnTypeVisitor.hasErrorOccurred()) {
-            throw new RuntimeException(returnTypeVisitor.getErrorDetails());
+    private static Engine parseEngine(String option) {
+        var engine = option.startsWith(ENGINE_OPTION)
+                ? Engine.of(option.substring(ENGINE_OPTION.length()))
+                : Optional.<Engine>empty();
+        if (engine.isEmpty()) {
+            log.error("Unknown option: {}", option);
+            System.exit(1);
         }
+        return engine.get();
     }
 
-    private static void interpretProgram(Program program) throws InterpreterException {
-        InterpretingVisitor visitor = new InterpretingVisitor(program, System.out);
-        visitor.execute();
+    private static void interpretProgram(CompiledProgram program, Engine engine) throws InterpreterException {
+        program.run(engine, System.out);
     }
 }
@@ -8,12 +8,20 @@ import org.siu.token.Position;
 
 import java.util.List;
 
-@ToString(exclude = {"statements"})
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = "packedPosition")
 @Value
 public class BlockStatement implements Statement {
+    @ToString.Exclude
     List<Statement> statements;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
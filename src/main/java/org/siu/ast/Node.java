@@ -4,6 +4,14 @@ import org.siu.interpreter.Visitor;
 import org.siu.token.Position;
 
 public interface Node {
-    Position getPosition();
+    /*
+     * line and column packed by Position.pack, positions are materialized only for errors
+     */
+    long getPackedPosition();
+
+    default Position getPosition() {
+        return Position.unpack(getPackedPosition());
+    }
+
     void accept(Visitor visitor);
 }
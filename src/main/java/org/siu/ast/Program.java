@@ -1,25 +1,52 @@
 package org.siu.ast;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.ast.function.FunctionDefinitionStatement;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.jit.JitCompiler;
+import org.siu.interpreter.state.FrameLayout;
 import org.siu.token.Position;
 
 import java.util.Map;
 
-@ToString(exclude = {"functionDefinitions", "declarations"})
+@ToString(exclude = {"functionDefinitions", "declarations", "globalFrame", "pureFunctions", "jit"})
 @Value
+@RequiredArgsConstructor
 @Getter
 public class Program implements Node {
     Map<String, FunctionDefinitionStatement> functionDefinitions;
     Map<String, Statement> declarations;
     Map<String, Statement> typeDefinitions;
 
+    @NonFinal
+    @Setter
+    FrameLayout globalFrame;
+
+    /*
+     * pure functions found by PurityAnalysis, analyzed once and shared by every run of the program
+     */
+    @NonFinal
+    @Setter
+    @EqualsAndHashCode.Exclude
+    volatile Map<String, Boolean> pureFunctions;
+
+    /*
+     * compiler of the jit engine, so functions compiled by one run are used by the next ones
+     */
+    @NonFinal
+    @Setter
+    @EqualsAndHashCode.Exclude
+    JitCompiler jit;
+
     @Override
-    public Position getPosition() {
-        return new Position(1, 1);
+    public long getPackedPosition() {
+        return Position.pack(1, 1);
     }
 
     @Override
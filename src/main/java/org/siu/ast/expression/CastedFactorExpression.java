@@ -8,16 +8,24 @@ import org.siu.ast.type.TypeDeclaration;
 import org.siu.interpreter.Visitor;
 import org.siu.token.Position;
 
-@ToString(exclude = "expression")
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = "packedPosition")
 @RequiredArgsConstructor
 @Value
 public class CastedFactorExpression implements Expression {
     TypeDeclaration type;
+    @ToString.Exclude
     Expression expression;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
 
 
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
+
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
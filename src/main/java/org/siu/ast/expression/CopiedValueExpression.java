@@ -7,11 +7,18 @@ import org.siu.interpreter.Visitor;
 import org.siu.token.Position;
 
 @ToString
-@EqualsAndHashCode(exclude = "position")
+@EqualsAndHashCode(exclude = "packedPosition")
 @Value
 public class CopiedValueExpression implements Expression {
     NamedExpression expression;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
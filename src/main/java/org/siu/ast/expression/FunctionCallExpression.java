@@ -2,21 +2,37 @@ package org.siu.ast.expression;
 
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.ast.Statement;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.CallTarget;
 import org.siu.token.Position;
 
 import java.util.List;
 
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "target"})
 @Value
 @RequiredArgsConstructor
 public class FunctionCallExpression implements Expression, Statement {
     String identifier;
     List<Expression> arguments;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
 
+    @NonFinal
+    @Setter
+    @ToString.Exclude
+    CallTarget target;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
@@ -2,22 +2,39 @@ package org.siu.ast.expression;
 
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.Slot;
 import org.siu.token.Position;
 
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "slot"})
 @Value
 @RequiredArgsConstructor
 public class IdentifierExpression implements NamedExpression, Expression {
     String identifier;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @NonFinal
+    @Setter
+    @ToString.Exclude
+    Slot slot = Slot.UNRESOLVED;
 
     @Override
     public String getName() {
         return identifier;
     }
 
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
+
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
@@ -1,24 +1,42 @@
 package org.siu.ast.expression;
 
 import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.ast.BlockStatement;
 import org.siu.ast.Statement;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.Slot;
 import org.siu.token.Position;
 
 
-@ToString(exclude = {"block"})
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "slot"})
 @Value
+@RequiredArgsConstructor
 public class MatchCaseStatement implements Statement {
     String variantType;
     String fieldName;
     String variable;
+    @ToString.Exclude
     BlockStatement block;
 
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @NonFinal
+    @Setter
+    @ToString.Exclude
+    Slot slot = Slot.UNRESOLVED;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
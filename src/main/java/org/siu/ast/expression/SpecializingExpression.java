@@ -0,0 +1,12 @@
+package org.siu.ast.expression;
+
+import org.siu.interpreter.state.Specialization;
+
+/**
+ * Operator that rewrites itself into a variant specialized for the type of its operands.
+ */
+public interface SpecializingExpression extends Expression {
+    Specialization getSpecialization();
+
+    void setSpecialization(Specialization specialization);
+}
@@ -8,13 +8,21 @@ import org.siu.token.Position;
 
 import java.util.List;
 
-@ToString(exclude = {"arguments"})
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = "packedPosition")
 @Value
 public class StructDeclarationExpression implements Expression {
     String identifier;
+    @ToString.Exclude
     List<Expression> arguments;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
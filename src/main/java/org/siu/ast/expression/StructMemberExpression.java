@@ -2,23 +2,46 @@ package org.siu.ast.expression;
 
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.FieldOffset;
+import org.siu.interpreter.state.Slot;
 import org.siu.token.Position;
 
 @Value
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "slot", "offset"})
 @RequiredArgsConstructor
 public class StructMemberExpression implements NamedExpression, Expression {
     String structName;
     String fieldName;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @NonFinal
+    @Setter
+    @ToString.Exclude
+    Slot slot = Slot.UNRESOLVED;
+
+    @NonFinal
+    @Setter
+    @ToString.Exclude
+    FieldOffset offset;
 
     @Override
     public String getName() {
         return structName;
     }
 
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
+
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
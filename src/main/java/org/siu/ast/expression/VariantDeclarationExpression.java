@@ -1,17 +1,26 @@
 package org.siu.ast.expression;
 
 import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.Value;
 import org.siu.interpreter.Visitor;
 import org.siu.token.Position;
 
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = "packedPosition")
 @Value
 public class VariantDeclarationExpression implements Expression {
     String typeName;
     String fieldName;
     Expression expression;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
@@ -1,20 +1,39 @@
 package org.siu.ast.expression.arithmetic;
 
 import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.ast.expression.Expression;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.Specialization;
 import org.siu.token.Position;
 
-@ToString(exclude = {"left", "right"})
-@EqualsAndHashCode(exclude="position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "specialization"})
 @Value
+@RequiredArgsConstructor
 public class AddArithmeticExpression implements BinaryArithmeticExpression {
+    @ToString.Exclude
     Expression left;
+    @ToString.Exclude
     Expression right;
 
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @NonFinal
+    @Setter
+    @ToString.Exclude
+    Specialization specialization = Specialization.UNINITIALIZED;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
@@ -24,7 +43,7 @@ public class AddArithmeticExpression implements BinaryArithmeticExpression {
     @Override
     public int evaluate(int left, int right) {
         if(left > Integer.MAX_VALUE - right) {
-            throw new ArithmeticException("Integer overflow at " + position.toString());
+            throw new ArithmeticException("Integer overflow at " + getPosition().toString());
         }
 
         return left + right;
@@ -33,7 +52,7 @@ public class AddArithmeticExpression implements BinaryArithmeticExpression {
     @Override
     public float evaluate(float left, float right) {
         if(left > Integer.MAX_VALUE - right) {
-            throw new ArithmeticException("Integer overflow at " + position.toString());
+            throw new ArithmeticException("Integer overflow at " + getPosition().toString());
         }
 
         return left + right;
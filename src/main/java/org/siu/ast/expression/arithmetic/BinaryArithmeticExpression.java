@@ -2,10 +2,11 @@ package org.siu.ast.expression.arithmetic;
 
 import org.siu.ast.expression.ArithmeticExpression;
 import org.siu.ast.expression.Expression;
+import org.siu.ast.expression.SpecializingExpression;
 import org.siu.interpreter.Visitor;
 import org.siu.interpreter.error.OperationNotSupported;
 
-public interface BinaryArithmeticExpression extends ArithmeticExpression {
+public interface BinaryArithmeticExpression extends ArithmeticExpression, SpecializingExpression {
     Expression getLeft();
 
     Expression getRight();
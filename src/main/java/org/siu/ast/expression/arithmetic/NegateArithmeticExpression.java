@@ -8,13 +8,21 @@ import org.siu.ast.expression.Expression;
 import org.siu.interpreter.Visitor;
 import org.siu.token.Position;
 
-@ToString(exclude = "expression")
-@EqualsAndHashCode(exclude="position")
+@ToString
+@EqualsAndHashCode(exclude="packedPosition")
 @Value
 public class NegateArithmeticExpression implements ArithmeticExpression {
+    @ToString.Exclude
     Expression expression;
 
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
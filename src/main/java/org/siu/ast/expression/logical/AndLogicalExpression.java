@@ -7,13 +7,22 @@ import org.siu.ast.expression.Expression;
 import org.siu.interpreter.Visitor;
 import org.siu.token.Position;
 
-@ToString(exclude = {"left", "right"})
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = "packedPosition")
 @Value
 public class AndLogicalExpression implements LogicalExpression {
+    @ToString.Exclude
     Expression left;
+    @ToString.Exclude
     Expression right;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
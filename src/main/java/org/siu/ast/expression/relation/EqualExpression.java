@@ -1,21 +1,40 @@
 package org.siu.ast.expression.relation;
 
 import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.apache.commons.lang3.StringUtils;
 import org.siu.ast.expression.Expression;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.Specialization;
 import org.siu.token.Position;
 
-@ToString(exclude = {"left", "right"})
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "specialization"})
 @Value
+@RequiredArgsConstructor
 public class EqualExpression implements EqualityRelationalExpression {
+    @ToString.Exclude
     Expression left;
+    @ToString.Exclude
     Expression right;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
 
+    @NonFinal
+    @Setter
+    @ToString.Exclude
+    Specialization specialization = Specialization.UNINITIALIZED;
+
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
@@ -1,8 +1,9 @@
 package org.siu.ast.expression.relation;
 
 import org.siu.ast.expression.Expression;
+import org.siu.ast.expression.SpecializingExpression;
 
-public interface RelationExpression extends Expression {
+public interface RelationExpression extends SpecializingExpression {
     Expression getLeft();
     Expression getRight();
 
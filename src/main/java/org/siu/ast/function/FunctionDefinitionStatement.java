@@ -1,27 +1,45 @@
 package org.siu.ast.function;
 
 import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.ast.Parameter;
 import org.siu.ast.BlockStatement;
 import org.siu.ast.Statement;
 import org.siu.ast.type.TypeDeclaration;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.FrameLayout;
 import org.siu.token.Position;
 
 import java.util.List;
 import java.util.Optional;
 
-@ToString(exclude = "block")
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "frame"})
 @Value
+@RequiredArgsConstructor
 public class FunctionDefinitionStatement implements Statement {
     String name;
     List<Parameter> parameters;
     Optional<TypeDeclaration> returnType;
+    @ToString.Exclude
     BlockStatement block;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @NonFinal
+    @Setter
+    @ToString.Exclude
+    FrameLayout frame;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
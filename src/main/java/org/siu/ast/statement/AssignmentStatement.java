@@ -1,20 +1,38 @@
 package org.siu.ast.statement;
 
 import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.ast.expression.Expression;
 import org.siu.ast.Statement;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.Slot;
 import org.siu.token.Position;
 
-@ToString(exclude = {"value"})
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "slot"})
 @Value
+@RequiredArgsConstructor
 public class AssignmentStatement implements Statement {
     String name;
+    @ToString.Exclude
     Expression value;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @NonFinal
+    @Setter
+    @ToString.Exclude
+    Slot slot = Slot.UNRESOLVED;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
@@ -12,15 +12,25 @@ import org.siu.token.Position;
 import java.util.List;
 import java.util.Optional;
 
-@ToString(exclude = {"conditions", "ifInstructions", "elseInstructions"})
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = "packedPosition")
 @Value
 public class IfStatement implements Statement {
+    @ToString.Exclude
     List<Expression> conditions;
+    @ToString.Exclude
     List<BlockStatement> ifInstructions;
+    @ToString.Exclude
     Optional<BlockStatement> elseInstructions;
 
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
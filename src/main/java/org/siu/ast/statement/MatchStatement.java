@@ -1,23 +1,41 @@
 package org.siu.ast.statement;
 
 import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.ast.Statement;
 import org.siu.ast.expression.Expression;
 import org.siu.ast.expression.MatchCaseStatement;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.MatchTable;
 import org.siu.token.Position;
 
 import java.util.List;
 
-@ToString(exclude = {"statements"})
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "table"})
 @Value
+@RequiredArgsConstructor
 public class MatchStatement implements Statement {
     Expression expression;
+    @ToString.Exclude
     List<MatchCaseStatement> statements;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @NonFinal
+    @Setter
+    @ToString.Exclude
+    MatchTable table;
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
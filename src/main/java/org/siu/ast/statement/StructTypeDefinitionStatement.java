@@ -1,22 +1,45 @@
 package org.siu.ast.statement;
 
 import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.ast.Parameter;
 import org.siu.ast.Statement;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.StructLayout;
 import org.siu.token.Position;
 
 import java.util.List;
 
-@ToString(exclude = {"parameters"})
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "layout"})
 @Value
+@RequiredArgsConstructor
 public class StructTypeDefinitionStatement implements CustomTypeStatement {
     String name;
+    @ToString.Exclude
     List<Parameter> parameters;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @NonFinal
+    @ToString.Exclude
+    StructLayout layout;
+
+    public StructLayout getLayout() {
+        if (layout == null) {
+            layout = new StructLayout(this);
+        }
+        return layout;
+    }
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
 
     @Override
     public void accept(Visitor visitor) {
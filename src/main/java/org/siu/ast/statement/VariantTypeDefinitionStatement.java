@@ -1,22 +1,46 @@
 package org.siu.ast.statement;
 
 import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.ast.Parameter;
 import org.siu.ast.Statement;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.VariantDescriptor;
 import org.siu.token.Position;
 
 import java.util.List;
 
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "descriptor"})
 @Value
+@RequiredArgsConstructor
 public class VariantTypeDefinitionStatement implements CustomTypeStatement {
     String name;
     List<Parameter> parameters;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
     boolean isVariant = true;
 
+    @NonFinal
+    @ToString.Exclude
+    VariantDescriptor descriptor;
+
+    public VariantDescriptor getDescriptor() {
+        if (descriptor == null) {
+            descriptor = new VariantDescriptor(this);
+        }
+        return descriptor;
+    }
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
+
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
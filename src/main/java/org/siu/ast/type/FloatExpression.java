@@ -1,16 +1,41 @@
 package org.siu.ast.type;
 
 import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.ast.expression.Expression;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.value.FloatValue;
 import org.siu.token.Position;
 
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "constant"})
 @Value
+@RequiredArgsConstructor
 public class FloatExpression implements Expression {
     float value;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @NonFinal
+    @ToString.Exclude
+    volatile FloatValue constant;
+
+    public FloatValue getConstant() {
+        if (constant == null) {
+            constant = FloatValue.of(value);
+        }
+        return constant;
+    }
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
+
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
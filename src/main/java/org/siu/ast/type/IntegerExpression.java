@@ -1,16 +1,41 @@
 package org.siu.ast.type;
 
 import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import org.siu.ast.expression.Expression;
 import org.siu.interpreter.Visitor;
+import org.siu.interpreter.state.value.IntValue;
 import org.siu.token.Position;
 
-@EqualsAndHashCode(exclude = "position")
+@ToString
+@EqualsAndHashCode(exclude = {"packedPosition", "constant"})
 @Value
+@RequiredArgsConstructor
 public class IntegerExpression implements Expression {
     int value;
-    Position position;
+    @ToString.Exclude
+    long packedPosition;
+
+    @NonFinal
+    @ToString.Exclude
+    volatile IntValue constant;
+
+    public IntValue getConstant() {
+        if (constant == null) {
+            constant = IntValue.of(value);
+        }
+        return constant;
+    }
+
+    @Override
+    @ToString.Include(name = "position")
+    public Position getPosition() {
+        return Position.unpack(packedPosition);
+    }
+
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
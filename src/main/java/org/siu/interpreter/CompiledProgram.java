@@ -0,0 +1,32 @@
+package org.siu.interpreter;
+
+import lombok.Getter;
+import org.siu.ast.Program;
+
+import java.io.PrintStream;
+
+/**
+ * Program checked, optimized and resolved by {@link ProgramCompiler}, ready to be run any number of times.
+ * Every run gets its own interpreter and globals, so runs may also happen on several threads at once.
+ */
+@Getter
+public class CompiledProgram {
+    /*
+     * SHA-256 of the source, hex encoded
+     */
+    private final String hash;
+    private final Program program;
+
+    CompiledProgram(String hash, Program program) {
+        this.hash = hash;
+        this.program = program;
+    }
+
+    public Interpreter interpreter(Engine engine, PrintStream out) {
+        return engine.create(program, out);
+    }
+
+    public void run(Engine engine, PrintStream out) {
+        interpreter(engine, out).execute();
+    }
+}
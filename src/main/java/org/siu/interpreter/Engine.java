@@ -0,0 +1,33 @@
+package org.siu.interpreter;
+
+import lombok.RequiredArgsConstructor;
+import org.siu.ast.Program;
+import org.siu.interpreter.bytecode.BytecodeInterpreter;
+import org.siu.interpreter.closure.ClosureInterpreter;
+import org.siu.interpreter.jit.JitCompiler;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+@RequiredArgsConstructor
+public enum Engine {
+    TREE("tree", InterpretingVisitor::new),
+    CLOSURE("closure", ClosureInterpreter::new),
+    BYTECODE("bytecode", BytecodeInterpreter::new),
+    JIT("jit", (program, out) -> new InterpretingVisitor(program, out, JitCompiler.of(program)));
+
+    private final String option;
+    private final BiFunction<Program, PrintStream, Interpreter> factory;
+
+    public Interpreter create(Program program, PrintStream out) {
+        return factory.apply(program, out);
+    }
+
+    public static Optional<Engine> of(String option) {
+        return Arrays.stream(values())
+                .filter(engine -> engine.option.equals(option))
+                .findFirst();
+    }
+}
@@ -29,6 +29,7 @@ import java.util.*;
 
 import static org.siu.interpreter.InterpreterConfig.MAIN_FUNCTION_NAME;
 import static org.siu.interpreter.InterpreterUtilities.BUILTIN_FUNCTIONS;
+import static org.siu.interpreter.InterpreterUtilities.DEFAULT_POSITION;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -40,7 +41,6 @@ public class FunctionReturnTypeVisitor implements Visitor, Interpreter {
      * Function call stack to keep track of the current function
      */
     private final Deque<Tuple3<String, Position, Optional<TypeDeclaration>>> functionCallStack = new ArrayDeque<>();
-    private Position currentPosition = new Position(1, 1);
     private boolean errorOccurred = false;
 
     @Getter
@@ -66,8 +66,8 @@ public class FunctionReturnTypeVisitor implements Visitor, Interpreter {
     public void visit(Program program) {
         functionDefinitions.putAll(program.getFunctionDefinitions());
 
-        var mainFn = new FunctionCallExpression(MAIN_FUNCTION_NAME, List.of(), currentPosition);
-        functionCallStack.add(new Tuple3<>(MAIN_FUNCTION_NAME, currentPosition, Optional.empty()));
+        var mainFn = new FunctionCallExpression(MAIN_FUNCTION_NAME, List.of(), DEFAULT_POSITION);
+        functionCallStack.add(new Tuple3<>(MAIN_FUNCTION_NAME, mainFn.getPosition(), Optional.empty()));
         callAccept(mainFn);
     }
 
@@ -267,7 +267,6 @@ public class FunctionReturnTypeVisitor implements Visitor, Interpreter {
     }
 
     private <T extends Node> void callAccept(T expression) {
-        currentPosition = expression.getPosition();
         expression.accept(this);
     }
 }
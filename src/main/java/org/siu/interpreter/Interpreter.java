@@ -1,5 +1,16 @@
 package org.siu.interpreter;
 
+import org.siu.interpreter.memo.Memoizer;
+
+import java.util.Optional;
+
 public interface Interpreter {
     void execute();
+
+    /*
+     * memo tables of pure functions filled by the last execution, empty when the engine does not memoize
+     */
+    default Optional<Memoizer> getMemoizer() {
+        return Optional.empty();
+    }
 }
@@ -2,5 +2,52 @@ package org.siu.interpreter;
 
 public class InterpreterConfig {
     public static final int MAX_STACK_SIZE = 100;
+    /*
+     * system property overriding the call stack budget, e.g. -Dsiu.maxStackSize=10000; engines recursing on the Java stack
+     * may run out of it first, which is reported as a JavaStackOverflowException rather than as the budget
+     */
+    public static final String MAX_STACK_SIZE_PROPERTY = "siu.maxStackSize";
+    /*
+     * number of calls of a function after which the jit engine compiles it to JVM bytecode
+     */
+    public static final int JIT_THRESHOLD = 50;
     public static final String MAIN_FUNCTION_NAME = "main";
+    /*
+     * number of results kept per memoized function, 0 disables memoization; overridden with -Dsiu.memoSize=<entries>
+     */
+    public static final int MEMO_SIZE = 1024;
+    public static final String MEMO_SIZE_PROPERTY = "siu.memoSize";
+    /*
+     * number of programs a script executor runs at once, by default one per processor; overridden with -Dsiu.threads=<threads>
+     */
+    public static final String THREADS_PROPERTY = "siu.threads";
+    /*
+     * number of compiled programs kept by a program compiler, 0 disables caching; overridden with -Dsiu.programCacheSize=<programs>
+     */
+    public static final int PROGRAM_CACHE_SIZE = 512;
+    public static final String PROGRAM_CACHE_SIZE_PROPERTY = "siu.programCacheSize";
+    /*
+     * system property making a program compiler keep precompiled .siuc images next to source files, e.g. -Dsiu.programImages=true
+     */
+    public static final String PROGRAM_IMAGES_PROPERTY = "siu.programImages";
+
+    public static int maxStackSize() {
+        return Integer.getInteger(MAX_STACK_SIZE_PROPERTY, MAX_STACK_SIZE);
+    }
+
+    public static int memoSize() {
+        return Integer.getInteger(MEMO_SIZE_PROPERTY, MEMO_SIZE);
+    }
+
+    public static int threads() {
+        return Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static int programCacheSize() {
+        return Integer.getInteger(PROGRAM_CACHE_SIZE_PROPERTY, PROGRAM_CACHE_SIZE);
+    }
+
+    public static boolean programImages() {
+        return Boolean.getBoolean(PROGRAM_IMAGES_PROPERTY);
+    }
 }
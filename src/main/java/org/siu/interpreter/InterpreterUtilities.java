@@ -3,36 +3,103 @@ package org.siu.interpreter;
 import lombok.experimental.UtilityClass;
 import org.siu.ast.BlockStatement;
 import org.siu.ast.Parameter;
+import org.siu.ast.expression.arithmetic.AddArithmeticExpression;
+import org.siu.ast.expression.arithmetic.BinaryArithmeticExpression;
 import org.siu.ast.function.FunctionDefinitionStatement;
 import org.siu.ast.type.TypeDeclaration;
 import org.siu.ast.type.ValueType;
+import org.apache.commons.lang3.StringUtils;
 import org.siu.interpreter.builtin.PrintFunction;
-import org.siu.interpreter.state.Context;
+import org.siu.interpreter.error.TypesDoNotMatchException;
+import org.siu.interpreter.state.FrameLayout;
+import org.siu.interpreter.state.Slot;
+import org.siu.interpreter.state.Value;
+import org.siu.interpreter.state.value.*;
 import org.siu.token.Position;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 
 @UtilityClass
 public class InterpreterUtilities {
-    public static final Position DEFAULT_POSITION = new Position(1, 1);
-    public static final Context GLOBAL_CONTEXT = new Context("---main---", DEFAULT_POSITION);
+    public static final long DEFAULT_POSITION = Position.pack(1, 1);
     public static final String PRINT_ARGUMENT = "---message---";
-    public static final Map<String, FunctionDefinitionStatement> BUILTIN_FUNCTIONS = Map.of(
-        "print",
-        new FunctionDefinitionStatement(
-                "print",
-                List.of(new Parameter(new TypeDeclaration(ValueType.STRING), PRINT_ARGUMENT)),
-                Optional.empty(),
-                new BlockStatement(List.of(new PrintFunction()), DEFAULT_POSITION),
-                DEFAULT_POSITION
-            )
-    );
+    public static final int PRINT_ARGUMENT_SLOT = 0;
+    public static final Map<String, FunctionDefinitionStatement> BUILTIN_FUNCTIONS = Map.of("print", print());
 
     public static final TypeDeclaration INT_TYPE = new TypeDeclaration(ValueType.INT);
     public static final TypeDeclaration FLOAT_TYPE = new TypeDeclaration(ValueType.FLOAT);
     public static final TypeDeclaration BOOL_TYPE = new TypeDeclaration(ValueType.BOOL);
     public static final TypeDeclaration STRING_TYPE = new TypeDeclaration(ValueType.STRING);
+
+    public static final Map<TypeDeclaration, Map<TypeDeclaration, Function<Value, Value>>> CAST_OPERATIONS = Map.of(
+            INT_TYPE, Map.of(
+                    BOOL_TYPE, value -> IntValue.of(value.isBool() ? 1 : 0),
+                    FLOAT_TYPE, value -> IntValue.of((int) value.getFloatVal()),
+                    INT_TYPE, Function.identity(),
+                    STRING_TYPE, value -> IntValue.of(StringUtils.equals(value.getString(), "") ? 0 : 1)
+            ),
+            FLOAT_TYPE, Map.of(
+                    BOOL_TYPE, value -> FloatValue.of(value.isBool() ? 1.0F : 0.0F),
+                    FLOAT_TYPE, Function.identity(),
+                    INT_TYPE, value -> FloatValue.of(value.getInteger()),
+                    STRING_TYPE, value -> FloatValue.of(StringUtils.equals(value.getString(), "") ? 0.0F : 1.0F)
+            ),
+            STRING_TYPE, Map.of(
+                    BOOL_TYPE, value -> new StringValue(String.valueOf(value.isBool())),
+                    INT_TYPE, value -> new StringValue(String.valueOf(value.getInteger())),
+                    FLOAT_TYPE, value -> new StringValue(String.valueOf(value.getFloatVal())),
+                    STRING_TYPE, Function.identity()
+            )
+    );
+
+    public static void validateTypes(TypeDeclaration provided, TypeDeclaration expected) {
+        if (provided.getValueType() != expected.getValueType()) {
+            throw new TypesDoNotMatchException(provided, expected);
+        }
+
+        if (expected.getCustomType() != null && !Objects.equals(provided.getCustomType(), expected.getCustomType())) {
+            throw new TypesDoNotMatchException(provided, expected);
+        }
+    }
+
+    /*
+     * a call in return position may replace the frame of its caller when both functions return the same type,
+     * the returned value is then validated once against that type
+     */
+    public static boolean isTailCall(FunctionDefinitionStatement caller, FunctionDefinitionStatement callee, int arguments) {
+        return caller != null && callee != null
+                && caller.getReturnType().isPresent()
+                && caller.getReturnType().equals(callee.getReturnType())
+                && callee.getParameters().size() == arguments;
+    }
+
+    /*
+     * concatenation appends to the builder of the left operand, other operators fail like on plain strings
+     */
+    public static Value evaluateStrings(BinaryArithmeticExpression expression, Value left, Value right) {
+        if (expression instanceof AddArithmeticExpression) {
+            return ((StringValue) left).concat((StringValue) right);
+        }
+        return new StringValue(expression.evaluate(left.getString(), right.getString()));
+    }
+
+    /*
+     * builtin functions are shared by all programs, so their frames are laid out once here instead of by the resolver of each program
+     */
+    private static FunctionDefinitionStatement print() {
+        var print = new FunctionDefinitionStatement(
+                "print",
+                List.of(new Parameter(new TypeDeclaration(ValueType.STRING), PRINT_ARGUMENT)),
+                Optional.empty(),
+                new BlockStatement(List.of(new PrintFunction()), DEFAULT_POSITION),
+                DEFAULT_POSITION
+        );
+        print.setFrame(new FrameLayout(1, List.of(new Slot(Slot.LOCAL, PRINT_ARGUMENT_SLOT))));
+        return print;
+    }
 }
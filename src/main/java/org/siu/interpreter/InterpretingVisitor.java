@@ -1,9 +1,7 @@
 package org.siu.interpreter;
 
-import io.vavr.Function3;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.siu.ast.*;
 import org.siu.ast.expression.*;
 import org.siu.ast.expression.arithmetic.*;
@@ -16,16 +14,18 @@ import org.siu.ast.type.*;
 import org.siu.interpreter.builtin.PrintFunction;
 import org.siu.interpreter.error.*;
 import org.siu.interpreter.error.UnsupportedOperationException;
+import org.siu.interpreter.jit.JitCompiler;
+import org.siu.interpreter.memo.MemoTable;
+import org.siu.interpreter.memo.Memoizer;
 import org.siu.interpreter.state.*;
 import org.siu.interpreter.state.value.*;
-import org.siu.token.Position;
 
 import java.io.PrintStream;
 import java.util.*;
-import java.util.function.Function;
 
 import static org.siu.interpreter.InterpreterConfig.MAIN_FUNCTION_NAME;
-import static org.siu.interpreter.InterpreterConfig.MAX_STACK_SIZE;
+import static org.siu.interpreter.InterpreterConfig.maxStackSize;
+import static org.siu.interpreter.InterpreterConfig.memoSize;
 import static org.siu.interpreter.InterpreterUtilities.*;
 
 @Slf4j
@@ -36,10 +36,39 @@ public class InterpretingVisitor implements Visitor, Interpreter {
     private final Map<String, FunctionDefinitionStatement> functionDefinitions = new HashMap<>(BUILTIN_FUNCTIONS);
     private final Map<String, CustomTypeStatement> typeDefinitions = new HashMap<>();
 
-    private final Deque<Context> contexts = new ArrayDeque<>(List.of(GLOBAL_CONTEXT));
-    private Result result = Result.empty();
-    private Position currentPosition = new Position(1, 1);
+    private final Context globalContext = new Context("---main---", DEFAULT_POSITION, 0);
+    private final Deque<Context> contexts = new ArrayDeque<>(List.of(globalContext));
+    private final Result result = new Result();
     private Deque<Parameter> customType = new ArrayDeque<>();
+    private JitCompiler jit;
+    /*
+     * definitions call sites are resolved against, cached call targets stay valid until define() replaces a function
+     */
+    private Map<String, FunctionDefinitionStatement> definitions;
+    private final int maxStackSize = maxStackSize();
+    /*
+     * tail call requested by a return statement, run by the enclosing call in place of the returning function
+     */
+    private FunctionDefinitionStatement tailCallee;
+    private Context tailContext;
+    /*
+     * memo tables of pure functions, not used with the jit engine as compiled functions do not report their stack depth
+     */
+    private Memoizer memoizer;
+    /*
+     * largest number of contexts since the outermost running memoized call started, its stack height
+     */
+    private int deepest;
+
+    public InterpretingVisitor(Program program, PrintStream out, JitCompiler jit) {
+        this(program, out);
+        this.jit = jit;
+    }
+
+    @Override
+    public Optional<Memoizer> getMemoizer() {
+        return Optional.ofNullable(memoizer);
+    }
 
     @Override
     public void execute() {
@@ -48,11 +77,34 @@ public class InterpretingVisitor implements Visitor, Interpreter {
         } catch (Exception e) {
             log.error("Error while interpreting", e);
             out.println("Error while interpreting: " + e.getMessage());
+        } catch (StackOverflowError e) {
+            log.error("Error while interpreting", e);
+            out.println("Error while interpreting: " + new JavaStackOverflowException(maxStackSize).getMessage());
+        }
+    }
+
+    /*
+     * replaces the definition of a function, call sites bound to the previous one are rebound on their next call
+     */
+    public void define(FunctionDefinitionStatement function) {
+        // results memoized for callers of a replaced function would be stale
+        if (program.getFunctionDefinitions().get(function.getName()) != function) {
+            memoizer = null;
+        }
+        var replaced = functionDefinitions.put(function.getName(), function) != function;
+        if (replaced && definitions != null) {
+            definitions = Map.copyOf(functionDefinitions);
         }
     }
 
     @Override
     public void visit(Program program) {
+        if (program.getGlobalFrame() == null) {
+            new VariableResolver(program).resolve();
+        }
+        globalContext.reset(program.getGlobalFrame().getSize());
+        memoizer = jit == null ? new Memoizer(program, memoSize()) : null;
+        definitions = program.getFunctionDefinitions();
         functionDefinitions.putAll(program.getFunctionDefinitions());
 
         for (var typeDefinition : program.getTypeDefinitions().values()) {
@@ -63,7 +115,7 @@ public class InterpretingVisitor implements Visitor, Interpreter {
             callAccept(declaration);
         }
 
-        var mainFn = new FunctionCallExpression(MAIN_FUNCTION_NAME, List.of(), currentPosition);
+        var mainFn = new FunctionCallExpression(MAIN_FUNCTION_NAME, List.of(), DEFAULT_POSITION);
         callAccept(mainFn);
     }
 
@@ -105,18 +157,20 @@ public class InterpretingVisitor implements Visitor, Interpreter {
     @Override
     public void visit(ReturnStatement statement) {
         if (statement.getExpression() == null) {
-            result = Result.empty().toBuilder().returned(true).build();
-            return;
+            result.empty();
+        } else if (statement.getExpression() instanceof FunctionCallExpression call && isTailCall(call)) {
+            var target = call.getTarget();
+            tailCallee = target.getDefinition();
+            tailContext = bindArguments(call, target);
+            result.empty();
+        } else {
+            callAccept(statement.getExpression());
         }
-
-        callAccept(statement.getExpression());
-        result = result.toBuilder().returned(true).build();
+        result.setReturned(true);
     }
 
     @Override
     public void visit(DeclarationStatement statement) {
-        var context = contexts.getLast();
-
         var type = statement.getParameter().getType();
         var name = statement.getParameter().getName();
         var expression = statement.getExpression();
@@ -133,30 +187,23 @@ public class InterpretingVisitor implements Visitor, Interpreter {
             value = retrieveResult(type);
         }
 
-        context.addVariable(new Variable(type, name, value));
+        declareVariable(statement.getSlot(), new Variable(type, name, value));
     }
 
     @Override
     public void visit(BlockStatement blockStatement) {
-        var context = contexts.getLast();
-        context.incrementScope();
-
         for (var statement : blockStatement.getStatements()) {
             callAccept(statement);
             if (result.isReturned()) {
                 break;
             }
         }
-
-        context.decrementScope();
     }
 
     @Override
     public void visit(AssignmentStatement statement) {
-        var context = contexts.getLast();
-        var previousValue = context.findVariable(statement.getName())
-                .or(() -> GLOBAL_CONTEXT.findVariable(statement.getName()))
-                .orElseThrow(NoVariableException::new);
+        var slot = statement.getSlot();
+        var previousValue = findVariable(slot);
 
         if (previousValue.isConstant()) {
             throw new ReassignConstVariableException(previousValue.getIdentifier(), statement.getPosition());
@@ -164,13 +211,7 @@ public class InterpretingVisitor implements Visitor, Interpreter {
 
         callAccept(statement.getValue());
         var value = retrieveResult(new Parameter(previousValue.getType(), statement.getName()));
-        for (Iterator<Context> it = contexts.descendingIterator(); it.hasNext(); ) {
-            var currentContext = it.next();
-            var updated = currentContext.updateVariable(statement.getName(), value);
-            if (updated) {
-                return;
-            }
-        }
+        frameOf(slot).updateVariable(slot.getIndex(), value);
     }
 
     @Override
@@ -211,8 +252,6 @@ public class InterpretingVisitor implements Visitor, Interpreter {
 
     @Override
     public void visit(ConstStatement constStatement) {
-        var context = contexts.getLast();
-
         var parameter = constStatement.getParameter();
         var statement = constStatement.getStatement();
 
@@ -224,7 +263,7 @@ public class InterpretingVisitor implements Visitor, Interpreter {
         var value = retrieveResult(parameter);
 
         var variable = new Variable(parameter.getType(), parameter.getName(), value, true);
-        context.addVariable(variable);
+        declareVariable(statement.getSlot(), variable);
     }
 
     @Override
@@ -252,41 +291,34 @@ public class InterpretingVisitor implements Visitor, Interpreter {
             throw new InvalidNumberOfArgumentsException(expression);
         }
 
-        var members = new HashMap<String, Value>();
+        var value = new StructValue(StructLayout.of(struct));
 
         for (int i = 0; i < arguments.size(); i++) {
             callAccept(arguments.get(i));
-            var value = retrieveResult(parameters.get(i));
+            var member = retrieveResult(parameters.get(i));
 
-            validateTypes(value.getType(), parameters.get(i).getType());
+            validateTypes(member.getType(), parameters.get(i).getType());
 
-            members.put(parameters.get(i).getName(), value);
+            value.initialize(value.offset(parameters.get(i).getName()), member);
         }
 
-        var value = new StructValue(new TypeDeclaration(ValueType.CUSTOM, typeName), members);
-        result = Result.ok(value);
+        result.ok(value);
     }
 
     @Override
     public void visit(StructMemberAssignmentStatement statement) {
-        var context = contexts.getLast();
-
-        var structName = statement.getStruct().getStructName();
-        var fieldName = statement.getStruct().getFieldName();
-
-        var structVariable = context.findVariable(structName)
-                .or(() -> GLOBAL_CONTEXT.findVariable(structName))
-                .orElseThrow(NoVariableException::new);
+        var member = statement.getStruct();
+        var structVariable = findVariable(member.getSlot());
 
         var struct = structVariable.getValue();
-        var value = struct.get(fieldName);
+        var value = struct.get(member);
 
         callAccept(statement.getValue());
         var newValue = retrieveResult(value.getType());
 
         validateTypes(newValue.getType(), value.getType());
 
-        struct.put(fieldName, newValue);
+        struct.put(member, newValue);
     }
 
     @Override
@@ -296,9 +328,6 @@ public class InterpretingVisitor implements Visitor, Interpreter {
 
     @Override
     public void visit(MatchStatement statement) {
-        var context = contexts.getLast();
-        context.incrementScope();
-
         callAccept(statement.getExpression());
         var variantArgument = retrieveResult();
 
@@ -317,21 +346,14 @@ public class InterpretingVisitor implements Visitor, Interpreter {
         }
 
         var variantValue = (VariantValue) variantArgument;
-        for (var matchCase : statement.getStatements()) {
-            if (Objects.equals(variantValue.getCurrentField(), matchCase.getFieldName())) {
+        var selected = MatchTable.select(statement, variantValue);
+        if (selected != MatchTable.NO_CASE) {
+            var matchCase = statement.getStatements().get(selected);
+            var parameter = variantValue.getDescriptor().field(variantValue.getOrdinal());
 
-                var parameter = variantType.getParameters().stream()
-                        .filter(param -> param.getName().equals(matchCase.getFieldName()))
-                        .findFirst()
-                        .orElseThrow(() -> new RuntimeException("Field not found in variant type"));
-
-                context.addVariable(new Variable(parameter.getType(), matchCase.getVariable(), variantValue.get(), false, true));
-                callAccept(matchCase.getBlock());
-                break;
-            }
+            declareVariable(matchCase.getSlot(), new Variable(parameter.getType(), matchCase.getVariable(), variantValue.get(), false, true));
+            callAccept(matchCase.getBlock());
         }
-
-        context.decrementScope();
     }
 
 
@@ -342,22 +364,22 @@ public class InterpretingVisitor implements Visitor, Interpreter {
 
     @Override
     public void visit(IntegerExpression expression) {
-        result = Result.ok(new IntValue(expression.getValue()));
+        result.ok(expression.getConstant());
     }
 
     @Override
     public void visit(FloatExpression expression) {
-        result = Result.ok(new FloatValue(expression.getValue()));
+        result.ok(expression.getConstant());
     }
 
     @Override
     public void visit(StringExpression expression) {
-        result = Result.ok(new StringValue(expression.getValue()));
+        result.ok(expression.getConstant());
     }
 
     @Override
     public void visit(BooleanExpression expression) {
-        result = Result.ok(new BoolValue(expression.getValue()));
+        result.ok(expression.getConstant());
     }
 
     @Override
@@ -365,173 +387,245 @@ public class InterpretingVisitor implements Visitor, Interpreter {
         if (!typeDefinitions.containsKey(expression.getTypeName())) {
             throw new TypeNotDefinedException(expression.getTypeName(), expression.getPosition());
         }
-        var variantType = typeDefinitions.get(expression.getTypeName());
-        Parameter typeOfField = null;
+        var descriptor = VariantDescriptor.of(typeDefinitions.get(expression.getTypeName()));
+        var ordinal = descriptor.ordinal(expression.getFieldName());
 
-        for (var param : variantType.getParameters()) {
-            if (param.getName().equals(expression.getFieldName())) {
-                typeOfField = new Parameter(param.getType(), param.getName());
-                break;
-            }
-        }
-
-        if (typeOfField == null) {
+        if (ordinal < 0) {
             throw new InvalidVariantField(expression.getTypeName(), expression.getFieldName());
         }
         callAccept(expression.getExpression());
-        var value = retrieveResult(typeOfField);
-
-        var fields = new HashMap<String, Parameter>();
-        for (var param : variantType.getParameters()) {
-            fields.put(param.getName(), new Parameter(param.getType(), param.getName()));
-        }
+        var value = retrieveResult(descriptor.field(ordinal));
 
-        var variant = new VariantValue(new TypeDeclaration(ValueType.CUSTOM, variantType.getName()), fields, expression.getFieldName(), value);
-        result = Result.ok(variant);
+        var variant = new VariantValue(descriptor, ordinal, value);
+        result.ok(variant);
     }
 
     @Override
     public void visit(StructMemberExpression expression) {
-        var context = contexts.getLast();
-
-        var structVariable = context.findVariable(expression.getStructName())
-                .or(() -> GLOBAL_CONTEXT.findVariable(expression.getStructName()))
-                .orElseThrow(NoVariableException::new);
+        var structVariable = findVariable(expression.getSlot());
 
         var struct = structVariable.getValue();
-        var value = struct.get(expression.getFieldName());
+        var value = struct.get(expression);
 
-        result = Result.ok(value);
+        result.ok(value);
     }
 
     @Override
     public void visit(IdentifierExpression identifierExpression) {
-        var context = contexts.getLast();
-        var variable = context.findVariable(identifierExpression.getIdentifier())
-                .or(() -> GLOBAL_CONTEXT.findVariable(identifierExpression.getIdentifier()))
-                .orElseThrow(NoVariableException::new);
+        var variable = findVariable(identifierExpression.getSlot());
 
-        result = Result.ok(variable.getValue()).toBuilder().constant(variable.isConstant()).build();
+        result.ok(variable.getValue(), variable.isConstant());
     }
 
     @Override
     public void visit(FunctionCallExpression expression) {
-        if (!functionDefinitions.containsKey(expression.getIdentifier())) {
-            throw new FunctionNotDefinedException(expression.getIdentifier(), expression.getPosition());
-        }
-
-        var functionDeclaration = functionDefinitions.get(expression.getIdentifier());
-
-        var arguments = expression.getArguments();
-
-        if (arguments.size() != functionDeclaration.getParameters().size()) {
-            throw new InvalidNumberOfArgumentsException(expression);
-        }
-
-        var context = new Context(functionDeclaration.getName(), expression.getPosition());
-
-        for (int i = 0; i < arguments.size(); i++) {
-            callAccept(arguments.get(i));
-            var parameter = functionDeclaration.getParameters().get(i);
-            var value = retrieveResult(parameter);
-
-            context.addVariable(new Variable(parameter.getType(), parameter.getName(), value, retrieveIsConstant(), value.isVariant()));
+        var target = target(expression);
+        var functionDeclaration = target.getDefinition();
+        var context = bindArguments(expression, target);
+
+        var memo = target.isMemoized() && memoizer != null ? memoizer.table(functionDeclaration) : null;
+        var callerDepth = contexts.size();
+        List<Value> key = null;
+        int outerDeepest = deepest;
+        if (memo != null) {
+            key = MemoTable.key(context, target.getFrame());
+            var entry = memo.lookup(key, maxStackSize - callerDepth);
+            if (entry != null) {
+                deepest = Math.max(deepest, callerDepth + entry.height());
+                customType.add(new Parameter(functionDeclaration.getReturnType().get(), functionDeclaration.getReturnType().get().getCustomType()));
+                result.ok(entry.value().copy());
+                return;
+            }
+            deepest = callerDepth;
         }
 
         contexts.addLast(context);
-        if (contexts.size() > MAX_STACK_SIZE) {
+        if (contexts.size() > maxStackSize) {
             throw new FunctionStackLimitException();
         }
+        deepest = Math.max(deepest, contexts.size());
 
         if(functionDeclaration.getReturnType().isPresent()) {
             customType.add(new Parameter(functionDeclaration.getReturnType().get(), functionDeclaration.getReturnType().get().getCustomType()));
         }
 
-        callAccept(functionDeclaration.getBlock());
+        invoke(functionDeclaration, context);
+        // trampoline - tail calls replace the current context instead of growing the stack
+        while (tailCallee != null) {
+            var callee = tailCallee;
+            contexts.removeLast();
+            contexts.addLast(tailContext);
+            tailCallee = null;
+            tailContext = null;
+            invoke(callee, contexts.getLast());
+        }
 
         // if return value
         if (functionDeclaration.getReturnType().isEmpty()) {
-            result = Result.empty();
+            result.empty();
         } else if (result.isReturned()) {
             if (result.getValue() == null) {
                 throw new FunctionDidNotReturnValueException();
             }
 
             validateTypes(result.getValue().getType(), functionDeclaration.getReturnType().get());
-            result = result.toBuilder().returned(false).build();
+            result.setReturned(false);
         } else {
             throw new FunctionDidNotReturnException();
         }
 
+        if (memo != null) {
+            memo.store(key, result.getValue(), deepest - callerDepth);
+            deepest = Math.max(outerDeepest, deepest);
+        }
         contexts.removeLast();
     }
 
-    private static final Map<TypeDeclaration, Function3<RelationExpression, Value, Value, Boolean>>
-            RELATIONAL_OPERATIONS = Map.of(
-            INT_TYPE, (expression, left, right) -> expression.evaluate(left.getInteger(), right.getInteger()),
-            FLOAT_TYPE, (expression, left, right) -> expression.evaluate(left.getFloatVal(), right.getFloatVal())
-    );
+    /*
+     * function of the call site, resolved and checked on its first call and again after the definitions change
+     */
+    private CallTarget target(FunctionCallExpression expression) {
+        var target = expression.getTarget();
+        if (target != null && target.getDefinitions() == definitions) {
+            return target;
+        }
+
+        var functionDeclaration = functionDefinitions.get(expression.getIdentifier());
+        if (functionDeclaration == null) {
+            throw new FunctionNotDefinedException(expression.getIdentifier(), expression.getPosition());
+        }
+        if (expression.getArguments().size() != functionDeclaration.getParameters().size()) {
+            throw new InvalidNumberOfArgumentsException(expression);
+        }
+
+        var memoized = Memoizer.isMemoized(program, expression, functionDeclaration);
+        target = new CallTarget(functionDeclaration, functionDeclaration.getFrame(), definitions, memoized);
+        expression.setTarget(target);
+        return target;
+    }
+
+    private Context bindArguments(FunctionCallExpression expression, CallTarget target) {
+        var arguments = expression.getArguments();
+        var functionDeclaration = target.getDefinition();
+        var frame = target.getFrame();
+        var context = new Context(functionDeclaration.getName(), expression.getPackedPosition(), frame.getSize());
+
+        for (int i = 0; i < arguments.size(); i++) {
+            callAccept(arguments.get(i));
+            var parameter = functionDeclaration.getParameters().get(i);
+            var value = retrieveResult(parameter);
+
+            var slot = frame.getParameters().get(i);
+            if (slot.isRedeclared()) {
+                throw new DuplicatedVariableException(parameter.getName());
+            }
+            context.addVariable(slot.getIndex(), new Variable(parameter.getType(), parameter.getName(), value, retrieveIsConstant(), value.isVariant()));
+        }
+
+        return context;
+    }
+
+    private void invoke(FunctionDefinitionStatement functionDeclaration, Context context) {
+        var nativeFunction = jit != null ? jit.lookup(functionDeclaration) : null;
+        if (nativeFunction != null) {
+            result.ok(nativeFunction.invoke(contexts.size(), context));
+            result.setReturned(true);
+        } else {
+            callAccept(functionDeclaration.getBlock());
+        }
+    }
+
+    private boolean isTailCall(FunctionCallExpression call) {
+        var caller = functionDefinitions.get(contexts.getLast().getFunctionName());
+        return InterpreterUtilities.isTailCall(caller, target(call).getDefinition(), call.getArguments().size());
+    }
 
     @Override
     public void visit(RelationExpression expression) {
         callAccept(expression.getLeft());
         var left = retrieveResult();
 
-        if (RELATIONAL_OPERATIONS.containsKey(left.getType())) {
-            callAccept(expression.getRight());
-            var right = retrieveResult(left.getType());
-            var value = RELATIONAL_OPERATIONS.get(left.getType()).apply(expression, left, right);
-            result = Result.ok(new BoolValue(value));
-        } else {
+        var operandType = specialize(expression, left);
+        if (operandType != Specialization.INT && operandType != Specialization.FLOAT) {
             throw new CompareOperationNotSupportedForNonNumericTypes(expression.getPosition());
         }
-    }
 
-    private static final Map<TypeDeclaration, Function3<EqualityRelationalExpression, Value, Value, Boolean>>
-            EQUALITY_OPERATORS = Map.of(
-            INT_TYPE, (expression, left, right) -> expression.evaluate(left.getInteger(), right.getInteger()),
-            FLOAT_TYPE, (expression, left, right) -> expression.evaluate(left.getFloatVal(), right.getFloatVal()),
-            STRING_TYPE, (expression, left, right) -> expression.evaluate(left.getString(), right.getString())
-    );
+        callAccept(expression.getRight());
+        var right = retrieveResult();
+        if (!operandType.accepts(right)) {
+            validateTypes(right.getType(), left.getType());
+        }
+
+        var value = operandType == Specialization.INT
+                ? expression.evaluate(left.getInteger(), right.getInteger())
+                : expression.evaluate(left.getFloatVal(), right.getFloatVal());
+        result.ok(BoolValue.of(value));
+    }
 
     @Override
     public void visit(EqualityRelationalExpression expression) {
         callAccept(expression.getLeft());
         var left = retrieveResult();
 
-        if (EQUALITY_OPERATORS.containsKey(left.getType())) {
-            callAccept(expression.getRight());
-            var right = retrieveResult();
-            if (!Objects.equals(left.getType(), right.getType())) {
-                throw new TypesDoNotMatchException(left.getType(), right.getType());
-            }
-            var value = EQUALITY_OPERATORS.get(left.getType()).apply(expression, left, right);
-            result = Result.ok(new BoolValue(value));
-        } else {
+        var operandType = specialize(expression, left);
+        if (operandType == Specialization.UNINITIALIZED) {
             throw new CompareOperationNotSupportedForNonNumericTypes(expression.getPosition());
         }
-    }
 
-    private static final Map<TypeDeclaration, Function3<BinaryArithmeticExpression, Value, Value, Value>>
-            ARITHMETIC_OPERATIONS = Map.of(
-            INT_TYPE, (expression, left, right) -> new IntValue(expression.evaluate(left.getInteger(), right.getInteger())),
-            FLOAT_TYPE, (expression, left, right) -> new FloatValue(expression.evaluate(left.getFloatVal(), right.getFloatVal())),
-            STRING_TYPE, (expression, left, right) -> new StringValue(expression.evaluate(left.getString(), right.getString()))
-    );
+        callAccept(expression.getRight());
+        var right = retrieveResult();
+        if (!operandType.accepts(right)) {
+            throw new TypesDoNotMatchException(left.getType(), right.getType());
+        }
+
+        var value = switch (operandType) {
+            case INT -> expression.evaluate(left.getInteger(), right.getInteger());
+            case FLOAT -> expression.evaluate(left.getFloatVal(), right.getFloatVal());
+            default -> expression.evaluate(left.getString(), right.getString());
+        };
+        result.ok(BoolValue.of(value));
+    }
 
     @Override
     public void visit(BinaryArithmeticExpression expression) {
         callAccept(expression.getLeft());
         var left = retrieveResult();
 
-        if (ARITHMETIC_OPERATIONS.containsKey(left.getType())) {
-            callAccept(expression.getRight());
-            var right = retrieveResult(left.getType());
-            var value = ARITHMETIC_OPERATIONS.get(left.getType()).apply(expression, left, right);
-            result = Result.ok(value);
-        } else {
+        var operandType = specialize(expression, left);
+        if (operandType == Specialization.UNINITIALIZED) {
             throw new ArithmeticOperationNotSupportedForNonNumericTypes(expression.getPosition());
         }
+
+        callAccept(expression.getRight());
+        var right = retrieveResult();
+        if (!operandType.accepts(right)) {
+            validateTypes(right.getType(), left.getType());
+        }
+
+        switch (operandType) {
+            case INT -> result.ok(IntValue.of(expression.evaluate(left.getInteger(), right.getInteger())));
+            case FLOAT -> result.ok(FloatValue.of(expression.evaluate(left.getFloatVal(), right.getFloatVal())));
+            default -> result.ok(evaluateStrings(expression, left, right));
+        }
+    }
+
+    /*
+     * returns the operand type to execute the operator for;
+     * a node specializes itself on its first execution and turns generic when its guard fails afterwards
+     */
+    private static Specialization specialize(SpecializingExpression expression, Value left) {
+        var specialization = expression.getSpecialization();
+        if (specialization.accepts(left)) {
+            return specialization;
+        }
+
+        var operandType = Specialization.of(left);
+        if (specialization == Specialization.UNINITIALIZED) {
+            expression.setSpecialization(operandType);
+        } else if (specialization != Specialization.GENERIC && operandType != Specialization.UNINITIALIZED) {
+            expression.setSpecialization(Specialization.GENERIC);
+        }
+        return operandType;
     }
 
     @Override
@@ -540,9 +634,9 @@ public class InterpretingVisitor implements Visitor, Interpreter {
         var value = retrieveResult();
 
         if (Objects.equals(value.getType(), INT_TYPE)) {
-            result = Result.ok(new IntValue(-value.getInteger()));
+            result.ok(IntValue.of(-value.getInteger()));
         } else if (Objects.equals(value.getType(), FLOAT_TYPE)) {
-            result = Result.ok(new FloatValue(-value.getFloatVal()));
+            result.ok(FloatValue.of(-value.getFloatVal()));
         } else {
             throw new ArithmeticOperationNotSupportedForNonNumericTypes(negateArithmeticExpression.getPosition());
         }
@@ -555,36 +649,15 @@ public class InterpretingVisitor implements Visitor, Interpreter {
 
         callAccept(expression.getRight());
         var right = retrieveResult(BOOL_TYPE);
-        result = Result.ok(new BoolValue(expression.evaluate(left.isBool(), right.isBool())));
+        result.ok(BoolValue.of(expression.evaluate(left.isBool(), right.isBool())));
     }
 
     @Override
     public void visit(NegateLogicalExpression expression) {
         callAccept(expression.getExpression());
         var value = retrieveResult(BOOL_TYPE);
-        result = Result.ok(new BoolValue(!value.isBool()));
-    }
-
-    private static final Map<TypeDeclaration, Map<TypeDeclaration, Function<Value, Value>>> CAST_OPERATIONS = Map.of(
-            INT_TYPE, Map.of(
-                    BOOL_TYPE, value -> new IntValue(value.isBool() ? 1 : 0),
-                    FLOAT_TYPE, value -> new IntValue((int) value.getFloatVal()),
-                    INT_TYPE, Function.identity(),
-                    STRING_TYPE, value -> new IntValue(StringUtils.equals(value.getString(), "") ? 0 : 1)
-            ),
-            FLOAT_TYPE, Map.of(
-                    BOOL_TYPE, value -> new FloatValue(value.isBool() ? 1.0F : 0.0F),
-                    FLOAT_TYPE, Function.identity(),
-                    INT_TYPE, value -> new FloatValue(value.getInteger()),
-                    STRING_TYPE, value -> new FloatValue(StringUtils.equals(value.getString(), "") ? 0.0F : 1.0F)
-            ),
-            STRING_TYPE, Map.of(
-                    BOOL_TYPE, value -> new StringValue(String.valueOf(value.isBool())),
-                    INT_TYPE, value -> new StringValue(String.valueOf(value.getInteger())),
-                    FLOAT_TYPE, value -> new StringValue(String.valueOf(value.getFloatVal())),
-                    STRING_TYPE, Function.identity()
-            )
-    );
+        result.ok(BoolValue.of(!value.isBool()));
+    }
 
     @Override
     public void visit(CastedFactorExpression castedFactorExpression) {
@@ -604,7 +677,7 @@ public class InterpretingVisitor implements Visitor, Interpreter {
             throw new UnsupportedCastException(castedFactorExpression.getPosition());
         }
         var value = castHelper.get(toCast.getType()).apply(toCast);
-        result = Result.ok(value);
+        result.ok(value);
     }
 
     @Override
@@ -612,20 +685,34 @@ public class InterpretingVisitor implements Visitor, Interpreter {
         callAccept(expression.getExpression());
         var variable = retrieveResult();
 
-        result = Result.ok(variable.copy());
+        result.ok(variable.copy());
     }
 
     @Override
     public void visit(PrintFunction expression) {
-        var context = contexts.getLast();
-
-        var message = context.findVariable(PRINT_ARGUMENT)
-                .map(Variable::getValue)
-                .orElseThrow(NoVariableException::new);
+        var message = contexts.getLast().getVariable(PRINT_ARGUMENT_SLOT).getValue();
 
         out.println(message.getString());
     }
 
+    private Context frameOf(Slot slot) {
+        return slot.isGlobal() ? globalContext : contexts.getLast();
+    }
+
+    private Variable findVariable(Slot slot) {
+        if (!slot.isResolved()) {
+            throw new NoVariableException();
+        }
+        return frameOf(slot).getVariable(slot.getIndex());
+    }
+
+    private void declareVariable(Slot slot, Variable variable) {
+        if (slot.isRedeclared()) {
+            throw new DuplicatedVariableException(variable.getIdentifier());
+        }
+        frameOf(slot).addVariable(slot.getIndex(), variable);
+    }
+
     private Value retrieveResult(TypeDeclaration type) {
         var value = retrieveResult();
 
@@ -662,18 +749,7 @@ public class InterpretingVisitor implements Visitor, Interpreter {
         return result.isConstant();
     }
 
-    private void validateTypes(TypeDeclaration provided, TypeDeclaration expected) {
-        if (provided.getValueType() != expected.getValueType()) {
-            throw new TypesDoNotMatchException(provided, expected);
-        }
-
-        if (expected.getCustomType() != null && !Objects.equals(provided.getCustomType(), expected.getCustomType())) {
-            throw new TypesDoNotMatchException(provided, expected);
-        }
-    }
-
     private <T extends Node> void callAccept(T expression) {
-        currentPosition = expression.getPosition();
         expression.accept(this);
     }
 
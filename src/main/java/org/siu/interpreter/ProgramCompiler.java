@@ -0,0 +1,163 @@
+package org.siu.interpreter;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.siu.ast.Program;
+import org.siu.error.ErrorHandler;
+import org.siu.error.ErrorHandlerImpl;
+import org.siu.interpreter.image.ProgramImage;
+import org.siu.lexer.Source;
+import org.siu.lexer.Trivia;
+import org.siu.parser.Parser;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.siu.interpreter.InterpreterConfig.programCacheSize;
+import static org.siu.interpreter.InterpreterConfig.programImages;
+import static org.siu.lexer.LexerConfig.tokenBuffer;
+
+/**
+ * Lexes, parses, checks return types, optimizes and resolves sources into programs which can be run many times.
+ * Compiled programs are cached by the hash of their source, evicting the least recently used program when full,
+ * so running the same source again skips all the compilation steps.
+ * Source files can also be kept precompiled in program images next to them, which is off unless asked for,
+ * so compiling never writes into source trees by default.
+ */
+@Slf4j
+public class ProgramCompiler {
+    private final PrintStream diagnostics;
+    private final boolean images;
+    private final Map<String, CompiledProgram> programs;
+    @Getter
+    private long hits;
+    @Getter
+    private long misses;
+
+    public ProgramCompiler(PrintStream diagnostics) {
+        this(programCacheSize(), diagnostics);
+    }
+
+    public ProgramCompiler(int capacity, PrintStream diagnostics) {
+        this(capacity, programImages(), diagnostics);
+    }
+
+    public ProgramCompiler(int capacity, boolean images, PrintStream diagnostics) {
+        this.diagnostics = diagnostics;
+        this.images = images;
+        this.programs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledProgram> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public CompiledProgram compile(String source) {
+        return compile(Source.of(source), null);
+    }
+
+    public CompiledProgram compile(Source source) {
+        return compile(source, null);
+    }
+
+    /*
+     * with images enabled, a fresh program image next to the file is loaded instead of compiling its source,
+     * otherwise it is written after compiling
+     */
+    public CompiledProgram compile(Path file) throws IOException {
+        return compile(Source.map(file), images ? ProgramImage.pathFor(file) : null);
+    }
+
+    /*
+     * sources failing to compile are not cached, so they fail again the same way
+     */
+    private CompiledProgram compile(Source source, Path image) {
+        var hash = hash(source);
+        synchronized (programs) {
+            var cached = programs.get(hash);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        // compiled outside the lock, so other sources compile at the same time; a source compiled twice at once is cached once
+        var compiled = new CompiledProgram(hash, build(source, hash, image));
+        synchronized (programs) {
+            var cached = programs.putIfAbsent(hash, compiled);
+            return cached != null ? cached : compiled;
+        }
+    }
+
+    public int size() {
+        synchronized (programs) {
+            return programs.size();
+        }
+    }
+
+    private Program build(Source source, String hash, Path image) {
+        var program = image == null ? null : load(image, hash);
+        if (program == null) {
+            program = check(source);
+            if (image != null) {
+                save(image, hash, program);
+            }
+        }
+        new VariableResolver(program).resolve();
+        return program;
+    }
+
+    /*
+     * an unreadable image is compiled again from the source
+     */
+    private static Program load(Path image, String hash) {
+        try {
+            return ProgramImage.load(image, hash).orElse(null);
+        } catch (IOException e) {
+            log.warn("Ignoring program image {}: {}", image, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void save(Path image, String hash, Program program) {
+        try {
+            ProgramImage.save(image, hash, program);
+        } catch (IOException e) {
+            log.warn("Could not write program image {}: {}", image, e.getMessage());
+        }
+    }
+
+    private Program check(Source source) {
+        final ErrorHandler errorHandler = new ErrorHandlerImpl();
+        // the program is only executed, so comments are skipped instead of being built and filtered out
+        var lexer = tokenBuffer() ? source.tokenize(Trivia.SKIP, errorHandler).lexer() : source.lexer(Trivia.SKIP, errorHandler);
+        var parser = new Parser(lexer, errorHandler);
+        var program = parser.buildProgram();
+
+        var returnTypeVisitor = new FunctionReturnTypeVisitor(program, diagnostics);
+        returnTypeVisitor.execute();
+        if (returnTypeVisitor.hasErrorOccurred()) {
+            throw new RuntimeException(returnTypeVisitor.getErrorDetails());
+        }
+        new ProgramOptimizer(program).optimize();
+        return program;
+    }
+
+    private static String hash(Source source) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            source.digest(digest);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,571 @@
+package org.siu.interpreter;
+
+import io.vavr.Function3;
+import lombok.RequiredArgsConstructor;
+import org.siu.ast.BlockStatement;
+import org.siu.ast.Node;
+import org.siu.ast.Program;
+import org.siu.ast.Statement;
+import org.siu.ast.expression.*;
+import org.siu.ast.expression.arithmetic.*;
+import org.siu.ast.expression.logical.AndLogicalExpression;
+import org.siu.ast.expression.logical.LogicalExpression;
+import org.siu.ast.expression.logical.NegateLogicalExpression;
+import org.siu.ast.expression.logical.OrLogicalExpression;
+import org.siu.ast.expression.relation.*;
+import org.siu.ast.function.FunctionDefinitionStatement;
+import org.siu.ast.statement.*;
+import org.siu.ast.type.*;
+import org.siu.interpreter.builtin.PrintFunction;
+import org.siu.interpreter.error.UnsupportedOperationException;
+import org.siu.interpreter.state.Value;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.siu.interpreter.InterpreterUtilities.*;
+
+/**
+ * Rewrites a parsed program before {@link VariableResolver} runs: folds operations on literals, inlines const globals
+ * initialised with literals and removes if branches and while loops with constant false conditions.
+ * An operation is folded only when evaluating it cannot fail, so errors are still reported when the code is executed.
+ * Const globals are inlined only where their value is consumed by an operator or a converting cast,
+ * because elsewhere a variable is shared by reference together with its constness.
+ */
+@RequiredArgsConstructor
+public class ProgramOptimizer implements Visitor {
+    private static final Map<Class<?>, Function3<Expression, Expression, Long, Expression>> ARITHMETIC_OPERATORS = Map.of(
+            AddArithmeticExpression.class, Function3.of(AddArithmeticExpression::new),
+            SubtractArithmeticExpression.class, Function3.of(SubtractArithmeticExpression::new),
+            MultiplyArithmeticExpression.class, Function3.of(MultiplyArithmeticExpression::new),
+            DivideArithmeticExpression.class, Function3.of(DivideArithmeticExpression::new),
+            ModuloArithmeticExpression.class, Function3.of(ModuloArithmeticExpression::new)
+    );
+    private static final Map<Class<?>, Function3<Expression, Expression, Long, Expression>> RELATION_OPERATORS = Map.of(
+            LessExpression.class, Function3.of(LessExpression::new),
+            LessEqualExpression.class, Function3.of(LessEqualExpression::new),
+            GreaterExpression.class, Function3.of(GreaterExpression::new),
+            GreaterEqualExpression.class, Function3.of(GreaterEqualExpression::new),
+            EqualExpression.class, Function3.of(EqualExpression::new),
+            NotEqualExpression.class, Function3.of(NotEqualExpression::new)
+    );
+    private static final Map<Class<?>, Function3<Expression, Expression, Long, Expression>> LOGICAL_OPERATORS = Map.of(
+            AndLogicalExpression.class, Function3.of(AndLogicalExpression::new),
+            OrLogicalExpression.class, Function3.of(OrLogicalExpression::new)
+    );
+
+    private final Program program;
+    private final Map<String, Expression> constants = new HashMap<>();
+    private final Deque<Set<String>> scopes = new ArrayDeque<>();
+    private boolean globalCalls;
+
+    private Expression expression;
+    private Statement statement;
+
+    public void optimize() {
+        callAccept(program);
+    }
+
+    @Override
+    public void visit(Program program) {
+        program.getDeclarations().replaceAll((name, declaration) -> optimize(declaration));
+
+        // a function called while globals are initialised may run before a const global it refers to is declared
+        if (!globalCalls) {
+            for (var declaration : program.getDeclarations().values()) {
+                if (declaration instanceof ConstStatement constStatement) {
+                    var initializer = constStatement.getStatement().getExpression();
+                    if (isLiteral(initializer) && literalType(initializer).equals(constStatement.getParameter().getType())) {
+                        constants.put(constStatement.getName(), initializer);
+                    }
+                }
+            }
+        }
+
+        program.getFunctionDefinitions().replaceAll((name, function) -> optimizeFunction(function));
+    }
+
+    private FunctionDefinitionStatement optimizeFunction(FunctionDefinitionStatement function) {
+        scopes.clear();
+        beginScope();
+        for (var parameter : function.getParameters()) {
+            declare(parameter.getName());
+        }
+        var block = (BlockStatement) optimize(function.getBlock());
+        endScope();
+
+        return block == function.getBlock() ? function : new FunctionDefinitionStatement(
+                function.getName(), function.getParameters(), function.getReturnType(), block, function.getPackedPosition()
+        );
+    }
+
+    private void beginScope() {
+        scopes.addLast(new HashSet<>());
+    }
+
+    private void endScope() {
+        scopes.removeLast();
+    }
+
+    private void declare(String name) {
+        if (!scopes.isEmpty()) {
+            scopes.getLast().add(name);
+        }
+    }
+
+    /*
+     * const global the identifier refers to, null outside functions or when a local variable shadows it
+     */
+    private Expression constantOf(Expression expression) {
+        if (!(expression instanceof IdentifierExpression identifier) || scopes.isEmpty()) {
+            return null;
+        }
+        for (var scope : scopes) {
+            if (scope.contains(identifier.getIdentifier())) {
+                return null;
+            }
+        }
+        return constants.get(identifier.getIdentifier());
+    }
+
+    @Override
+    public void visit(WhileStatement whileStatement) {
+        var condition = optimize(whileStatement.getCondition());
+        if (condition instanceof BooleanExpression literal && !literal.getValue()) {
+            statement = null;
+            return;
+        }
+
+        var block = (BlockStatement) optimize(whileStatement.getBlock());
+        statement = condition == whileStatement.getCondition() && block == whileStatement.getBlock()
+                ? whileStatement
+                : new WhileStatement(condition, block, whileStatement.getPackedPosition());
+    }
+
+    /*
+     * branches with a false condition are removed, a true condition turns its branch into the else branch
+     */
+    @Override
+    public void visit(IfStatement ifStatement) {
+        var conditions = new ArrayList<Expression>();
+        var blocks = new ArrayList<BlockStatement>();
+        var elseBlock = ifStatement.getElseInstructions().map(block -> (BlockStatement) optimize(block));
+        var changed = elseBlock.isPresent() && elseBlock.get() != ifStatement.getElseInstructions().get();
+
+        for (int i = 0; i < ifStatement.getConditions().size(); i++) {
+            var condition = optimize(ifStatement.getConditions().get(i));
+            var block = (BlockStatement) optimize(ifStatement.getIfInstructions().get(i));
+            changed |= condition != ifStatement.getConditions().get(i) || block != ifStatement.getIfInstructions().get(i);
+
+            if (condition instanceof BooleanExpression literal) {
+                changed = true;
+                if (literal.getValue()) {
+                    elseBlock = Optional.of(block);
+                    break;
+                }
+                continue;
+            }
+            conditions.add(condition);
+            blocks.add(block);
+        }
+
+        if (conditions.isEmpty()) {
+            statement = elseBlock.orElse(null);
+        } else {
+            statement = changed ? new IfStatement(conditions, blocks, elseBlock, ifStatement.getPackedPosition()) : ifStatement;
+        }
+    }
+
+    @Override
+    public void visit(ReturnStatement returnStatement) {
+        if (returnStatement.getExpression() == null) {
+            statement = returnStatement;
+            return;
+        }
+
+        var value = optimize(returnStatement.getExpression());
+        statement = value == returnStatement.getExpression() ? returnStatement : new ReturnStatement(value, returnStatement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(DeclarationStatement declarationStatement) {
+        statement = optimizeDeclaration(declarationStatement);
+    }
+
+    private DeclarationStatement optimizeDeclaration(DeclarationStatement declaration) {
+        var initializer = optimize(declaration.getExpression());
+        declare(declaration.getName());
+        return initializer == declaration.getExpression()
+                ? declaration
+                : new DeclarationStatement(declaration.getParameter(), initializer, declaration.getPackedPosition());
+    }
+
+    @Override
+    public void visit(BlockStatement blockStatement) {
+        beginScope();
+        var statements = new ArrayList<Statement>();
+        var changed = false;
+        for (var original : blockStatement.getStatements()) {
+            var optimized = optimize(original);
+            changed |= optimized != original;
+            if (optimized != null) {
+                statements.add(optimized);
+            }
+        }
+        endScope();
+
+        statement = changed ? new BlockStatement(statements, blockStatement.getPackedPosition()) : blockStatement;
+    }
+
+    @Override
+    public void visit(AssignmentStatement assignmentStatement) {
+        var value = optimize(assignmentStatement.getValue());
+        statement = value == assignmentStatement.getValue()
+                ? assignmentStatement
+                : new AssignmentStatement(assignmentStatement.getName(), value, assignmentStatement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(VariantTypeDefinitionStatement variantTypeDefinitionStatement) {
+        statement = variantTypeDefinitionStatement;
+    }
+
+    @Override
+    public void visit(StructTypeDefinitionStatement structTypeDefinitionStatement) {
+        statement = structTypeDefinitionStatement;
+    }
+
+    @Override
+    public void visit(ConstStatement constStatement) {
+        var declaration = optimizeDeclaration(constStatement.getStatement());
+        statement = declaration == constStatement.getStatement()
+                ? constStatement
+                : new ConstStatement(constStatement.getParameter(), declaration, constStatement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(FunctionDefinitionStatement statement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void visit(StructDeclarationExpression structDeclaration) {
+        var arguments = optimize(structDeclaration.getArguments());
+        expression = arguments == structDeclaration.getArguments()
+                ? structDeclaration
+                : new StructDeclarationExpression(structDeclaration.getIdentifier(), arguments, structDeclaration.getPackedPosition());
+    }
+
+    @Override
+    public void visit(StructMemberAssignmentStatement assignment) {
+        var value = optimize(assignment.getValue());
+        statement = value == assignment.getValue()
+                ? assignment
+                : new StructMemberAssignmentStatement(assignment.getStruct(), value, assignment.getPackedPosition());
+    }
+
+    @Override
+    public void visit(VariantAssignmentStatement assignment) {
+        var value = optimize(assignment.getValue());
+        statement = value == assignment.getValue()
+                ? assignment
+                : new VariantAssignmentStatement(assignment.getVariant(), value, assignment.getPackedPosition());
+    }
+
+    @Override
+    public void visit(MatchStatement matchStatement) {
+        var matched = optimize(matchStatement.getExpression());
+        var cases = new ArrayList<MatchCaseStatement>();
+        var changed = matched != matchStatement.getExpression();
+        for (var matchCase : matchStatement.getStatements()) {
+            var optimized = (MatchCaseStatement) optimize(matchCase);
+            changed |= optimized != matchCase;
+            cases.add(optimized);
+        }
+
+        statement = changed ? new MatchStatement(matched, cases, matchStatement.getPackedPosition()) : matchStatement;
+    }
+
+    @Override
+    public void visit(MatchCaseStatement matchCase) {
+        beginScope();
+        declare(matchCase.getVariable());
+        var block = (BlockStatement) optimize(matchCase.getBlock());
+        endScope();
+
+        statement = block == matchCase.getBlock() ? matchCase : new MatchCaseStatement(
+                matchCase.getVariantType(), matchCase.getFieldName(), matchCase.getVariable(), block, matchCase.getPackedPosition()
+        );
+    }
+
+    @Override
+    public void visit(IntegerExpression integerExpression) {
+        expression = integerExpression;
+    }
+
+    @Override
+    public void visit(FloatExpression floatExpression) {
+        expression = floatExpression;
+    }
+
+    @Override
+    public void visit(StringExpression stringExpression) {
+        expression = stringExpression;
+    }
+
+    @Override
+    public void visit(BooleanExpression booleanExpression) {
+        expression = booleanExpression;
+    }
+
+    @Override
+    public void visit(VariantDeclarationExpression variantDeclaration) {
+        var value = optimize(variantDeclaration.getExpression());
+        expression = value == variantDeclaration.getExpression() ? variantDeclaration : new VariantDeclarationExpression(
+                variantDeclaration.getTypeName(), variantDeclaration.getFieldName(), value, variantDeclaration.getPackedPosition()
+        );
+    }
+
+    @Override
+    public void visit(StructMemberExpression structMember) {
+        expression = structMember;
+    }
+
+    @Override
+    public void visit(IdentifierExpression identifierExpression) {
+        expression = identifierExpression;
+    }
+
+    @Override
+    public void visit(FunctionCallExpression call) {
+        if (scopes.isEmpty()) {
+            globalCalls = true;
+        }
+
+        var arguments = optimize(call.getArguments());
+        expression = arguments == call.getArguments() ? call : new FunctionCallExpression(call.getIdentifier(), arguments, call.getPackedPosition());
+    }
+
+    @Override
+    public void visit(RelationExpression relation) {
+        var left = optimizeOperand(relation.getLeft());
+        var right = optimizeOperand(relation.getRight());
+
+        var folded = fold(() -> {
+            if (left instanceof IntegerExpression first && right instanceof IntegerExpression second) {
+                return new BooleanExpression(relation.evaluate(first.getValue(), second.getValue()), relation.getPackedPosition());
+            }
+            if (left instanceof FloatExpression first && right instanceof FloatExpression second) {
+                return new BooleanExpression(relation.evaluate(first.getValue(), second.getValue()), relation.getPackedPosition());
+            }
+            return null;
+        });
+        expression = folded != null ? folded
+                : rebuild(RELATION_OPERATORS, relation, left, right, left != relation.getLeft() || right != relation.getRight());
+    }
+
+    @Override
+    public void visit(EqualityRelationalExpression relation) {
+        var left = optimizeOperand(relation.getLeft());
+        var right = optimizeOperand(relation.getRight());
+
+        var folded = fold(() -> {
+            if (left instanceof IntegerExpression first && right instanceof IntegerExpression second) {
+                return new BooleanExpression(relation.evaluate(first.getValue(), second.getValue()), relation.getPackedPosition());
+            }
+            if (left instanceof FloatExpression first && right instanceof FloatExpression second) {
+                return new BooleanExpression(relation.evaluate(first.getValue(), second.getValue()), relation.getPackedPosition());
+            }
+            if (left instanceof StringExpression first && right instanceof StringExpression second) {
+                return new BooleanExpression(relation.evaluate(first.getValue(), second.getValue()), relation.getPackedPosition());
+            }
+            return null;
+        });
+        expression = folded != null ? folded
+                : rebuild(RELATION_OPERATORS, relation, left, right, left != relation.getLeft() || right != relation.getRight());
+    }
+
+    @Override
+    public void visit(BinaryArithmeticExpression arithmetic) {
+        var left = optimizeOperand(arithmetic.getLeft());
+        var right = optimizeOperand(arithmetic.getRight());
+
+        var folded = fold(() -> {
+            if (left instanceof IntegerExpression first && right instanceof IntegerExpression second) {
+                return new IntegerExpression(arithmetic.evaluate(first.getValue(), second.getValue()), arithmetic.getPackedPosition());
+            }
+            if (left instanceof FloatExpression first && right instanceof FloatExpression second) {
+                return new FloatExpression(arithmetic.evaluate(first.getValue(), second.getValue()), arithmetic.getPackedPosition());
+            }
+            if (left instanceof StringExpression first && right instanceof StringExpression second) {
+                return new StringExpression(arithmetic.evaluate(first.getValue(), second.getValue()), arithmetic.getPackedPosition());
+            }
+            return null;
+        });
+        expression = folded != null ? folded
+                : rebuild(ARITHMETIC_OPERATORS, arithmetic, left, right, left != arithmetic.getLeft() || right != arithmetic.getRight());
+    }
+
+    @Override
+    public void visit(NegateArithmeticExpression negate) {
+        var operand = optimizeOperand(negate.getExpression());
+
+        if (operand instanceof IntegerExpression literal) {
+            expression = new IntegerExpression(-literal.getValue(), negate.getPackedPosition());
+        } else if (operand instanceof FloatExpression literal) {
+            expression = new FloatExpression(-literal.getValue(), negate.getPackedPosition());
+        } else {
+            expression = operand == negate.getExpression() ? negate : new NegateArithmeticExpression(operand, negate.getPackedPosition());
+        }
+    }
+
+    @Override
+    public void visit(LogicalExpression logical) {
+        var left = optimizeOperand(logical.getLeft());
+        var right = optimizeOperand(logical.getRight());
+
+        var folded = fold(() -> {
+            if (left instanceof BooleanExpression first && right instanceof BooleanExpression second) {
+                return new BooleanExpression(logical.evaluate(first.getValue(), second.getValue()), logical.getPackedPosition());
+            }
+            return null;
+        });
+        expression = folded != null ? folded
+                : rebuild(LOGICAL_OPERATORS, logical, left, right, left != logical.getLeft() || right != logical.getRight());
+    }
+
+    @Override
+    public void visit(NegateLogicalExpression negate) {
+        var operand = optimizeOperand(negate.getExpression());
+
+        if (operand instanceof BooleanExpression literal) {
+            expression = new BooleanExpression(!literal.getValue(), negate.getPackedPosition());
+        } else {
+            expression = operand == negate.getExpression() ? negate : new NegateLogicalExpression(operand, negate.getPackedPosition());
+        }
+    }
+
+    /*
+     * an identity cast returns the same value, so a const global is inlined only when the cast converts it
+     */
+    @Override
+    public void visit(CastedFactorExpression cast) {
+        var operand = constantOf(cast.getExpression());
+        if (operand == null || literalType(operand).equals(cast.getType())) {
+            operand = optimize(cast.getExpression());
+        }
+
+        var casts = CAST_OPERATIONS.get(cast.getType());
+        if (isLiteral(operand) && casts != null && casts.containsKey(literalType(operand))) {
+            expression = literalOf(casts.get(literalType(operand)).apply(valueOf(operand)), cast.getPackedPosition());
+        } else {
+            expression = operand == cast.getExpression() ? cast : new CastedFactorExpression(cast.getType(), operand, cast.getPackedPosition());
+        }
+    }
+
+    @Override
+    public void visit(CopiedValueExpression copiedValue) {
+        expression = copiedValue;
+    }
+
+    @Override
+    public void visit(PrintFunction printFunction) {
+        statement = printFunction;
+    }
+
+    /*
+     * returns null when the operation is not constant or evaluating it fails, the error is then reported at runtime
+     */
+    private static Expression fold(Supplier<Expression> folding) {
+        try {
+            return folding.get();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Expression rebuild(Map<Class<?>, Function3<Expression, Expression, Long, Expression>> operators,
+                                      Expression operation, Expression left, Expression right, boolean changed) {
+        return changed ? operators.get(operation.getClass()).apply(left, right, operation.getPackedPosition()) : operation;
+    }
+
+    private Expression optimizeOperand(Expression operand) {
+        var constant = constantOf(operand);
+        return constant != null ? constant : optimize(operand);
+    }
+
+    private static boolean isLiteral(Expression expression) {
+        return expression instanceof IntegerExpression || expression instanceof FloatExpression
+                || expression instanceof StringExpression || expression instanceof BooleanExpression;
+    }
+
+    private static TypeDeclaration literalType(Expression literal) {
+        if (literal instanceof IntegerExpression) {
+            return INT_TYPE;
+        }
+        if (literal instanceof FloatExpression) {
+            return FLOAT_TYPE;
+        }
+        if (literal instanceof StringExpression) {
+            return STRING_TYPE;
+        }
+        return BOOL_TYPE;
+    }
+
+    private static Value valueOf(Expression literal) {
+        if (literal instanceof IntegerExpression integer) {
+            return integer.getConstant();
+        }
+        if (literal instanceof FloatExpression floatExpression) {
+            return floatExpression.getConstant();
+        }
+        if (literal instanceof StringExpression string) {
+            return string.getConstant();
+        }
+        return ((BooleanExpression) literal).getConstant();
+    }
+
+    private static Expression literalOf(Value value, long position) {
+        if (INT_TYPE.equals(value.getType())) {
+            return new IntegerExpression(value.getInteger(), position);
+        }
+        if (FLOAT_TYPE.equals(value.getType())) {
+            return new FloatExpression(value.getFloatVal(), position);
+        }
+        if (STRING_TYPE.equals(value.getType())) {
+            return new StringExpression(value.getString(), position);
+        }
+        return new BooleanExpression(value.isBool(), position);
+    }
+
+    private List<Expression> optimize(List<Expression> expressions) {
+        var optimized = new ArrayList<Expression>(expressions.size());
+        var changed = false;
+        for (var original : expressions) {
+            var result = optimize(original);
+            changed |= result != original;
+            optimized.add(result);
+        }
+        return changed ? optimized : expressions;
+    }
+
+    private Expression optimize(Expression node) {
+        callAccept(node);
+        return expression;
+    }
+
+    /*
+     * returns the rewritten statement or null when it can be removed
+     */
+    private Statement optimize(Statement node) {
+        if (node instanceof Expression call) {
+            return (Statement) optimize(call);
+        }
+        callAccept(node);
+        return statement;
+    }
+
+    private <T extends Node> void callAccept(T node) {
+        node.accept(this);
+    }
+}
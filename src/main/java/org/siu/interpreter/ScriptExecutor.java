@@ -0,0 +1,103 @@
+package org.siu.interpreter;
+
+import org.siu.ast.Program;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.siu.interpreter.InterpreterConfig.threads;
+
+/**
+ * Runs programs concurrently in one JVM, every execution with its own interpreter and global variables.
+ * A program may be submitted many times and run by several threads at once,
+ * as its nodes cache only immutable facts about it after the variables are resolved.
+ */
+public class ScriptExecutor implements AutoCloseable {
+    private final Engine engine;
+    private final ExecutorService executor;
+
+    public ScriptExecutor(Engine engine) {
+        this(engine, threads());
+    }
+
+    public ScriptExecutor(Engine engine, int threads) {
+        this(engine, Executors.newFixedThreadPool(threads));
+    }
+
+    /*
+     * runs programs on the given executor, e.g. one starting a virtual thread per task, and shuts it down on close
+     */
+    public ScriptExecutor(Engine engine, ExecutorService executor) {
+        this.engine = engine;
+        this.executor = executor;
+    }
+
+    /*
+     * runs the program printing to the stream, errors of the program are printed like by a single interpreter
+     */
+    public Future<?> submit(Program program, PrintStream out) {
+        resolve(program);
+        return executor.submit(() -> engine.create(program, out).execute());
+    }
+
+    /*
+     * runs the program and completes with everything it printed
+     */
+    public Future<String> submit(Program program) {
+        resolve(program);
+        return executor.submit(() -> {
+            var output = new ByteArrayOutputStream();
+            engine.create(program, new PrintStream(output, true, StandardCharsets.UTF_8)).execute();
+            return output.toString(StandardCharsets.UTF_8);
+        });
+    }
+
+    /*
+     * runs all programs at once and returns their outputs in the same order
+     */
+    public List<String> runAll(List<Program> programs) throws InterruptedException, ExecutionException {
+        var futures = new ArrayList<Future<String>>();
+        for (var program : programs) {
+            futures.add(submit(program));
+        }
+
+        var outputs = new ArrayList<String>();
+        for (var future : futures) {
+            outputs.add(future.get());
+        }
+        return outputs;
+    }
+
+    /*
+     * waits for the submitted programs to finish, if interrupted cancels them and keeps the thread interrupted
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * slots are bound before the program is shared with the threads running it
+     */
+    private static void resolve(Program program) {
+        synchronized (program) {
+            if (program.getGlobalFrame() == null) {
+                new VariableResolver(program).resolve();
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package org.siu.interpreter;
+
+import lombok.RequiredArgsConstructor;
+import org.siu.ast.BlockStatement;
+import org.siu.ast.Node;
+import org.siu.ast.Program;
+import org.siu.ast.expression.*;
+import org.siu.ast.expression.arithmetic.BinaryArithmeticExpression;
+import org.siu.ast.expression.arithmetic.NegateArithmeticExpression;
+import org.siu.ast.expression.logical.LogicalExpression;
+import org.siu.ast.expression.logical.NegateLogicalExpression;
+import org.siu.ast.expression.relation.EqualityRelationalExpression;
+import org.siu.ast.expression.relation.RelationExpression;
+import org.siu.ast.function.FunctionDefinitionStatement;
+import org.siu.ast.statement.*;
+import org.siu.ast.type.BooleanExpression;
+import org.siu.ast.type.FloatExpression;
+import org.siu.ast.type.IntegerExpression;
+import org.siu.ast.type.StringExpression;
+import org.siu.interpreter.builtin.PrintFunction;
+import org.siu.interpreter.error.UnsupportedOperationException;
+import org.siu.interpreter.state.FrameLayout;
+import org.siu.interpreter.state.Slot;
+
+import java.util.*;
+
+
+/**
+ * Binds every variable reference to a slot in the function frame or in the global frame,
+ * so that the interpreter does not need to look variables up by name.
+ * References which cannot be resolved are left UNRESOLVED and fail only when executed.
+ */
+@RequiredArgsConstructor
+public class VariableResolver implements Visitor {
+    private final Program program;
+    private final Map<String, Slot> globals = new HashMap<>();
+    private final Deque<Map<String, Slot>> scopes = new ArrayDeque<>();
+    private int nextIndex = 0;
+    private int frameSize = 0;
+
+    public void resolve() {
+        callAccept(program);
+    }
+
+    @Override
+    public void visit(Program program) {
+        for (var declaration : program.getDeclarations().values()) {
+            globals.put(declaration.getName(), new Slot(Slot.GLOBAL, globals.size()));
+        }
+
+        for (var declaration : program.getDeclarations().values()) {
+            callAccept(declaration);
+        }
+        program.setGlobalFrame(new FrameLayout(globals.size(), List.of()));
+
+        for (var function : program.getFunctionDefinitions().values()) {
+            resolveFunction(function);
+        }
+    }
+
+    private void resolveFunction(FunctionDefinitionStatement function) {
+        scopes.clear();
+        nextIndex = 0;
+        frameSize = 0;
+
+        beginScope();
+        var parameters = new ArrayList<Slot>();
+        for (var parameter : function.getParameters()) {
+            parameters.add(declare(parameter.getName()));
+        }
+        callAccept(function.getBlock());
+        endScope();
+
+        function.setFrame(new FrameLayout(frameSize, parameters));
+    }
+
+    private void beginScope() {
+        scopes.addLast(new HashMap<>());
+    }
+
+    /*
+     * variables of the closed scope are not visible anymore, so their slots can be reused by the next scope
+     */
+    private void endScope() {
+        nextIndex -= scopes.removeLast().size();
+    }
+
+    private Slot declare(String name) {
+        if (scopes.isEmpty()) {
+            return globals.get(name);
+        }
+
+        var scope = scopes.getLast();
+        var existing = scope.get(name);
+        if (existing != null) {
+            return new Slot(existing.getDepth(), existing.getIndex(), true);
+        }
+
+        var slot = new Slot(Slot.LOCAL, nextIndex++);
+        frameSize = Math.max(frameSize, nextIndex);
+        scope.put(name, slot);
+        return slot;
+    }
+
+    private Slot lookup(String name) {
+        for (Iterator<Map<String, Slot>> it = scopes.descendingIterator(); it.hasNext(); ) {
+            var slot = it.next().get(name);
+            if (slot != null) {
+                return slot;
+            }
+        }
+        return globals.getOrDefault(name, Slot.UNRESOLVED);
+    }
+
+    @Override
+    public void visit(WhileStatement statement) {
+        callAccept(statement.getCondition());
+        callAccept(statement.getBlock());
+    }
+
+    @Override
+    public void visit(IfStatement statement) {
+        for (int i = 0; i < statement.getConditions().size(); i++) {
+            callAccept(statement.getConditions().get(i));
+            callAccept(statement.getIfInstructions().get(i));
+        }
+        statement.getElseInstructions().ifPresent(this::callAccept);
+    }
+
+    @Override
+    public void visit(ReturnStatement statement) {
+        if (statement.getExpression() != null) {
+            callAccept(statement.getExpression());
+        }
+    }
+
+    @Override
+    public void visit(DeclarationStatement statement) {
+        callAccept(statement.getExpression());
+        statement.setSlot(declare(statement.getName()));
+    }
+
+    @Override
+    public void visit(BlockStatement blockStatement) {
+        beginScope();
+        for (var statement : blockStatement.getStatements()) {
+            callAccept(statement);
+        }
+        endScope();
+    }
+
+    @Override
+    public void visit(AssignmentStatement assignmentStatement) {
+        assignmentStatement.setSlot(lookup(assignmentStatement.getName()));
+        callAccept(assignmentStatement.getValue());
+    }
+
+    @Override
+    public void visit(VariantTypeDefinitionStatement variantTypeDefinitionStatement) {
+    }
+
+    @Override
+    public void visit(StructTypeDefinitionStatement structTypeDefinitionStatement) {
+    }
+
+    @Override
+    public void visit(ConstStatement statement) {
+        callAccept(statement.getStatement());
+    }
+
+    @Override
+    public void visit(FunctionDefinitionStatement statement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void visit(StructDeclarationExpression statement) {
+        for (var argument : statement.getArguments()) {
+            callAccept(argument);
+        }
+    }
+
+    @Override
+    public void visit(StructMemberAssignmentStatement statement) {
+        callAccept(statement.getStruct());
+        callAccept(statement.getValue());
+    }
+
+    @Override
+    public void visit(VariantAssignmentStatement statement) {
+        callAccept(statement.getValue());
+    }
+
+    @Override
+    public void visit(MatchStatement matchStatement) {
+        callAccept(matchStatement.getExpression());
+        for (var matchCase : matchStatement.getStatements()) {
+            callAccept(matchCase);
+        }
+    }
+
+    @Override
+    public void visit(MatchCaseStatement matchCaseStatement) {
+        beginScope();
+        matchCaseStatement.setSlot(declare(matchCaseStatement.getVariable()));
+        callAccept(matchCaseStatement.getBlock());
+        endScope();
+    }
+
+    @Override
+    public void visit(IntegerExpression expression) {
+    }
+
+    @Override
+    public void visit(FloatExpression expression) {
+    }
+
+    @Override
+    public void visit(StringExpression expression) {
+    }
+
+    @Override
+    public void visit(BooleanExpression expression) {
+    }
+
+    @Override
+    public void visit(VariantDeclarationExpression expression) {
+        callAccept(expression.getExpression());
+    }
+
+    @Override
+    public void visit(StructMemberExpression expression) {
+        expression.setSlot(lookup(expression.getStructName()));
+    }
+
+    @Override
+    public void visit(IdentifierExpression identifierExpression) {
+        identifierExpression.setSlot(lookup(identifierExpression.getIdentifier()));
+    }
+
+    @Override
+    public void visit(FunctionCallExpression expression) {
+        for (var argument : expression.getArguments()) {
+            callAccept(argument);
+        }
+    }
+
+    @Override
+    public void visit(RelationExpression expression) {
+        callAccept(expression.getLeft());
+        callAccept(expression.getRight());
+    }
+
+    @Override
+    public void visit(EqualityRelationalExpression expression) {
+        callAccept(expression.getLeft());
+        callAccept(expression.getRight());
+    }
+
+    @Override
+    public void visit(BinaryArithmeticExpression expression) {
+        callAccept(expression.getLeft());
+        callAccept(expression.getRight());
+    }
+
+    @Override
+    public void visit(NegateArithmeticExpression negateArithmeticExpression) {
+        callAccept(negateArithmeticExpression.getExpression());
+    }
+
+    @Override
+    public void visit(LogicalExpression expression) {
+        callAccept(expression.getLeft());
+        callAccept(expression.getRight());
+    }
+
+    @Override
+    public void visit(NegateLogicalExpression expression) {
+        callAccept(expression.getExpression());
+    }
+
+    @Override
+    public void visit(CastedFactorExpression castedFactorExpression) {
+        callAccept(castedFactorExpression.getExpression());
+    }
+
+    @Override
+    public void visit(CopiedValueExpression copiedFactorExpression) {
+        callAccept(copiedFactorExpression.getExpression());
+    }
+
+    @Override
+    public void visit(PrintFunction expression) {
+    }
+
+    private <T extends Node> void callAccept(T expression) {
+        expression.accept(this);
+    }
+}
@@ -9,8 +9,8 @@ import org.siu.token.Position;
 public class PrintFunction implements Statement {
 
     @Override
-    public Position getPosition() {
-        return new Position(1, 1);
+    public long getPackedPosition() {
+        return Position.pack(1, 1);
     }
 
     @Override
@@ -0,0 +1,875 @@
+package org.siu.interpreter.bytecode;
+
+import org.siu.ast.BlockStatement;
+import org.siu.ast.Node;
+import org.siu.ast.Parameter;
+import org.siu.ast.Program;
+import org.siu.ast.expression.*;
+import org.siu.ast.expression.arithmetic.BinaryArithmeticExpression;
+import org.siu.ast.expression.arithmetic.NegateArithmeticExpression;
+import org.siu.ast.expression.logical.LogicalExpression;
+import org.siu.ast.expression.logical.NegateLogicalExpression;
+import org.siu.ast.expression.relation.*;
+import org.siu.ast.function.FunctionDefinitionStatement;
+import org.siu.ast.statement.*;
+import org.siu.ast.type.*;
+import org.siu.interpreter.Visitor;
+import org.siu.interpreter.builtin.PrintFunction;
+import org.siu.interpreter.error.FunctionNotDefinedException;
+import org.siu.interpreter.error.InvalidNumberOfArgumentsException;
+import org.siu.interpreter.error.ReassignConstVariableException;
+import org.siu.interpreter.error.UnsupportedCastException;
+import org.siu.interpreter.error.UnsupportedOperationException;
+import org.siu.interpreter.memo.Memoizer;
+import org.siu.interpreter.state.Slot;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.siu.interpreter.InterpreterConfig.MAIN_FUNCTION_NAME;
+import static org.siu.interpreter.InterpreterUtilities.*;
+import static org.siu.interpreter.bytecode.Opcode.*;
+
+/**
+ * Compiles a resolved program into {@link BytecodeProgram}. Variables live in the frame slots assigned by
+ * {@link org.siu.interpreter.VariableResolver}, intermediate values in registers allocated in stack order.
+ * Operations on operands with statically known primitive types use specialised opcodes which skip type checks
+ * and work on primitive registers.
+ * <p>
+ * Local int, float and bool variables initialised with a fresh value are kept unboxed in primitive slots as long as
+ * they are never shared: variables passed to functions, stored in structs or variants, or used to initialise another
+ * variable keep their value boxed, because the interpreter shares the value between both places. Such a declaration
+ * is found only when its uses are compiled, so the function is compiled again with the declaration boxed.
+ */
+public class BytecodeCompiler implements Visitor {
+    static final int UNRESOLVED_REFERENCE = -1;
+
+    private final Program program;
+    private final Memoizer memoizer;
+    private final List<Object> constants = new ArrayList<>();
+    private final Map<Object, Integer> constantIndexes = new IdentityHashMap<>();
+    private final Map<String, Integer> functionIndexes = new HashMap<>();
+    private final List<FunctionDefinitionStatement> definitions = new ArrayList<>();
+
+    private int[] code;
+    private int size;
+    private int nextRegister;
+    private int maxRegisters;
+    private int register;
+    private TypeDeclaration type;
+    private boolean unboxed;
+
+    private TypeDeclaration[] globalTypes;
+    private TypeDeclaration[] localTypes = new TypeDeclaration[0];
+
+    private final Set<DeclarationStatement> boxedDeclarations = Collections.newSetFromMap(new IdentityHashMap<>());
+    private DeclarationStatement[] slotDeclarations = new DeclarationStatement[0];
+    private boolean[] constantSlots = new boolean[0];
+    private boolean hasUnboxedSlots;
+    private boolean escaped;
+    private FunctionDefinitionStatement enclosing;
+
+    public BytecodeCompiler(Program program) {
+        this(program, null);
+    }
+
+    public BytecodeCompiler(Program program, Memoizer memoizer) {
+        this.program = program;
+        this.memoizer = memoizer;
+    }
+
+    public BytecodeProgram compile() {
+        var functionDefinitions = new HashMap<>(BUILTIN_FUNCTIONS);
+        functionDefinitions.putAll(program.getFunctionDefinitions());
+        for (var definition : functionDefinitions.values()) {
+            functionIndexes.put(definition.getName(), definitions.size());
+            definitions.add(definition);
+        }
+
+        globalTypes = new TypeDeclaration[program.getGlobalFrame().getSize()];
+        begin();
+        callAccept(program);
+        var initializer = end(null);
+
+        var functions = new BytecodeFunction[definitions.size()];
+        for (int i = 0; i < functions.length; i++) {
+            functions[i] = compileFunction(definitions.get(i));
+        }
+
+        return new BytecodeProgram(constants.toArray(), functions, initializer, program.getGlobalFrame().getSize(),
+                Set.copyOf(program.getTypeDefinitions().keySet()));
+    }
+
+    private BytecodeFunction compileFunction(FunctionDefinitionStatement definition) {
+        BytecodeFunction function;
+        do {
+            escaped = false;
+            function = compileFunctionOnce(definition);
+        } while (escaped);
+        return function;
+    }
+
+    private BytecodeFunction compileFunctionOnce(FunctionDefinitionStatement definition) {
+        var frame = definition.getFrame();
+        localTypes = new TypeDeclaration[frame.getSize()];
+        slotDeclarations = new DeclarationStatement[frame.getSize()];
+        constantSlots = new boolean[frame.getSize()];
+        for (int i = 0; i < definition.getParameters().size(); i++) {
+            defineSlotType(frame.getParameters().get(i), definition.getParameters().get(i).getType());
+        }
+
+        begin();
+        enclosing = definition;
+        callAccept(definition.getBlock());
+        enclosing = null;
+        return end(definition);
+    }
+
+    /**
+     * Encodes a slot as a single operand: locals are non-negative, globals are below UNRESOLVED_REFERENCE.
+     */
+    static int slotReference(Slot slot) {
+        if (!slot.isResolved()) {
+            return UNRESOLVED_REFERENCE;
+        }
+        return slot.isGlobal() ? -slot.getIndex() - 2 : slot.getIndex();
+    }
+
+    @Override
+    public void visit(Program program) {
+        for (var typeDefinition : program.getTypeDefinitions().values()) {
+            callAccept(typeDefinition);
+        }
+
+        for (var declaration : program.getDeclarations().values()) {
+            callAccept(declaration);
+        }
+
+        compileDiscarded(new FunctionCallExpression(MAIN_FUNCTION_NAME, List.of(), DEFAULT_POSITION));
+    }
+
+    @Override
+    public void visit(WhileStatement statement) {
+        var start = size;
+        var condition = compileCondition(statement.getCondition());
+        var exit = emitJump(JUMP_IF_FALSE, condition);
+        free(condition);
+
+        callAccept(statement.getBlock());
+        emit(JUMP, start);
+        patch(exit);
+    }
+
+    @Override
+    public void visit(IfStatement statement) {
+        var exits = new ArrayList<Integer>();
+
+        for (int i = 0; i < statement.getConditions().size(); i++) {
+            var condition = compileCondition(statement.getConditions().get(i));
+            var next = emitJump(JUMP_IF_FALSE, condition);
+            free(condition);
+
+            callAccept(statement.getIfInstructions().get(i));
+            exits.add(emitJump(JUMP));
+            patch(next);
+        }
+        statement.getElseInstructions().ifPresent(this::callAccept);
+
+        exits.forEach(this::patch);
+    }
+
+    @Override
+    public void visit(ReturnStatement statement) {
+        if (statement.getExpression() == null) {
+            emit(RETURN_VOID);
+            return;
+        }
+
+        if (statement.getExpression() instanceof FunctionCallExpression call) {
+            var index = functionIndexes.get(call.getIdentifier());
+            if (index != null && isTailCall(enclosing, definitions.get(index), call.getArguments().size())) {
+                bindArguments(call, index);
+                emit(TAIL_CALL, index);
+                return;
+            }
+        }
+
+        var value = compileBoxed(statement.getExpression());
+        emit(RETURN, value);
+        free(value);
+    }
+
+    @Override
+    public void visit(DeclarationStatement statement) {
+        compileDeclaration(statement, statement.getParameter(), 0);
+    }
+
+    @Override
+    public void visit(ConstStatement statement) {
+        compileDeclaration(statement.getStatement(), statement.getParameter(), CONSTANT);
+    }
+
+    private void compileDeclaration(DeclarationStatement declaration, Parameter parameter, int flags) {
+        if (parameter.getType().getValueType() == ValueType.CUSTOM) {
+            emit(MARK_CUSTOM);
+        }
+
+        var slot = declaration.getSlot();
+        var initializer = declaration.getExpression();
+        escape(initializer);
+        var value = compileExpression(initializer);
+
+        if (unboxed && parameter.getType().equals(type) && isLocal(slot) && !slot.isRedeclared()
+                && !boxedDeclarations.contains(declaration)) {
+            emit(PSTORE, slot.getIndex(), value);
+            free(value);
+            defineSlotType(slot, parameter.getType());
+            slotDeclarations[slot.getIndex()] = declaration;
+            constantSlots[slot.getIndex()] = flags == CONSTANT;
+            hasUnboxedSlots = true;
+            return;
+        }
+
+        box(value);
+        emit(DECLARE, value, slotReference(slot), constant(parameter), flags | redeclared(slot));
+        free(value);
+        defineSlotType(slot, parameter.getType());
+    }
+
+    @Override
+    public void visit(BlockStatement blockStatement) {
+        for (var statement : blockStatement.getStatements()) {
+            if (statement instanceof Expression expression) {
+                compileDiscarded(expression);
+            } else {
+                callAccept(statement);
+            }
+        }
+    }
+
+    @Override
+    public void visit(AssignmentStatement statement) {
+        if (isUnboxed(statement.getSlot())) {
+            var index = statement.getSlot().getIndex();
+            if (constantSlots[index]) {
+                var name = statement.getName();
+                var position = statement.getPosition();
+                emit(FAIL, constant((Supplier<RuntimeException>) () -> new ReassignConstVariableException(name, position)));
+            }
+
+            var value = compileExpression(statement.getValue());
+            unbox(value, localTypes[index]);
+            emit(PSTORE, index, value);
+            free(value);
+            return;
+        }
+
+        var slot = slotReference(statement.getSlot());
+        emit(ASSIGN_CHECK, slot, constant(statement.getPosition()));
+
+        var value = compileBoxed(statement.getValue());
+        emit(ASSIGN, slot, value);
+        free(value);
+    }
+
+    @Override
+    public void visit(VariantTypeDefinitionStatement statement) {
+        emit(DEFINE_TYPE, constant(statement));
+    }
+
+    @Override
+    public void visit(StructTypeDefinitionStatement statement) {
+        emit(DEFINE_TYPE, constant(statement));
+    }
+
+    @Override
+    public void visit(FunctionDefinitionStatement statement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void visit(StructDeclarationExpression expression) {
+        var struct = allocate();
+        emit(STRUCT_NEW, struct, constant(expression));
+
+        var arguments = expression.getArguments();
+        for (int i = 0; i < arguments.size(); i++) {
+            escape(arguments.get(i));
+            var value = compileBoxed(arguments.get(i));
+            emit(STRUCT_INIT, struct, i, value);
+            free(value);
+        }
+        result(struct, null);
+    }
+
+    @Override
+    public void visit(StructMemberAssignmentStatement statement) {
+        var member = statement.getStruct();
+        escape(member.getSlot());
+        escape(statement.getValue());
+        var struct = allocate();
+        emit(LOAD, struct, slotReference(member.getSlot()));
+        var previous = allocate();
+        emit(MEMBER, previous, struct, constant(member));
+
+        var value = compileBoxed(statement.getValue());
+        emit(MEMBER_SET, struct, constant(member), previous, value);
+        free(struct);
+    }
+
+    @Override
+    public void visit(VariantAssignmentStatement statement) {
+        emit(FAIL, constant((Supplier<RuntimeException>) () -> new RuntimeException("variant assignment not supported")));
+    }
+
+    @Override
+    public void visit(MatchStatement statement) {
+        var argument = compileBoxed(statement.getExpression());
+        // addresses of the cases, filled in as they are compiled
+        var cases = new int[statement.getStatements().size()];
+        var none = emitJump(MATCH, argument, constant(statement), constant(cases), constant(statement.getPosition()));
+
+        var exits = new ArrayList<Integer>();
+        for (int i = 0; i < cases.length; i++) {
+            var matchCase = statement.getStatements().get(i);
+            cases[i] = size;
+
+            var slot = matchCase.getSlot();
+            emit(BIND_CASE, argument, slotReference(slot), constant(matchCase.getVariable()), redeclared(slot));
+            defineSlotType(slot, null);
+
+            callAccept(matchCase.getBlock());
+            exits.add(emitJump(JUMP));
+        }
+
+        patch(none);
+        exits.forEach(this::patch);
+        free(argument);
+    }
+
+    @Override
+    public void visit(MatchCaseStatement matchCaseStatement) {
+        throw new RuntimeException("match case statement not supported");
+    }
+
+    @Override
+    public void visit(IntegerExpression expression) {
+        var target = allocate();
+        emit(INT, target, expression.getValue());
+        unboxedResult(target, INT_TYPE);
+    }
+
+    @Override
+    public void visit(FloatExpression expression) {
+        var target = allocate();
+        emit(FLOAT, target, Float.floatToRawIntBits(expression.getValue()));
+        unboxedResult(target, FLOAT_TYPE);
+    }
+
+    @Override
+    public void visit(StringExpression expression) {
+        var target = allocate();
+        emit(STRING, target, constant(expression.getConstant()));
+        result(target, STRING_TYPE);
+    }
+
+    @Override
+    public void visit(BooleanExpression expression) {
+        var target = allocate();
+        emit(BOOL, target, expression.getValue() ? 1 : 0);
+        unboxedResult(target, BOOL_TYPE);
+    }
+
+    @Override
+    public void visit(VariantDeclarationExpression expression) {
+        var declaration = constant(expression);
+        emit(VARIANT_CHECK, declaration);
+
+        escape(expression.getExpression());
+        var value = compileBoxed(expression.getExpression());
+        emit(VARIANT_NEW, value, declaration, value);
+        result(value, null);
+    }
+
+    @Override
+    public void visit(StructMemberExpression expression) {
+        escape(expression.getSlot());
+        var target = allocate();
+        emit(LOAD, target, slotReference(expression.getSlot()));
+        emit(MEMBER, target, target, constant(expression));
+        result(target, null);
+    }
+
+    @Override
+    public void visit(IdentifierExpression expression) {
+        var slot = expression.getSlot();
+        var target = allocate();
+        if (isUnboxed(slot)) {
+            emit(PLOAD, target, slot.getIndex());
+            unboxedResult(target, localTypes[slot.getIndex()]);
+            return;
+        }
+
+        emit(LOAD, target, slotReference(slot));
+        result(target, typeOf(expression.getSlot()));
+    }
+
+    @Override
+    public void visit(FunctionCallExpression expression) {
+        var name = expression.getIdentifier();
+        var index = functionIndexes.get(name);
+
+        if (index == null) {
+            var position = expression.getPosition();
+            emit(FAIL, constant((Supplier<RuntimeException>) () -> new FunctionNotDefinedException(name, position)));
+            result(allocate(), null);
+            return;
+        }
+
+        var definition = definitions.get(index);
+        var arguments = expression.getArguments();
+        if (arguments.size() != definition.getParameters().size()) {
+            emit(FAIL, constant((Supplier<RuntimeException>) () -> new InvalidNumberOfArgumentsException(expression)));
+            result(allocate(), null);
+            return;
+        }
+
+        bindArguments(expression, index);
+
+        var target = allocate();
+        var memo = memoizer != null ? memoizer.table(expression, definition) : null;
+        if (memo != null) {
+            emit(CALL_MEMO, target, index, constant(memo));
+        } else {
+            emit(CALL, target, index);
+        }
+        var returnType = definition.getReturnType().orElse(null);
+        result(target, isPrimitive(returnType) ? returnType : null);
+    }
+
+    private void bindArguments(FunctionCallExpression expression, int index) {
+        var arguments = expression.getArguments();
+        emit(FRAME, index, constant(expression.getPackedPosition()));
+        for (int i = 0; i < arguments.size(); i++) {
+            // identifiers are passed by reference together with their constness
+            escape(arguments.get(i));
+            if (arguments.get(i) instanceof IdentifierExpression identifier) {
+                emit(BIND_REF, index, i, slotReference(identifier.getSlot()));
+            } else {
+                var value = compileBoxed(arguments.get(i));
+                emit(BIND, index, i, value);
+                free(value);
+            }
+        }
+    }
+
+    @Override
+    public void visit(RelationExpression expression) {
+        var left = compileExpression(expression.getLeft());
+        var leftType = type;
+        var leftUnboxed = unboxed;
+        if (!INT_TYPE.equals(leftType) && !FLOAT_TYPE.equals(leftType)) {
+            box(left);
+            leftUnboxed = false;
+            emit(REL_CHECK, left, constant(expression.getPosition()));
+        }
+
+        var right = compileExpression(expression.getRight());
+        var rightType = type;
+        var rightUnboxed = unboxed;
+        free(left);
+        var target = allocate();
+
+        if (INT_TYPE.equals(leftType) && INT_TYPE.equals(rightType)) {
+            unbox(left, leftType, leftUnboxed, INT_TYPE);
+            unbox(right, rightType, rightUnboxed, INT_TYPE);
+            emit(integerRelation(expression), target, left, right);
+            unboxedResult(target, BOOL_TYPE);
+        } else if (FLOAT_TYPE.equals(leftType) && FLOAT_TYPE.equals(rightType)) {
+            unbox(left, leftType, leftUnboxed, FLOAT_TYPE);
+            unbox(right, rightType, rightUnboxed, FLOAT_TYPE);
+            emit(FREL, target, left, right, constant(expression));
+            unboxedResult(target, BOOL_TYPE);
+        } else {
+            box(left, leftType, leftUnboxed);
+            box(right, rightType, rightUnboxed);
+            emit(REL, target, left, right, constant(expression));
+            result(target, BOOL_TYPE);
+        }
+    }
+
+    @Override
+    public void visit(EqualityRelationalExpression expression) {
+        var left = compileExpression(expression.getLeft());
+        var leftType = type;
+        var leftUnboxed = unboxed;
+        if (!INT_TYPE.equals(leftType) && !FLOAT_TYPE.equals(leftType) && !STRING_TYPE.equals(leftType)) {
+            box(left);
+            leftUnboxed = false;
+            emit(EQ_CHECK, left, constant(expression.getPosition()));
+        }
+
+        var right = compileExpression(expression.getRight());
+        var rightType = type;
+        var rightUnboxed = unboxed;
+        free(left);
+        var target = allocate();
+
+        if (INT_TYPE.equals(leftType) && INT_TYPE.equals(rightType)) {
+            unbox(left, leftType, leftUnboxed, INT_TYPE);
+            unbox(right, rightType, rightUnboxed, INT_TYPE);
+            emit(integerRelation(expression), target, left, right);
+            unboxedResult(target, BOOL_TYPE);
+            return;
+        } else if (FLOAT_TYPE.equals(leftType) && FLOAT_TYPE.equals(rightType)) {
+            unbox(left, leftType, leftUnboxed, FLOAT_TYPE);
+            unbox(right, rightType, rightUnboxed, FLOAT_TYPE);
+            emit(FREL, target, left, right, constant(expression));
+            unboxedResult(target, BOOL_TYPE);
+            return;
+        }
+
+        box(left, leftType, leftUnboxed);
+        box(right, rightType, rightUnboxed);
+        if (STRING_TYPE.equals(leftType) && STRING_TYPE.equals(rightType)) {
+            emit(SEQ, target, left, right, constant(expression));
+        } else {
+            emit(EQ, target, left, right, constant(expression));
+        }
+        result(target, BOOL_TYPE);
+    }
+
+    private static int integerRelation(RelationExpression expression) {
+        if (expression instanceof LessExpression) return ILT;
+        if (expression instanceof LessEqualExpression) return ILE;
+        if (expression instanceof GreaterExpression) return IGT;
+        if (expression instanceof GreaterEqualExpression) return IGE;
+        if (expression instanceof EqualExpression) return IEQ;
+        if (expression instanceof NotEqualExpression) return INE;
+        throw new IllegalArgumentException(expression.getClass().getName());
+    }
+
+    @Override
+    public void visit(BinaryArithmeticExpression expression) {
+        var left = compileExpression(expression.getLeft());
+        var leftType = type;
+        var leftUnboxed = unboxed;
+        if (!INT_TYPE.equals(leftType) && !FLOAT_TYPE.equals(leftType) && !STRING_TYPE.equals(leftType)) {
+            box(left);
+            leftUnboxed = false;
+            emit(ARITH_CHECK, left, constant(expression.getPosition()));
+        }
+
+        var right = compileExpression(expression.getRight());
+        var rightType = type;
+        var rightUnboxed = unboxed;
+        free(left);
+        var target = allocate();
+
+        if (INT_TYPE.equals(leftType) && INT_TYPE.equals(rightType)) {
+            unbox(left, leftType, leftUnboxed, INT_TYPE);
+            unbox(right, rightType, rightUnboxed, INT_TYPE);
+            emit(IARITH, target, left, right, constant(expression));
+            unboxedResult(target, INT_TYPE);
+            return;
+        } else if (FLOAT_TYPE.equals(leftType) && FLOAT_TYPE.equals(rightType)) {
+            unbox(left, leftType, leftUnboxed, FLOAT_TYPE);
+            unbox(right, rightType, rightUnboxed, FLOAT_TYPE);
+            emit(FARITH, target, left, right, constant(expression));
+            unboxedResult(target, FLOAT_TYPE);
+            return;
+        }
+
+        box(left, leftType, leftUnboxed);
+        box(right, rightType, rightUnboxed);
+        if (STRING_TYPE.equals(leftType) && STRING_TYPE.equals(rightType)) {
+            emit(SARITH, target, left, right, constant(expression));
+            result(target, STRING_TYPE);
+        } else {
+            emit(ARITH, target, left, right, constant(expression));
+            result(target, null);
+        }
+    }
+
+    @Override
+    public void visit(NegateArithmeticExpression expression) {
+        var value = compileExpression(expression.getExpression());
+        var valueType = type;
+
+        if (INT_TYPE.equals(valueType) || FLOAT_TYPE.equals(valueType)) {
+            unbox(value, valueType);
+            emit(INT_TYPE.equals(valueType) ? INEG : FNEG, value, value);
+            unboxedResult(value, valueType);
+        } else {
+            box(value);
+            emit(NEG, value, value, constant(expression.getPosition()));
+            result(value, null);
+        }
+    }
+
+    @Override
+    public void visit(LogicalExpression expression) {
+        var left = compileExpression(expression.getLeft());
+        unbox(left, BOOL_TYPE);
+
+        var right = compileExpression(expression.getRight());
+        unbox(right, BOOL_TYPE);
+        free(left);
+        var target = allocate();
+        emit(LOGIC, target, left, right, constant(expression));
+        unboxedResult(target, BOOL_TYPE);
+    }
+
+    @Override
+    public void visit(NegateLogicalExpression expression) {
+        var value = compileExpression(expression.getExpression());
+        unbox(value, BOOL_TYPE);
+        emit(NOT, value, value);
+        unboxedResult(value, BOOL_TYPE);
+    }
+
+    @Override
+    public void visit(CastedFactorExpression expression) {
+        var position = expression.getPosition();
+        var castHelper = CAST_OPERATIONS.get(expression.getType());
+
+        if (castHelper == null) {
+            emit(FAIL, constant((Supplier<RuntimeException>) () -> new UnsupportedCastException(position)));
+            result(allocate(), null);
+            return;
+        }
+
+        var value = compileExpression(expression.getExpression());
+        var valueType = type;
+        if (isUnboxable(valueType) && !STRING_TYPE.equals(expression.getType())) {
+            // casting to the same type returns the same value, so a boxed variable stays shared
+            if (!expression.getType().equals(valueType)) {
+                unbox(value, valueType);
+                if (FLOAT_TYPE.equals(expression.getType())) {
+                    emit(I2F, value, value);
+                } else if (FLOAT_TYPE.equals(valueType)) {
+                    emit(F2I, value, value);
+                }
+                unboxedResult(value, expression.getType());
+            }
+            type = expression.getType();
+            return;
+        }
+
+        box(value);
+        var cast = valueType == null ? null : castHelper.get(valueType);
+        if (cast != null) {
+            emit(CAST_STATIC, value, value, constant(cast));
+        } else {
+            emit(CAST, value, value, constant(castHelper), constant(position));
+        }
+        result(value, expression.getType());
+    }
+
+    @Override
+    public void visit(CopiedValueExpression expression) {
+        var value = compileExpression(expression.getExpression());
+        var valueType = type;
+        if (isUnboxable(valueType)) {
+            unbox(value, valueType);
+            unboxedResult(value, valueType);
+            return;
+        }
+
+        emit(COPY, value, value);
+        result(value, valueType);
+    }
+
+    @Override
+    public void visit(PrintFunction expression) {
+        emit(PRINT);
+    }
+
+    private int compileExpression(Expression expression) {
+        type = null;
+        unboxed = false;
+        callAccept(expression);
+        return register;
+    }
+
+    private int compileBoxed(Expression expression) {
+        var value = compileExpression(expression);
+        box(value);
+        return value;
+    }
+
+    private int compileCondition(Expression expression) {
+        var value = compileExpression(expression);
+        unbox(value, BOOL_TYPE);
+        return value;
+    }
+
+    /*
+     * boxes the value of the last compiled expression held in the given register
+     */
+    private void box(int target) {
+        box(target, type, unboxed);
+        unboxed = false;
+    }
+
+    private void box(int target, TypeDeclaration targetType, boolean isUnboxed) {
+        if (isUnboxed) {
+            emit(BOX, target, constant(targetType));
+        }
+    }
+
+    private void unbox(int target, TypeDeclaration expected) {
+        unbox(target, type, unboxed, expected);
+        unboxed = true;
+    }
+
+    /*
+     * UNBOX checks the type of the value like the instruction consuming a boxed value would
+     */
+    private void unbox(int target, TypeDeclaration targetType, boolean isUnboxed, TypeDeclaration expected) {
+        if (isUnboxed && expected.equals(targetType)) {
+            return;
+        }
+        box(target, targetType, isUnboxed);
+        emit(UNBOX, target, constant(expected));
+    }
+
+    /*
+     * a variable used where the interpreter would share its value has to stay boxed
+     */
+    private void escape(Expression expression) {
+        while (expression instanceof CastedFactorExpression cast) {
+            if (cast.getExpression() instanceof IdentifierExpression identifier
+                    && !cast.getType().equals(typeOf(identifier.getSlot()))) {
+                return;
+            }
+            expression = cast.getExpression();
+        }
+        if (expression instanceof IdentifierExpression identifier) {
+            escape(identifier.getSlot());
+        }
+    }
+
+    private void escape(Slot slot) {
+        if (isUnboxed(slot)) {
+            boxedDeclarations.add(slotDeclarations[slot.getIndex()]);
+            escaped = true;
+        }
+    }
+
+    private void compileDiscarded(Expression expression) {
+        free(compileExpression(expression));
+    }
+
+    private void result(int target, TypeDeclaration resultType) {
+        register = target;
+        type = resultType;
+        unboxed = false;
+    }
+
+    private void unboxedResult(int target, TypeDeclaration resultType) {
+        register = target;
+        type = resultType;
+        unboxed = true;
+    }
+
+    private int allocate() {
+        var allocated = nextRegister++;
+        maxRegisters = Math.max(maxRegisters, nextRegister);
+        return allocated;
+    }
+
+    /*
+     * registers are released in stack order, freeing a register releases also all registers allocated after it
+     */
+    private void free(int allocated) {
+        nextRegister = allocated;
+    }
+
+    private void begin() {
+        code = new int[64];
+        size = 0;
+        nextRegister = 0;
+        maxRegisters = 0;
+        hasUnboxedSlots = false;
+    }
+
+    private BytecodeFunction end(FunctionDefinitionStatement definition) {
+        var unboxedSlots = hasUnboxedSlots ? definition.getFrame().getSize() : 0;
+        return new BytecodeFunction(definition, Arrays.copyOf(code, size), maxRegisters, unboxedSlots);
+    }
+
+    private void emit(int... instruction) {
+        if (size + instruction.length > code.length) {
+            code = Arrays.copyOf(code, Math.max(code.length * 2, size + instruction.length));
+        }
+        System.arraycopy(instruction, 0, code, size, instruction.length);
+        size += instruction.length;
+    }
+
+    /**
+     * Emits a jump with the target as the last operand and returns the position of that operand.
+     */
+    private int emitJump(int opcode, int... operands) {
+        var instruction = Arrays.copyOf(new int[]{opcode}, operands.length + 2);
+        System.arraycopy(operands, 0, instruction, 1, operands.length);
+        emit(instruction);
+        return size - 1;
+    }
+
+    private void patch(int jump) {
+        code[jump] = size;
+    }
+
+    private int constant(Object value) {
+        return constantIndexes.computeIfAbsent(value, key -> {
+            constants.add(key);
+            return constants.size() - 1;
+        });
+    }
+
+    private static int redeclared(Slot slot) {
+        return slot.isRedeclared() ? REDECLARED : 0;
+    }
+
+    private TypeDeclaration typeOf(Slot slot) {
+        if (!slot.isResolved()) {
+            return null;
+        }
+        return (slot.isGlobal() ? globalTypes : localTypes)[slot.getIndex()];
+    }
+
+    /*
+     * slots are reused by sibling scopes, so the type has to be overwritten by every declaration
+     */
+    private void defineSlotType(Slot slot, TypeDeclaration slotType) {
+        if (!slot.isResolved() || slot.isRedeclared()) {
+            return;
+        }
+        (slot.isGlobal() ? globalTypes : localTypes)[slot.getIndex()] = isPrimitive(slotType) ? slotType : null;
+        if (!slot.isGlobal()) {
+            slotDeclarations[slot.getIndex()] = null;
+            constantSlots[slot.getIndex()] = false;
+        }
+    }
+
+    private boolean isUnboxed(Slot slot) {
+        return isLocal(slot) && slot.getIndex() < slotDeclarations.length && slotDeclarations[slot.getIndex()] != null;
+    }
+
+    private static boolean isLocal(Slot slot) {
+        return slot.isResolved() && !slot.isGlobal();
+    }
+
+    private static boolean isUnboxable(TypeDeclaration type) {
+        return INT_TYPE.equals(type) || FLOAT_TYPE.equals(type) || BOOL_TYPE.equals(type);
+    }
+
+    private static boolean isPrimitive(TypeDeclaration type) {
+        return type != null && type.getValueType() != ValueType.CUSTOM;
+    }
+
+    private <T extends Node> void callAccept(T node) {
+        node.accept(this);
+    }
+}
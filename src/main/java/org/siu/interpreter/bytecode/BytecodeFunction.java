@@ -0,0 +1,14 @@
+package org.siu.interpreter.bytecode;
+
+import org.siu.ast.function.FunctionDefinitionStatement;
+
+/**
+ * unboxedSlots - number of frame slots to allocate for unboxed locals, 0 when the function has none
+ */
+@lombok.Value
+public class BytecodeFunction {
+    FunctionDefinitionStatement definition;
+    int[] code;
+    int registers;
+    int unboxedSlots;
+}
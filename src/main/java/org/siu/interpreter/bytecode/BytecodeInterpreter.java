@@ -0,0 +1,43 @@
+package org.siu.interpreter.bytecode;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.siu.ast.Program;
+import org.siu.interpreter.Interpreter;
+import org.siu.interpreter.VariableResolver;
+import org.siu.interpreter.memo.Memoizer;
+
+import java.io.PrintStream;
+import java.util.Optional;
+
+import static org.siu.interpreter.InterpreterConfig.memoSize;
+
+/**
+ * Compiles the program to {@link BytecodeProgram} and runs it on the {@link VirtualMachine}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BytecodeInterpreter implements Interpreter {
+    private final Program program;
+    private final PrintStream out;
+    private Memoizer memoizer;
+
+    @Override
+    public Optional<Memoizer> getMemoizer() {
+        return Optional.ofNullable(memoizer);
+    }
+
+    @Override
+    public void execute() {
+        try {
+            if (program.getGlobalFrame() == null) {
+                new VariableResolver(program).resolve();
+            }
+            memoizer = new Memoizer(program, memoSize());
+            new VirtualMachine(new BytecodeCompiler(program, memoizer).compile(), out).run();
+        } catch (Exception e) {
+            log.error("Error while interpreting", e);
+            out.println("Error while interpreting: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.siu.interpreter.bytecode;
+
+import java.util.Set;
+
+/**
+ * Result of {@link BytecodeCompiler}. Holds no runtime state, so it can be executed any number of times.
+ */
+@lombok.Value
+public class BytecodeProgram {
+    Object[] constants;
+    BytecodeFunction[] functions;
+    /**
+     * defines types and globals, then calls main
+     */
+    BytecodeFunction initializer;
+    int globals;
+    Set<String> typeNames;
+}
@@ -0,0 +1,85 @@
+package org.siu.interpreter.bytecode;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Instruction set of the {@link VirtualMachine}. Every instruction is an opcode followed by a fixed number of int operands:
+ * r - register, p - primitive register, s - variable slot reference (see {@link BytecodeCompiler#slotReference}),
+ * u - unboxed local slot, k - constant pool index, t - absolute jump target.
+ * Primitive registers and unboxed slots share indexes with registers and hold an int, bits of a float or 0|1 for a bool.
+ */
+@UtilityClass
+public class Opcode {
+    public static final int FAIL = 0;           // k(Supplier<RuntimeException>)
+    public static final int INT = 1;            // p value
+    public static final int FLOAT = 2;          // p floatBits
+    public static final int STRING = 3;         // r k(StringValue)
+    public static final int BOOL = 4;           // p 0|1
+    public static final int LOAD = 5;           // r s
+    public static final int MEMBER = 6;         // r r(struct) k(field)
+    public static final int COPY = 7;           // r r
+    public static final int CAST = 8;           // r r k(cast helper) k(Position)
+    public static final int CAST_STATIC = 9;    // r r k(Function)
+
+    public static final int ARITH_CHECK = 10;   // r k(Position)
+    public static final int ARITH = 11;         // r r r k(BinaryArithmeticExpression)
+    public static final int IARITH = 12;        // p p p k(BinaryArithmeticExpression)
+    public static final int FARITH = 13;        // p p p k(BinaryArithmeticExpression)
+    public static final int SARITH = 14;        // r r r k(BinaryArithmeticExpression)
+    public static final int NEG = 15;           // r r k(Position)
+    public static final int INEG = 16;          // p p
+    public static final int FNEG = 17;          // p p
+
+    public static final int REL_CHECK = 20;     // r k(Position)
+    public static final int REL = 21;           // r r r k(RelationExpression)
+    public static final int EQ_CHECK = 22;      // r k(Position)
+    public static final int EQ = 23;            // r r r k(EqualityRelationalExpression)
+    public static final int ILT = 24;           // p p p
+    public static final int ILE = 25;           // p p p
+    public static final int IGT = 26;           // p p p
+    public static final int IGE = 27;           // p p p
+    public static final int IEQ = 28;           // p p p
+    public static final int INE = 29;           // p p p
+    public static final int FREL = 30;          // p p p k(RelationExpression)
+    public static final int SEQ = 31;           // r r r k(EqualityRelationalExpression)
+
+    public static final int LOGIC = 36;         // p p p k(LogicalExpression)
+    public static final int NOT = 37;           // p p
+
+    public static final int JUMP = 40;          // t
+    public static final int JUMP_IF_FALSE = 41; // p t
+
+    public static final int MARK_CUSTOM = 45;
+    public static final int DECLARE = 46;       // r s k(Parameter) flags
+    public static final int ASSIGN_CHECK = 47;  // s k(Position)
+    public static final int ASSIGN = 48;        // s r
+    public static final int MEMBER_SET = 49;    // r(struct) k(field) r(previous) r(value)
+
+    public static final int DEFINE_TYPE = 50;   // k(CustomTypeStatement)
+    public static final int STRUCT_NEW = 51;    // r k(StructDeclarationExpression)
+    public static final int STRUCT_INIT = 52;   // r index r
+    public static final int VARIANT_CHECK = 53; // k(VariantDeclarationExpression)
+    public static final int VARIANT_NEW = 54;   // r k(VariantDeclarationExpression) r
+    public static final int MATCH = 55;         // r k(MatchStatement) k(case addresses) k(Position) t(no case)
+    public static final int BIND_CASE = 57;     // r s k(variable) flags
+
+    public static final int FRAME = 60;         // function k(Position)
+    public static final int BIND = 61;          // function index r
+    public static final int BIND_REF = 62;      // function index s
+    public static final int CALL = 63;          // r function
+    public static final int RETURN = 64;        // r
+    public static final int RETURN_VOID = 65;
+    public static final int PRINT = 66;
+    public static final int TAIL_CALL = 67;     // function - replaces the current call by the pending frame
+    public static final int CALL_MEMO = 68;     // r function k(MemoTable) - call of a pure function, skipped when its result is cached
+
+    public static final int BOX = 70;           // r(p) k(TypeDeclaration)
+    public static final int UNBOX = 71;         // p(r) k(TypeDeclaration)
+    public static final int PLOAD = 72;         // p u
+    public static final int PSTORE = 73;        // u p
+    public static final int I2F = 74;           // p p
+    public static final int F2I = 75;           // p p
+
+    public static final int CONSTANT = 1;
+    public static final int REDECLARED = 2;
+}
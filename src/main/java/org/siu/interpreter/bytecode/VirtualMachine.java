@@ -0,0 +1,650 @@
+package org.siu.interpreter.bytecode;
+
+import org.siu.ast.Parameter;
+import org.siu.ast.expression.StructDeclarationExpression;
+import org.siu.ast.expression.StructMemberExpression;
+import org.siu.ast.expression.VariantDeclarationExpression;
+import org.siu.ast.expression.arithmetic.BinaryArithmeticExpression;
+import org.siu.ast.expression.logical.LogicalExpression;
+import org.siu.ast.expression.relation.EqualityRelationalExpression;
+import org.siu.ast.expression.relation.RelationExpression;
+import org.siu.ast.statement.CustomTypeStatement;
+import org.siu.ast.statement.MatchStatement;
+import org.siu.ast.statement.StructTypeDefinitionStatement;
+import org.siu.ast.statement.VariantTypeDefinitionStatement;
+import org.siu.ast.type.TypeDeclaration;
+import org.siu.ast.type.ValueType;
+import org.siu.interpreter.error.*;
+import org.siu.interpreter.memo.MemoTable;
+import org.siu.interpreter.state.Context;
+import org.siu.interpreter.state.MatchTable;
+import org.siu.interpreter.state.StructLayout;
+import org.siu.interpreter.state.Value;
+import org.siu.interpreter.state.Variable;
+import org.siu.interpreter.state.VariantDescriptor;
+import org.siu.interpreter.state.value.*;
+import org.siu.token.Position;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.siu.interpreter.InterpreterConfig.maxStackSize;
+import static org.siu.interpreter.InterpreterUtilities.*;
+import static org.siu.interpreter.bytecode.BytecodeCompiler.UNRESOLVED_REFERENCE;
+import static org.siu.interpreter.bytecode.Opcode.*;
+
+/**
+ * Executes {@link BytecodeProgram} in a single dispatch loop. Calls push an {@link Activation} on a heap allocated
+ * call stack instead of the JVM stack, so recursion depth is bounded only by {@link org.siu.interpreter.InterpreterConfig#maxStackSize()},
+ * and tail calls replace the current activation.
+ * Runtime errors are the same as in {@link org.siu.interpreter.InterpretingVisitor}.
+ * Int, float and bool values are boxed only when they are stored in a variable that may be shared, passed to a function,
+ * returned or used by a generic instruction.
+ */
+public class VirtualMachine {
+    private static final Value VOID = () -> null;
+    private static final long[] NO_SLOTS = new long[0];
+
+    private final BytecodeProgram program;
+    private final PrintStream out;
+    private final Object[] constants;
+    private final Context globalContext;
+    private final Map<String, CustomTypeStatement> typeDefinitions = new HashMap<>();
+    private final Deque<Context> pendingFrames = new ArrayDeque<>();
+
+    private final int maxStackSize = maxStackSize();
+    private int depth = 1;
+    /*
+     * largest depth since the outermost running memoized call started, its stack height
+     */
+    private int deepest;
+    private boolean customTypeUsed;
+
+    public VirtualMachine(BytecodeProgram program, PrintStream out) {
+        this.program = program;
+        this.out = out;
+        this.constants = program.getConstants();
+        this.globalContext = new Context("---main---", DEFAULT_POSITION, program.getGlobals());
+    }
+
+    public void run() {
+        execute(program.getInitializer(), globalContext);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void execute(BytecodeFunction entry, Context entryFrame) {
+        var activation = new Activation(entry, entryFrame, null);
+
+        activations:
+        while (activation != null) {
+            final int[] code = activation.function.getCode();
+            final Value[] registers = activation.registers;
+            final long[] primitives = activation.primitives;
+            final long[] slots = activation.slots;
+            final Context frame = activation.frame;
+            int pc = activation.pc;
+
+            while (pc < code.length) {
+                switch (code[pc]) {
+                    case FAIL -> throw ((Supplier<RuntimeException>) constants[code[pc + 1]]).get();
+                    case INT, FLOAT, BOOL -> {
+                        primitives[code[pc + 1]] = code[pc + 2];
+                        pc += 3;
+                    }
+                    case STRING -> {
+                        registers[code[pc + 1]] = (StringValue) constants[code[pc + 2]];
+                        pc += 3;
+                    }
+                    case LOAD -> {
+                        registers[code[pc + 1]] = variable(frame, code[pc + 2]).getValue();
+                        pc += 3;
+                    }
+                    case MEMBER -> {
+                        registers[code[pc + 1]] = registers[code[pc + 2]].get((StructMemberExpression) constants[code[pc + 3]]);
+                        pc += 4;
+                    }
+                    case COPY -> {
+                        registers[code[pc + 1]] = require(registers[code[pc + 2]]).copy();
+                        pc += 3;
+                    }
+                    case CAST -> {
+                        var toCast = require(registers[code[pc + 2]]);
+                        var castHelper = (Map<TypeDeclaration, Function<Value, Value>>) constants[code[pc + 3]];
+                        var cast = castHelper.get(toCast.getType());
+                        if (cast == null) {
+                            throw new UnsupportedCastException((Position) constants[code[pc + 4]]);
+                        }
+                        registers[code[pc + 1]] = cast.apply(toCast);
+                        pc += 5;
+                    }
+                    case CAST_STATIC -> {
+                        var cast = (Function<Value, Value>) constants[code[pc + 3]];
+                        registers[code[pc + 1]] = cast.apply(registers[code[pc + 2]]);
+                        pc += 4;
+                    }
+
+                    case ARITH_CHECK -> {
+                        var type = require(registers[code[pc + 1]]).getType();
+                        if (!INT_TYPE.equals(type) && !FLOAT_TYPE.equals(type) && !STRING_TYPE.equals(type)) {
+                            throw new ArithmeticOperationNotSupportedForNonNumericTypes((Position) constants[code[pc + 2]]);
+                        }
+                        pc += 3;
+                    }
+                    case ARITH -> {
+                        var left = registers[code[pc + 2]];
+                        var right = require(registers[code[pc + 3]], left.getType());
+                        var expression = (BinaryArithmeticExpression) constants[code[pc + 4]];
+                        registers[code[pc + 1]] = switch (left.getType().getValueType()) {
+                            case INT -> IntValue.of(expression.evaluate(left.getInteger(), right.getInteger()));
+                            case FLOAT -> FloatValue.of(expression.evaluate(left.getFloatVal(), right.getFloatVal()));
+                            default -> evaluateStrings(expression, left, right);
+                        };
+                        pc += 5;
+                    }
+                    case IARITH -> {
+                        var expression = (BinaryArithmeticExpression) constants[code[pc + 4]];
+                        primitives[code[pc + 1]] = expression.evaluate((int) primitives[code[pc + 2]], (int) primitives[code[pc + 3]]);
+                        pc += 5;
+                    }
+                    case FARITH -> {
+                        var expression = (BinaryArithmeticExpression) constants[code[pc + 4]];
+                        primitives[code[pc + 1]] = bits(expression.evaluate(toFloat(primitives[code[pc + 2]]), toFloat(primitives[code[pc + 3]])));
+                        pc += 5;
+                    }
+                    case SARITH -> {
+                        var expression = (BinaryArithmeticExpression) constants[code[pc + 4]];
+                        registers[code[pc + 1]] = evaluateStrings(expression, registers[code[pc + 2]], registers[code[pc + 3]]);
+                        pc += 5;
+                    }
+                    case NEG -> {
+                        var value = require(registers[code[pc + 2]]);
+                        if (INT_TYPE.equals(value.getType())) {
+                            registers[code[pc + 1]] = IntValue.of(-value.getInteger());
+                        } else if (FLOAT_TYPE.equals(value.getType())) {
+                            registers[code[pc + 1]] = FloatValue.of(-value.getFloatVal());
+                        } else {
+                            throw new ArithmeticOperationNotSupportedForNonNumericTypes((Position) constants[code[pc + 3]]);
+                        }
+                        pc += 4;
+                    }
+                    case INEG -> {
+                        primitives[code[pc + 1]] = -(int) primitives[code[pc + 2]];
+                        pc += 3;
+                    }
+                    case FNEG -> {
+                        primitives[code[pc + 1]] = bits(-toFloat(primitives[code[pc + 2]]));
+                        pc += 3;
+                    }
+
+                    case REL_CHECK -> {
+                        var type = require(registers[code[pc + 1]]).getType();
+                        if (!INT_TYPE.equals(type) && !FLOAT_TYPE.equals(type)) {
+                            throw new CompareOperationNotSupportedForNonNumericTypes((Position) constants[code[pc + 2]]);
+                        }
+                        pc += 3;
+                    }
+                    case REL -> {
+                        var left = registers[code[pc + 2]];
+                        var right = require(registers[code[pc + 3]], left.getType());
+                        var expression = (RelationExpression) constants[code[pc + 4]];
+                        registers[code[pc + 1]] = BoolValue.of(INT_TYPE.equals(left.getType())
+                                ? expression.evaluate(left.getInteger(), right.getInteger())
+                                : expression.evaluate(left.getFloatVal(), right.getFloatVal()));
+                        pc += 5;
+                    }
+                    case EQ_CHECK -> {
+                        var type = require(registers[code[pc + 1]]).getType();
+                        if (!INT_TYPE.equals(type) && !FLOAT_TYPE.equals(type) && !STRING_TYPE.equals(type)) {
+                            throw new CompareOperationNotSupportedForNonNumericTypes((Position) constants[code[pc + 2]]);
+                        }
+                        pc += 3;
+                    }
+                    case EQ -> {
+                        var left = registers[code[pc + 2]];
+                        var right = require(registers[code[pc + 3]]);
+                        if (!Objects.equals(left.getType(), right.getType())) {
+                            throw new TypesDoNotMatchException(left.getType(), right.getType());
+                        }
+                        var expression = (EqualityRelationalExpression) constants[code[pc + 4]];
+                        registers[code[pc + 1]] = BoolValue.of(switch (left.getType().getValueType()) {
+                            case INT -> expression.evaluate(left.getInteger(), right.getInteger());
+                            case FLOAT -> expression.evaluate(left.getFloatVal(), right.getFloatVal());
+                            default -> expression.evaluate(left.getString(), right.getString());
+                        });
+                        pc += 5;
+                    }
+                    case ILT -> {
+                        primitives[code[pc + 1]] = primitives[code[pc + 2]] < primitives[code[pc + 3]] ? 1 : 0;
+                        pc += 4;
+                    }
+                    case ILE -> {
+                        primitives[code[pc + 1]] = primitives[code[pc + 2]] <= primitives[code[pc + 3]] ? 1 : 0;
+                        pc += 4;
+                    }
+                    case IGT -> {
+                        primitives[code[pc + 1]] = primitives[code[pc + 2]] > primitives[code[pc + 3]] ? 1 : 0;
+                        pc += 4;
+                    }
+                    case IGE -> {
+                        primitives[code[pc + 1]] = primitives[code[pc + 2]] >= primitives[code[pc + 3]] ? 1 : 0;
+                        pc += 4;
+                    }
+                    case IEQ -> {
+                        primitives[code[pc + 1]] = primitives[code[pc + 2]] == primitives[code[pc + 3]] ? 1 : 0;
+                        pc += 4;
+                    }
+                    case INE -> {
+                        primitives[code[pc + 1]] = primitives[code[pc + 2]] != primitives[code[pc + 3]] ? 1 : 0;
+                        pc += 4;
+                    }
+                    case FREL -> {
+                        var expression = (RelationExpression) constants[code[pc + 4]];
+                        primitives[code[pc + 1]] = expression.evaluate(toFloat(primitives[code[pc + 2]]), toFloat(primitives[code[pc + 3]])) ? 1 : 0;
+                        pc += 5;
+                    }
+                    case SEQ -> {
+                        var expression = (EqualityRelationalExpression) constants[code[pc + 4]];
+                        registers[code[pc + 1]] = BoolValue.of(expression.evaluate(registers[code[pc + 2]].getString(), registers[code[pc + 3]].getString()));
+                        pc += 5;
+                    }
+
+                    case LOGIC -> {
+                        var expression = (LogicalExpression) constants[code[pc + 4]];
+                        primitives[code[pc + 1]] = expression.evaluate(primitives[code[pc + 2]] != 0, primitives[code[pc + 3]] != 0) ? 1 : 0;
+                        pc += 5;
+                    }
+                    case NOT -> {
+                        primitives[code[pc + 1]] = primitives[code[pc + 2]] == 0 ? 1 : 0;
+                        pc += 3;
+                    }
+
+                    case JUMP -> pc = code[pc + 1];
+                    case JUMP_IF_FALSE -> pc = primitives[code[pc + 1]] != 0 ? pc + 3 : code[pc + 2];
+
+                    case MARK_CUSTOM -> {
+                        customTypeUsed = true;
+                        pc += 1;
+                    }
+                    case DECLARE -> {
+                        var parameter = (Parameter) constants[code[pc + 3]];
+                        var flags = code[pc + 4];
+                        var value = require(registers[code[pc + 1]], parameter.getType());
+                        var variable = new Variable(parameter.getType(), parameter.getName(), value, (flags & CONSTANT) != 0);
+                        if ((flags & REDECLARED) != 0) {
+                            throw new DuplicatedVariableException(parameter.getName());
+                        }
+                        declare(frame, code[pc + 2], variable);
+                        pc += 5;
+                    }
+                    case ASSIGN_CHECK -> {
+                        var variable = variable(frame, code[pc + 1]);
+                        if (variable.isConstant()) {
+                            throw new ReassignConstVariableException(variable.getIdentifier(), (Position) constants[code[pc + 2]]);
+                        }
+                        pc += 3;
+                    }
+                    case ASSIGN -> {
+                        var reference = code[pc + 1];
+                        var value = require(registers[code[pc + 2]], variable(frame, reference).getType());
+                        if (reference >= 0) {
+                            frame.updateVariable(reference, value);
+                        } else {
+                            globalContext.updateVariable(globalIndex(reference), value);
+                        }
+                        pc += 3;
+                    }
+                    case MEMBER_SET -> {
+                        var previous = registers[code[pc + 3]];
+                        var value = require(registers[code[pc + 4]]);
+                        if (previous.getType().getValueType() == ValueType.CUSTOM) {
+                            throw new RuntimeException("Custom type not supported.");
+                        }
+                        validateTypes(value.getType(), previous.getType());
+                        registers[code[pc + 1]].put((StructMemberExpression) constants[code[pc + 2]], value);
+                        pc += 5;
+                    }
+
+                    case DEFINE_TYPE -> {
+                        defineType((CustomTypeStatement) constants[code[pc + 1]]);
+                        pc += 2;
+                    }
+                    case STRUCT_NEW -> {
+                        var expression = (StructDeclarationExpression) constants[code[pc + 2]];
+                        if (!customTypeUsed) {
+                            throw new RuntimeException("Custom type name is empty");
+                        }
+                        var struct = typeDefinitions.get(expression.getIdentifier());
+                        if (struct == null) {
+                            throw new TypeNotDefinedException(expression.getIdentifier());
+                        }
+                        if (expression.getArguments().size() != struct.getParameters().size()) {
+                            throw new InvalidNumberOfArgumentsException(expression);
+                        }
+                        registers[code[pc + 1]] = new StructValue(StructLayout.of(struct));
+                        pc += 3;
+                    }
+                    case STRUCT_INIT -> {
+                        var struct = (StructValue) registers[code[pc + 1]];
+                        var parameter = struct.getLayout().getMembers().get(code[pc + 2]);
+                        var value = require(registers[code[pc + 3]], parameter.getType());
+                        struct.initialize(struct.offset(parameter.getName()), value);
+                        pc += 4;
+                    }
+                    case VARIANT_CHECK -> {
+                        var expression = (VariantDeclarationExpression) constants[code[pc + 1]];
+                        variantField(expression, variantDescriptor(expression));
+                        pc += 2;
+                    }
+                    case VARIANT_NEW -> {
+                        var expression = (VariantDeclarationExpression) constants[code[pc + 2]];
+                        var descriptor = variantDescriptor(expression);
+                        var ordinal = variantField(expression, descriptor);
+                        var value = require(registers[code[pc + 3]], descriptor.field(ordinal).getType());
+
+                        registers[code[pc + 1]] = new VariantValue(descriptor, ordinal, value);
+                        pc += 4;
+                    }
+                    case MATCH -> {
+                        var argument = require(registers[code[pc + 1]]);
+                        var position = (Position) constants[code[pc + 4]];
+                        if (argument.getType().getValueType() != ValueType.CUSTOM) {
+                            throw new InvalidTypeForMatchException(position);
+                        }
+                        var variantType = typeDefinitions.get(argument.getType().getCustomType());
+                        if (variantType == null || !variantType.isVariant()) {
+                            throw new InvalidTypeForMatchException(position);
+                        }
+                        var variant = (VariantValue) argument;
+                        var selected = MatchTable.select((MatchStatement) constants[code[pc + 2]], variant);
+                        pc = selected == MatchTable.NO_CASE ? code[pc + 5] : ((int[]) constants[code[pc + 3]])[selected];
+                    }
+                    case BIND_CASE -> {
+                        var variant = (VariantValue) registers[code[pc + 1]];
+                        var name = (String) constants[code[pc + 3]];
+                        var parameter = variant.getDescriptor().field(variant.getOrdinal());
+
+                        var variable = new Variable(parameter.getType(), name, variant.get(), false, true);
+                        if ((code[pc + 4] & REDECLARED) != 0) {
+                            throw new DuplicatedVariableException(name);
+                        }
+                        declare(frame, code[pc + 2], variable);
+                        pc += 5;
+                    }
+
+                    case FRAME -> {
+                        var definition = program.getFunctions()[code[pc + 1]].getDefinition();
+                        var position = (long) constants[code[pc + 2]];
+                        pendingFrames.push(new Context(definition.getName(), position, definition.getFrame().getSize()));
+                        pc += 3;
+                    }
+                    case BIND -> {
+                        var value = require(registers[code[pc + 3]]);
+                        bind(code[pc + 1], code[pc + 2], value, false);
+                        pc += 4;
+                    }
+                    case BIND_REF -> {
+                        var variable = variable(frame, code[pc + 3]);
+                        bind(code[pc + 1], code[pc + 2], variable.getValue(), variable.isConstant());
+                        pc += 4;
+                    }
+                    case CALL -> {
+                        activation.pc = pc + 3;
+                        activation.target = code[pc + 1];
+                        activation = call(activation, program.getFunctions()[code[pc + 2]], pendingFrames.pop());
+                        continue activations;
+                    }
+                    case CALL_MEMO -> {
+                        var function = program.getFunctions()[code[pc + 2]];
+                        var memo = (MemoTable) constants[code[pc + 3]];
+                        var context = pendingFrames.pop();
+                        var key = MemoTable.key(context, function.getDefinition().getFrame());
+                        var cached = memo.lookup(key, maxStackSize - depth);
+                        if (cached != null) {
+                            deepest = Math.max(deepest, depth + cached.height());
+                            customTypeUsed = true;
+                            registers[code[pc + 1]] = cached.value().copy();
+                            pc += 4;
+                            continue;
+                        }
+
+                        activation.pc = pc + 4;
+                        activation.target = code[pc + 1];
+                        var outerDeepest = deepest;
+                        deepest = depth;
+                        activation = call(activation, function, context);
+                        activation.memoize(memo, key, outerDeepest);
+                        continue activations;
+                    }
+                    case TAIL_CALL -> {
+                        var replaced = activation;
+                        activation = new Activation(program.getFunctions()[code[pc + 1]], pendingFrames.pop(), activation.caller);
+                        activation.memoize(replaced.memo, replaced.memoKey, replaced.outerDeepest);
+                        continue activations;
+                    }
+                    case RETURN -> {
+                        var value = registers[code[pc + 1]];
+                        activation = leave(activation, value == null ? VOID : value);
+                        continue activations;
+                    }
+                    case RETURN_VOID -> {
+                        activation = leave(activation, VOID);
+                        continue activations;
+                    }
+                    case PRINT -> {
+                        out.println(frame.getVariable(PRINT_ARGUMENT_SLOT).getValue().getString());
+                        pc += 1;
+                    }
+
+                    case BOX -> {
+                        var type = (TypeDeclaration) constants[code[pc + 2]];
+                        var primitive = primitives[code[pc + 1]];
+                        registers[code[pc + 1]] = switch (type.getValueType()) {
+                            case INT -> IntValue.of((int) primitive);
+                            case FLOAT -> FloatValue.of(toFloat(primitive));
+                            default -> BoolValue.of(primitive != 0);
+                        };
+                        pc += 3;
+                    }
+                    case UNBOX -> {
+                        var type = (TypeDeclaration) constants[code[pc + 2]];
+                        var value = require(registers[code[pc + 1]], type);
+                        primitives[code[pc + 1]] = switch (type.getValueType()) {
+                            case INT -> value.getInteger();
+                            case FLOAT -> bits(value.getFloatVal());
+                            default -> value.isBool() ? 1 : 0;
+                        };
+                        pc += 3;
+                    }
+                    case PLOAD -> {
+                        primitives[code[pc + 1]] = slots[code[pc + 2]];
+                        pc += 3;
+                    }
+                    case PSTORE -> {
+                        slots[code[pc + 1]] = primitives[code[pc + 2]];
+                        pc += 3;
+                    }
+                    case I2F -> {
+                        primitives[code[pc + 1]] = bits((float) (int) primitives[code[pc + 2]]);
+                        pc += 3;
+                    }
+                    case F2I -> {
+                        primitives[code[pc + 1]] = (int) toFloat(primitives[code[pc + 2]]);
+                        pc += 3;
+                    }
+                    default -> throw new IllegalStateException("Unknown opcode " + code[pc] + " at " + pc);
+                }
+            }
+            activation = leave(activation, null);
+        }
+    }
+
+    private Activation call(Activation caller, BytecodeFunction function, Context context) {
+        if (++depth > maxStackSize) {
+            throw new FunctionStackLimitException();
+        }
+        deepest = Math.max(deepest, depth);
+
+        if (function.getDefinition().getReturnType().isPresent()) {
+            customTypeUsed = true;
+        }
+
+        return new Activation(function, context, caller);
+    }
+
+    /*
+     * validates the value returned by the function of the activation and passes it to the caller
+     */
+    private Activation leave(Activation activation, Value returned) {
+        var caller = activation.caller;
+        if (caller == null) {
+            return null;
+        }
+
+        var returnType = activation.function.getDefinition().getReturnType();
+        Value value = null;
+        if (returnType.isPresent()) {
+            if (returned == null) {
+                throw new FunctionDidNotReturnException();
+            }
+            if (returned == VOID) {
+                throw new FunctionDidNotReturnValueException();
+            }
+            validateTypes(returned.getType(), returnType.get());
+            value = returned;
+        }
+
+        if (activation.memo != null) {
+            activation.memo.store(activation.memoKey, value, deepest - depth + 1);
+            deepest = Math.max(activation.outerDeepest, deepest);
+        }
+        depth--;
+        caller.registers[caller.target] = value;
+        return caller;
+    }
+
+    private void bind(int function, int index, Value value, boolean constant) {
+        var definition = program.getFunctions()[function].getDefinition();
+        var parameter = definition.getParameters().get(index);
+        validateTypes(value.getType(), parameter.getType());
+
+        var slot = definition.getFrame().getParameters().get(index);
+        if (slot.isRedeclared()) {
+            throw new DuplicatedVariableException(parameter.getName());
+        }
+        pendingFrames.peek().addVariable(slot.getIndex(), new Variable(parameter.getType(), parameter.getName(), value, constant, value.isVariant()));
+    }
+
+    private void defineType(CustomTypeStatement statement) {
+        if (statement instanceof VariantTypeDefinitionStatement && typeDefinitions.containsKey(statement.getName())) {
+            throw new VariantAlreadyDefinedException(statement.getName());
+        }
+
+        Set<String> fields = new HashSet<>();
+        for (var param : statement.getParameters()) {
+            if (statement instanceof StructTypeDefinitionStatement && !fields.add(param.getName())) {
+                throw new StructMemberAlreadyDefined(statement.getName(), param.getName(), statement.getPosition());
+            }
+            var type = param.getType();
+            if (type.getValueType() == ValueType.CUSTOM && !typeDefinitions.containsKey(type.getCustomType()) && !program.getTypeNames().contains(type.getCustomType())) {
+                throw new TypeNotDefinedException(type.getCustomType());
+            }
+        }
+
+        typeDefinitions.put(statement.getName(), statement);
+    }
+
+    private VariantDescriptor variantDescriptor(VariantDeclarationExpression expression) {
+        var variantType = typeDefinitions.get(expression.getTypeName());
+        if (variantType == null) {
+            throw new TypeNotDefinedException(expression.getTypeName(), expression.getPosition());
+        }
+        return VariantDescriptor.of(variantType);
+    }
+
+    private static int variantField(VariantDeclarationExpression expression, VariantDescriptor descriptor) {
+        var ordinal = descriptor.ordinal(expression.getFieldName());
+        if (ordinal < 0) {
+            throw new InvalidVariantField(expression.getTypeName(), expression.getFieldName());
+        }
+        return ordinal;
+    }
+
+    private Variable variable(Context frame, int reference) {
+        if (reference >= 0) {
+            return frame.getVariable(reference);
+        }
+        if (reference == UNRESOLVED_REFERENCE) {
+            throw new NoVariableException();
+        }
+        return globalContext.getVariable(globalIndex(reference));
+    }
+
+    private void declare(Context frame, int reference, Variable variable) {
+        if (reference >= 0) {
+            frame.addVariable(reference, variable);
+        } else {
+            globalContext.addVariable(globalIndex(reference), variable);
+        }
+    }
+
+    private static float toFloat(long primitive) {
+        return Float.intBitsToFloat((int) primitive);
+    }
+
+    private static long bits(float value) {
+        return Float.floatToRawIntBits(value);
+    }
+
+    private static int globalIndex(int reference) {
+        return -reference - 2;
+    }
+
+    private static Value require(Value value) {
+        if (value == null) {
+            throw new ExpressionDidNotEvaluateException();
+        }
+        return value;
+    }
+
+    private static Value require(Value value, TypeDeclaration type) {
+        validateTypes(require(value).getType(), type);
+        return value;
+    }
+
+    /*
+     * call of a function on the heap allocated call stack, pc and target are saved when it calls another function
+     */
+    private static final class Activation {
+        private final BytecodeFunction function;
+        private final Context frame;
+        private final Activation caller;
+        private final Value[] registers;
+        private final long[] primitives;
+        private final long[] slots;
+        private int pc;
+        private int target;
+        /*
+         * memo table, arguments and enclosing stack height of a memoized call, stored when it returns
+         */
+        private MemoTable memo;
+        private List<Value> memoKey;
+        private int outerDeepest;
+
+        private Activation(BytecodeFunction function, Context frame, Activation caller) {
+            this.function = function;
+            this.frame = frame;
+            this.caller = caller;
+            this.registers = new Value[function.getRegisters()];
+            this.primitives = new long[function.getRegisters()];
+            this.slots = function.getUnboxedSlots() == 0 ? NO_SLOTS : new long[function.getUnboxedSlots()];
+        }
+
+        private void memoize(MemoTable memo, List<Value> key, int outerDeepest) {
+            this.memo = memo;
+            this.memoKey = key;
+            this.outerDeepest = outerDeepest;
+        }
+    }
+}
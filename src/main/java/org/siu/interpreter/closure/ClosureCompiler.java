@@ -0,0 +1,930 @@
+package org.siu.interpreter.closure;
+
+import org.siu.ast.BlockStatement;
+import org.siu.ast.Node;
+import org.siu.ast.Parameter;
+import org.siu.ast.Program;
+import org.siu.ast.Statement;
+import org.siu.ast.expression.*;
+import org.siu.ast.expression.arithmetic.BinaryArithmeticExpression;
+import org.siu.ast.expression.arithmetic.NegateArithmeticExpression;
+import org.siu.ast.expression.logical.LogicalExpression;
+import org.siu.ast.expression.logical.NegateLogicalExpression;
+import org.siu.ast.expression.relation.EqualityRelationalExpression;
+import org.siu.ast.expression.relation.RelationExpression;
+import org.siu.ast.function.FunctionDefinitionStatement;
+import org.siu.ast.statement.*;
+import org.siu.ast.type.*;
+import org.siu.interpreter.Visitor;
+import org.siu.interpreter.builtin.PrintFunction;
+import org.siu.interpreter.error.*;
+import org.siu.interpreter.error.UnsupportedOperationException;
+import org.siu.interpreter.memo.MemoTable;
+import org.siu.interpreter.memo.Memoizer;
+import org.siu.interpreter.state.Context;
+import org.siu.interpreter.state.MatchTable;
+import org.siu.interpreter.state.Slot;
+import org.siu.interpreter.state.StructLayout;
+import org.siu.interpreter.state.Value;
+import org.siu.interpreter.state.Variable;
+import org.siu.interpreter.state.VariantDescriptor;
+import org.siu.interpreter.state.value.*;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.function.Function;
+
+import static org.siu.interpreter.InterpreterConfig.MAIN_FUNCTION_NAME;
+import static org.siu.interpreter.InterpreterConfig.maxStackSize;
+import static org.siu.interpreter.InterpreterUtilities.*;
+
+/**
+ * Translates a resolved program into a tree of closures, so that running it does not go through visitor
+ * double dispatch and operator, cast and function lookups. Operations on operands with statically known
+ * primitive types are specialised; all other operations check types at runtime exactly like
+ * {@link org.siu.interpreter.InterpretingVisitor} does.
+ */
+public class ClosureCompiler implements Visitor {
+    private final Program program;
+    private final PrintStream out;
+    private final Map<String, CompiledFunction> functions = new HashMap<>();
+    private final Map<String, CustomTypeStatement> typeDefinitions = new HashMap<>();
+    private final Context globalContext;
+    private final TypeDeclaration[] globalTypes;
+    private TypeDeclaration[] localTypes = new TypeDeclaration[0];
+    private FunctionDefinitionStatement enclosing;
+
+    private CompiledExpression expression;
+    private CompiledStatement statement;
+    private TypeDeclaration type;
+
+    private final int maxStackSize = maxStackSize();
+    private int depth;
+    /*
+     * largest depth since the outermost running memoized call started, its stack height
+     */
+    private int deepest;
+    private boolean customTypeUsed;
+    private final Memoizer memoizer;
+
+    public ClosureCompiler(Program program, PrintStream out) {
+        this(program, out, null);
+    }
+
+    public ClosureCompiler(Program program, PrintStream out, Memoizer memoizer) {
+        this.program = program;
+        this.out = out;
+        this.memoizer = memoizer;
+        this.globalContext = new Context("---main---", DEFAULT_POSITION, program.getGlobalFrame().getSize());
+        this.globalTypes = new TypeDeclaration[program.getGlobalFrame().getSize()];
+    }
+
+    public Runnable compile() {
+        callAccept(program);
+        var compiled = statement;
+        return () -> compiled.execute(globalContext);
+    }
+
+    @Override
+    public void visit(Program program) {
+        var definitions = new HashMap<>(BUILTIN_FUNCTIONS);
+        definitions.putAll(program.getFunctionDefinitions());
+        for (var definition : definitions.values()) {
+            functions.put(definition.getName(), new CompiledFunction(definition));
+        }
+
+        var typeStatements = compileStatements(program.getTypeDefinitions().values());
+        var declarations = compileStatements(program.getDeclarations().values());
+
+        for (var function : functions.values()) {
+            compileFunction(function);
+        }
+
+        var mainFn = compileExpression(new FunctionCallExpression(MAIN_FUNCTION_NAME, List.of(), DEFAULT_POSITION));
+
+        statement = frame -> {
+            depth = 1;
+            customTypeUsed = false;
+            typeDefinitions.clear();
+            globalContext.reset(program.getGlobalFrame().getSize());
+
+            for (var typeStatement : typeStatements) {
+                typeStatement.execute(frame);
+            }
+            for (var declaration : declarations) {
+                declaration.execute(frame);
+            }
+            mainFn.evaluate(frame);
+            return null;
+        };
+    }
+
+    private void compileFunction(CompiledFunction function) {
+        var definition = function.getDefinition();
+        var frame = definition.getFrame();
+
+        localTypes = new TypeDeclaration[frame.getSize()];
+        for (int i = 0; i < definition.getParameters().size(); i++) {
+            defineSlotType(frame.getParameters().get(i), definition.getParameters().get(i).getType());
+        }
+
+        enclosing = definition;
+        function.setBody(compileStatement(definition.getBlock()));
+        enclosing = null;
+    }
+
+    @Override
+    public void visit(WhileStatement whileStatement) {
+        var condition = compileExpression(whileStatement.getCondition());
+        var block = compileStatement(whileStatement.getBlock());
+
+        statement = frame -> {
+            while (require(condition.evaluate(frame), BOOL_TYPE).isBool()) {
+                var returned = block.execute(frame);
+                if (returned != null) {
+                    return returned;
+                }
+            }
+            return null;
+        };
+    }
+
+    @Override
+    public void visit(IfStatement ifStatement) {
+        var conditions = new CompiledExpression[ifStatement.getConditions().size()];
+        var blocks = new CompiledStatement[conditions.length];
+        for (int i = 0; i < conditions.length; i++) {
+            conditions[i] = compileExpression(ifStatement.getConditions().get(i));
+            blocks[i] = compileStatement(ifStatement.getIfInstructions().get(i));
+        }
+        var elseBlock = ifStatement.getElseInstructions().map(this::compileStatement).orElse(null);
+
+        statement = frame -> {
+            for (int i = 0; i < conditions.length; i++) {
+                if (require(conditions[i].evaluate(frame), BOOL_TYPE).isBool()) {
+                    return blocks[i].execute(frame);
+                }
+            }
+            return elseBlock == null ? null : elseBlock.execute(frame);
+        };
+    }
+
+    @Override
+    public void visit(ReturnStatement returnStatement) {
+        if (returnStatement.getExpression() == null) {
+            statement = frame -> CompiledStatement.VOID;
+            return;
+        }
+
+        if (returnStatement.getExpression() instanceof FunctionCallExpression call) {
+            var callee = functions.get(call.getIdentifier());
+            if (callee != null && isTailCall(enclosing, callee.getDefinition(), call.getArguments().size())) {
+                var bind = compileArguments(call, callee.getDefinition());
+                statement = frame -> new TailCall(callee, bind.apply(frame));
+                return;
+            }
+        }
+
+        var value = compileExpression(returnStatement.getExpression());
+        statement = frame -> {
+            var returned = value.evaluate(frame);
+            return returned == null ? CompiledStatement.VOID : returned;
+        };
+    }
+
+    @Override
+    public void visit(DeclarationStatement declarationStatement) {
+        var initializer = compileExpression(declarationStatement.getExpression());
+        statement = compileDeclaration(declarationStatement.getSlot(), declarationStatement.getParameter(), initializer, false);
+    }
+
+    @Override
+    public void visit(ConstStatement constStatement) {
+        var declaration = constStatement.getStatement();
+        var initializer = compileExpression(declaration.getExpression());
+        statement = compileDeclaration(declaration.getSlot(), constStatement.getParameter(), initializer, true);
+    }
+
+    private CompiledStatement compileDeclaration(Slot slot, Parameter parameter, CompiledExpression initializer, boolean constant) {
+        var type = parameter.getType();
+        var name = parameter.getName();
+        var custom = type.getValueType() == ValueType.CUSTOM;
+        var global = slot.isGlobal();
+        var index = slot.getIndex();
+        var redeclared = slot.isRedeclared();
+        defineSlotType(slot, type);
+
+        return frame -> {
+            if (custom) {
+                customTypeUsed = true;
+            }
+            var value = require(initializer.evaluate(frame), type);
+            var variable = new Variable(type, name, value, constant);
+            if (redeclared) {
+                throw new DuplicatedVariableException(name);
+            }
+            (global ? globalContext : frame).addVariable(index, variable);
+            return null;
+        };
+    }
+
+    @Override
+    public void visit(BlockStatement blockStatement) {
+        var statements = compileStatements(blockStatement.getStatements());
+
+        statement = frame -> {
+            for (var compiled : statements) {
+                var returned = compiled.execute(frame);
+                if (returned != null) {
+                    return returned;
+                }
+            }
+            return null;
+        };
+    }
+
+    @Override
+    public void visit(AssignmentStatement assignmentStatement) {
+        var slot = assignmentStatement.getSlot();
+        var variableOf = compileAccess(slot);
+        var global = slot.isGlobal();
+        var index = slot.getIndex();
+        var position = assignmentStatement.getPosition();
+        var value = compileExpression(assignmentStatement.getValue());
+
+        statement = frame -> {
+            var variable = variableOf.apply(frame);
+            if (variable.isConstant()) {
+                throw new ReassignConstVariableException(variable.getIdentifier(), position);
+            }
+            var newValue = require(value.evaluate(frame), variable.getType());
+            (global ? globalContext : frame).updateVariable(index, newValue);
+            return null;
+        };
+    }
+
+    @Override
+    public void visit(VariantTypeDefinitionStatement definition) {
+        statement = frame -> {
+            if (typeDefinitions.containsKey(definition.getName())) {
+                throw new VariantAlreadyDefinedException(definition.getName());
+            }
+            for (var param : definition.getParameters()) {
+                validateParameter(param);
+            }
+            typeDefinitions.put(definition.getName(), definition);
+            return null;
+        };
+    }
+
+    @Override
+    public void visit(StructTypeDefinitionStatement definition) {
+        statement = frame -> {
+            Set<String> fields = new HashSet<>();
+            for (var param : definition.getParameters()) {
+                if (!fields.add(param.getName())) {
+                    throw new StructMemberAlreadyDefined(definition.getName(), param.getName(), definition.getPosition());
+                }
+                validateParameter(param);
+            }
+            typeDefinitions.put(definition.getName(), definition);
+            return null;
+        };
+    }
+
+    private void validateParameter(Parameter param) {
+        var type = param.getType();
+        if (type.getValueType() != ValueType.CUSTOM) return;
+
+        if (!typeDefinitions.containsKey(type.getCustomType()) && !program.getTypeDefinitions().containsKey(type.getCustomType())) {
+            throw new TypeNotDefinedException(type.getCustomType());
+        }
+    }
+
+    @Override
+    public void visit(FunctionDefinitionStatement functionDefinitionStatement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void visit(StructDeclarationExpression structDeclaration) {
+        var typeName = structDeclaration.getIdentifier();
+        var arguments = compileExpressions(structDeclaration.getArguments());
+
+        expression = frame -> {
+            if (!customTypeUsed) {
+                throw new RuntimeException("Custom type name is empty");
+            }
+
+            var struct = typeDefinitions.get(typeName);
+            if (struct == null) {
+                throw new TypeNotDefinedException(typeName);
+            }
+
+            var parameters = struct.getParameters();
+            if (arguments.length != parameters.size()) {
+                throw new InvalidNumberOfArgumentsException(structDeclaration);
+            }
+
+            var value = new StructValue(StructLayout.of(struct));
+            for (int i = 0; i < arguments.length; i++) {
+                var parameter = parameters.get(i);
+                value.initialize(value.offset(parameter.getName()), require(arguments[i].evaluate(frame), parameter.getType()));
+            }
+            return value;
+        };
+        type = null;
+    }
+
+    @Override
+    public void visit(StructMemberAssignmentStatement assignment) {
+        var member = assignment.getStruct();
+        var structOf = compileAccess(member.getSlot());
+        var value = compileExpression(assignment.getValue());
+
+        statement = frame -> {
+            var struct = structOf.apply(frame).getValue();
+            var previousValue = struct.get(member);
+
+            var newValue = require(value.evaluate(frame));
+            if (previousValue.getType().getValueType() == ValueType.CUSTOM) {
+                throw new RuntimeException("Custom type not supported.");
+            }
+            validateTypes(newValue.getType(), previousValue.getType());
+
+            struct.put(member, newValue);
+            return null;
+        };
+    }
+
+    @Override
+    public void visit(VariantAssignmentStatement variantAssignmentStatement) {
+        statement = frame -> {
+            throw new RuntimeException("variant assignment not supported");
+        };
+    }
+
+    @Override
+    public void visit(MatchStatement matchStatement) {
+        var position = matchStatement.getPosition();
+        var argument = compileExpression(matchStatement.getExpression());
+
+        var cases = matchStatement.getStatements();
+        var variables = new String[cases.size()];
+        var slots = new Slot[cases.size()];
+        var blocks = new CompiledStatement[cases.size()];
+        for (int i = 0; i < blocks.length; i++) {
+            var matchCase = cases.get(i);
+            variables[i] = matchCase.getVariable();
+            slots[i] = matchCase.getSlot();
+            defineSlotType(slots[i], null);
+            blocks[i] = compileStatement(matchCase.getBlock());
+        }
+
+        statement = frame -> {
+            var variantArgument = require(argument.evaluate(frame));
+
+            if (variantArgument.getType().getValueType() != ValueType.CUSTOM) {
+                throw new InvalidTypeForMatchException(position);
+            }
+            var variantType = typeDefinitions.get(variantArgument.getType().getCustomType());
+            if (variantType == null || !variantType.isVariant()) {
+                throw new InvalidTypeForMatchException(position);
+            }
+
+            var variantValue = (VariantValue) variantArgument;
+            var selected = MatchTable.select(matchStatement, variantValue);
+            if (selected == MatchTable.NO_CASE) {
+                return null;
+            }
+
+            var parameter = variantValue.getDescriptor().field(variantValue.getOrdinal());
+            var variable = new Variable(parameter.getType(), variables[selected], variantValue.get(), false, true);
+            if (slots[selected].isRedeclared()) {
+                throw new DuplicatedVariableException(variables[selected]);
+            }
+            frame.addVariable(slots[selected].getIndex(), variable);
+            return blocks[selected].execute(frame);
+        };
+    }
+
+    @Override
+    public void visit(MatchCaseStatement matchCaseStatement) {
+        throw new RuntimeException("match case statement not supported");
+    }
+
+    @Override
+    public void visit(IntegerExpression integerExpression) {
+        var value = integerExpression.getConstant();
+        expression = frame -> value;
+        type = INT_TYPE;
+    }
+
+    @Override
+    public void visit(FloatExpression floatExpression) {
+        var value = floatExpression.getConstant();
+        expression = frame -> value;
+        type = FLOAT_TYPE;
+    }
+
+    @Override
+    public void visit(StringExpression stringExpression) {
+        var value = stringExpression.getConstant();
+        expression = frame -> value;
+        type = STRING_TYPE;
+    }
+
+    @Override
+    public void visit(BooleanExpression booleanExpression) {
+        var value = booleanExpression.getConstant();
+        expression = frame -> value;
+        type = BOOL_TYPE;
+    }
+
+    @Override
+    public void visit(VariantDeclarationExpression variantDeclaration) {
+        var typeName = variantDeclaration.getTypeName();
+        var fieldName = variantDeclaration.getFieldName();
+        var position = variantDeclaration.getPosition();
+        var value = compileExpression(variantDeclaration.getExpression());
+
+        expression = frame -> {
+            var variantType = typeDefinitions.get(typeName);
+            if (variantType == null) {
+                throw new TypeNotDefinedException(typeName, position);
+            }
+
+            var descriptor = VariantDescriptor.of(variantType);
+            var ordinal = descriptor.ordinal(fieldName);
+            if (ordinal < 0) {
+                throw new InvalidVariantField(typeName, fieldName);
+            }
+
+            var fieldValue = require(value.evaluate(frame), descriptor.field(ordinal).getType());
+            return new VariantValue(descriptor, ordinal, fieldValue);
+        };
+        type = null;
+    }
+
+    @Override
+    public void visit(StructMemberExpression structMemberExpression) {
+        var structOf = compileAccess(structMemberExpression.getSlot());
+
+        expression = frame -> structOf.apply(frame).getValue().get(structMemberExpression);
+        type = null;
+    }
+
+    @Override
+    public void visit(IdentifierExpression identifierExpression) {
+        var slot = identifierExpression.getSlot();
+        var variableOf = compileAccess(slot);
+
+        expression = frame -> variableOf.apply(frame).getValue();
+        type = typeOf(slot);
+    }
+
+    @Override
+    public void visit(FunctionCallExpression call) {
+        var name = call.getIdentifier();
+        var position = call.getPosition();
+        var function = functions.get(name);
+
+        if (function == null) {
+            expression = frame -> {
+                throw new FunctionNotDefinedException(name, position);
+            };
+            type = null;
+            return;
+        }
+
+        var definition = function.getDefinition();
+        var parameters = definition.getParameters();
+        if (call.getArguments().size() != parameters.size()) {
+            expression = frame -> {
+                throw new InvalidNumberOfArgumentsException(call);
+            };
+            type = null;
+            return;
+        }
+
+        var bind = compileArguments(call, definition);
+        var returnType = definition.getReturnType().orElse(null);
+        var memo = memoizer != null ? memoizer.table(call, definition) : null;
+        if (memo != null) {
+            expression = compileMemoizedCall(function, bind, memo);
+            type = isPrimitive(returnType) ? returnType : null;
+            return;
+        }
+
+        expression = frame -> {
+            var context = bind.apply(frame);
+
+            if (++depth > maxStackSize) {
+                throw new FunctionStackLimitException();
+            }
+            deepest = Math.max(deepest, depth);
+            if (returnType != null) {
+                customTypeUsed = true;
+            }
+
+            var returned = function.getBody().execute(context);
+            while (returned instanceof TailCall tailCall) {
+                returned = tailCall.function().getBody().execute(tailCall.context());
+            }
+
+            Value value = null;
+            if (returnType != null) {
+                if (returned == null) {
+                    throw new FunctionDidNotReturnException();
+                }
+                if (returned == CompiledStatement.VOID) {
+                    throw new FunctionDidNotReturnValueException();
+                }
+                validateTypes(returned.getType(), returnType);
+                value = returned;
+            }
+
+            depth--;
+            return value;
+        };
+        type = isPrimitive(returnType) ? returnType : null;
+    }
+
+    /*
+     * call of a pure function returning a primitive value, computed only for arguments missing in its memo table
+     */
+    private CompiledExpression compileMemoizedCall(CompiledFunction function, Function<Context, Context> bind, MemoTable memo) {
+        var layout = function.getDefinition().getFrame();
+        var returnType = function.getDefinition().getReturnType().get();
+
+        return frame -> {
+            var context = bind.apply(frame);
+            var key = MemoTable.key(context, layout);
+            var callerDepth = depth;
+            customTypeUsed = true;
+
+            var entry = memo.lookup(key, maxStackSize - callerDepth);
+            if (entry != null) {
+                deepest = Math.max(deepest, callerDepth + entry.height());
+                return entry.value().copy();
+            }
+
+            var outerDeepest = deepest;
+            if (++depth > maxStackSize) {
+                throw new FunctionStackLimitException();
+            }
+            deepest = depth;
+
+            var returned = function.getBody().execute(context);
+            while (returned instanceof TailCall tailCall) {
+                returned = tailCall.function().getBody().execute(tailCall.context());
+            }
+            if (returned == null) {
+                throw new FunctionDidNotReturnException();
+            }
+            if (returned == CompiledStatement.VOID) {
+                throw new FunctionDidNotReturnValueException();
+            }
+            validateTypes(returned.getType(), returnType);
+
+            memo.store(key, returned, deepest - callerDepth);
+            deepest = Math.max(outerDeepest, deepest);
+            depth--;
+            return returned;
+        };
+    }
+
+    private Function<Context, Context> compileArguments(FunctionCallExpression call, FunctionDefinitionStatement definition) {
+        var name = call.getIdentifier();
+        var position = call.getPackedPosition();
+        var parameters = definition.getParameters();
+
+        // identifiers are passed by reference together with their constness
+        var arguments = new CompiledExpression[parameters.size()];
+        List<Function<Context, Variable>> references = new ArrayList<>();
+        for (var argument : call.getArguments()) {
+            if (argument instanceof IdentifierExpression identifier) {
+                references.add(compileAccess(identifier.getSlot()));
+            } else {
+                arguments[references.size()] = compileExpression(argument);
+                references.add(null);
+            }
+        }
+
+        var layout = definition.getFrame();
+
+        return frame -> {
+            var context = new Context(name, position, layout.getSize());
+
+            for (int i = 0; i < arguments.length; i++) {
+                var parameter = parameters.get(i);
+                Value value;
+                boolean constant;
+                var reference = references.get(i);
+                if (reference != null) {
+                    var variable = reference.apply(frame);
+                    value = variable.getValue();
+                    constant = variable.isConstant();
+                } else {
+                    value = require(arguments[i].evaluate(frame));
+                    constant = false;
+                }
+                validateTypes(value.getType(), parameter.getType());
+
+                var slot = layout.getParameters().get(i);
+                if (slot.isRedeclared()) {
+                    throw new DuplicatedVariableException(parameter.getName());
+                }
+                context.addVariable(slot.getIndex(), new Variable(parameter.getType(), parameter.getName(), value, constant, value.isVariant()));
+            }
+            return context;
+        };
+    }
+
+    @Override
+    public void visit(RelationExpression relation) {
+        var left = compileExpression(relation.getLeft());
+        var leftType = type;
+        var right = compileExpression(relation.getRight());
+        var rightType = type;
+        var position = relation.getPosition();
+
+        if (INT_TYPE.equals(leftType) && INT_TYPE.equals(rightType)) {
+            expression = frame -> BoolValue.of(relation.evaluate(left.evaluate(frame).getInteger(), right.evaluate(frame).getInteger()));
+        } else if (FLOAT_TYPE.equals(leftType) && FLOAT_TYPE.equals(rightType)) {
+            expression = frame -> BoolValue.of(relation.evaluate(left.evaluate(frame).getFloatVal(), right.evaluate(frame).getFloatVal()));
+        } else {
+            expression = frame -> {
+                var leftValue = require(left.evaluate(frame));
+                if (INT_TYPE.equals(leftValue.getType())) {
+                    var rightValue = require(right.evaluate(frame), INT_TYPE);
+                    return BoolValue.of(relation.evaluate(leftValue.getInteger(), rightValue.getInteger()));
+                }
+                if (FLOAT_TYPE.equals(leftValue.getType())) {
+                    var rightValue = require(right.evaluate(frame), FLOAT_TYPE);
+                    return BoolValue.of(relation.evaluate(leftValue.getFloatVal(), rightValue.getFloatVal()));
+                }
+                throw new CompareOperationNotSupportedForNonNumericTypes(position);
+            };
+        }
+        type = BOOL_TYPE;
+    }
+
+    @Override
+    public void visit(EqualityRelationalExpression relation) {
+        var left = compileExpression(relation.getLeft());
+        var leftType = type;
+        var right = compileExpression(relation.getRight());
+        var rightType = type;
+        var position = relation.getPosition();
+
+        if (INT_TYPE.equals(leftType) && INT_TYPE.equals(rightType)) {
+            expression = frame -> BoolValue.of(relation.evaluate(left.evaluate(frame).getInteger(), right.evaluate(frame).getInteger()));
+        } else if (FLOAT_TYPE.equals(leftType) && FLOAT_TYPE.equals(rightType)) {
+            expression = frame -> BoolValue.of(relation.evaluate(left.evaluate(frame).getFloatVal(), right.evaluate(frame).getFloatVal()));
+        } else if (STRING_TYPE.equals(leftType) && STRING_TYPE.equals(rightType)) {
+            expression = frame -> BoolValue.of(relation.evaluate(left.evaluate(frame).getString(), right.evaluate(frame).getString()));
+        } else {
+            expression = frame -> {
+                var leftValue = require(left.evaluate(frame));
+                var valueType = leftValue.getType();
+                if (!INT_TYPE.equals(valueType) && !FLOAT_TYPE.equals(valueType) && !STRING_TYPE.equals(valueType)) {
+                    throw new CompareOperationNotSupportedForNonNumericTypes(position);
+                }
+
+                var rightValue = require(right.evaluate(frame));
+                if (!Objects.equals(valueType, rightValue.getType())) {
+                    throw new TypesDoNotMatchException(valueType, rightValue.getType());
+                }
+
+                return switch (valueType.getValueType()) {
+                    case INT -> BoolValue.of(relation.evaluate(leftValue.getInteger(), rightValue.getInteger()));
+                    case FLOAT -> BoolValue.of(relation.evaluate(leftValue.getFloatVal(), rightValue.getFloatVal()));
+                    default -> BoolValue.of(relation.evaluate(leftValue.getString(), rightValue.getString()));
+                };
+            };
+        }
+        type = BOOL_TYPE;
+    }
+
+    @Override
+    public void visit(BinaryArithmeticExpression arithmetic) {
+        var left = compileExpression(arithmetic.getLeft());
+        var leftType = type;
+        var right = compileExpression(arithmetic.getRight());
+        var rightType = type;
+        var position = arithmetic.getPosition();
+
+        if (INT_TYPE.equals(leftType) && INT_TYPE.equals(rightType)) {
+            expression = frame -> IntValue.of(arithmetic.evaluate(left.evaluate(frame).getInteger(), right.evaluate(frame).getInteger()));
+            type = INT_TYPE;
+        } else if (FLOAT_TYPE.equals(leftType) && FLOAT_TYPE.equals(rightType)) {
+            expression = frame -> FloatValue.of(arithmetic.evaluate(left.evaluate(frame).getFloatVal(), right.evaluate(frame).getFloatVal()));
+            type = FLOAT_TYPE;
+        } else if (STRING_TYPE.equals(leftType) && STRING_TYPE.equals(rightType)) {
+            expression = frame -> evaluateStrings(arithmetic, left.evaluate(frame), right.evaluate(frame));
+            type = STRING_TYPE;
+        } else {
+            expression = frame -> {
+                var leftValue = require(left.evaluate(frame));
+                if (INT_TYPE.equals(leftValue.getType())) {
+                    var rightValue = require(right.evaluate(frame), INT_TYPE);
+                    return IntValue.of(arithmetic.evaluate(leftValue.getInteger(), rightValue.getInteger()));
+                }
+                if (FLOAT_TYPE.equals(leftValue.getType())) {
+                    var rightValue = require(right.evaluate(frame), FLOAT_TYPE);
+                    return FloatValue.of(arithmetic.evaluate(leftValue.getFloatVal(), rightValue.getFloatVal()));
+                }
+                if (STRING_TYPE.equals(leftValue.getType())) {
+                    var rightValue = require(right.evaluate(frame), STRING_TYPE);
+                    return evaluateStrings(arithmetic, leftValue, rightValue);
+                }
+                throw new ArithmeticOperationNotSupportedForNonNumericTypes(position);
+            };
+            type = null;
+        }
+    }
+
+    @Override
+    public void visit(NegateArithmeticExpression negateArithmeticExpression) {
+        var value = compileExpression(negateArithmeticExpression.getExpression());
+        var valueType = type;
+        var position = negateArithmeticExpression.getPosition();
+
+        if (INT_TYPE.equals(valueType)) {
+            expression = frame -> IntValue.of(-value.evaluate(frame).getInteger());
+        } else if (FLOAT_TYPE.equals(valueType)) {
+            expression = frame -> FloatValue.of(-value.evaluate(frame).getFloatVal());
+        } else {
+            expression = frame -> {
+                var operand = require(value.evaluate(frame));
+                if (INT_TYPE.equals(operand.getType())) {
+                    return IntValue.of(-operand.getInteger());
+                }
+                if (FLOAT_TYPE.equals(operand.getType())) {
+                    return FloatValue.of(-operand.getFloatVal());
+                }
+                throw new ArithmeticOperationNotSupportedForNonNumericTypes(position);
+            };
+            type = null;
+        }
+    }
+
+    @Override
+    public void visit(LogicalExpression logical) {
+        var left = compileExpression(logical.getLeft());
+        var right = compileExpression(logical.getRight());
+
+        expression = frame -> {
+            var leftValue = require(left.evaluate(frame), BOOL_TYPE);
+            var rightValue = require(right.evaluate(frame), BOOL_TYPE);
+            return BoolValue.of(logical.evaluate(leftValue.isBool(), rightValue.isBool()));
+        };
+        type = BOOL_TYPE;
+    }
+
+    @Override
+    public void visit(NegateLogicalExpression negateLogicalExpression) {
+        var value = compileExpression(negateLogicalExpression.getExpression());
+
+        expression = frame -> BoolValue.of(!require(value.evaluate(frame), BOOL_TYPE).isBool());
+        type = BOOL_TYPE;
+    }
+
+    @Override
+    public void visit(CastedFactorExpression castedFactorExpression) {
+        var targetType = castedFactorExpression.getType();
+        var position = castedFactorExpression.getPosition();
+        var castHelper = CAST_OPERATIONS.get(targetType);
+
+        if (castHelper == null) {
+            expression = frame -> {
+                throw new UnsupportedCastException(position);
+            };
+            type = null;
+            return;
+        }
+
+        var value = compileExpression(castedFactorExpression.getExpression());
+        var cast = type == null ? null : castHelper.get(type);
+
+        if (cast != null) {
+            expression = frame -> cast.apply(value.evaluate(frame));
+        } else {
+            expression = frame -> {
+                var toCast = require(value.evaluate(frame));
+                var dynamicCast = castHelper.get(toCast.getType());
+                if (dynamicCast == null) {
+                    throw new UnsupportedCastException(position);
+                }
+                return dynamicCast.apply(toCast);
+            };
+        }
+        type = targetType;
+    }
+
+    @Override
+    public void visit(CopiedValueExpression copiedValueExpression) {
+        var value = compileExpression(copiedValueExpression.getExpression());
+
+        expression = frame -> require(value.evaluate(frame)).copy();
+    }
+
+    @Override
+    public void visit(PrintFunction printFunction) {
+        statement = frame -> {
+            out.println(frame.getVariable(PRINT_ARGUMENT_SLOT).getValue().getString());
+            return null;
+        };
+    }
+
+    private Function<Context, Variable> compileAccess(Slot slot) {
+        if (!slot.isResolved()) {
+            return frame -> {
+                throw new NoVariableException();
+            };
+        }
+
+        var index = slot.getIndex();
+        if (slot.isGlobal()) {
+            return frame -> globalContext.getVariable(index);
+        }
+        return frame -> frame.getVariable(index);
+    }
+
+    private TypeDeclaration typeOf(Slot slot) {
+        if (!slot.isResolved()) {
+            return null;
+        }
+        return (slot.isGlobal() ? globalTypes : localTypes)[slot.getIndex()];
+    }
+
+    /*
+     * slots are reused by sibling scopes, so the type has to be overwritten by every declaration
+     */
+    private void defineSlotType(Slot slot, TypeDeclaration type) {
+        if (!slot.isResolved() || slot.isRedeclared()) {
+            return;
+        }
+        (slot.isGlobal() ? globalTypes : localTypes)[slot.getIndex()] = isPrimitive(type) ? type : null;
+    }
+
+    private static boolean isPrimitive(TypeDeclaration type) {
+        return type != null && type.getValueType() != ValueType.CUSTOM;
+    }
+
+    private static Value require(Value value) {
+        if (value == null) {
+            throw new ExpressionDidNotEvaluateException();
+        }
+        return value;
+    }
+
+    private static Value require(Value value, TypeDeclaration type) {
+        validateTypes(require(value).getType(), type);
+        return value;
+    }
+
+    private CompiledExpression compileExpression(Expression node) {
+        expression = null;
+        type = null;
+        callAccept(node);
+        return expression;
+    }
+
+    private CompiledExpression[] compileExpressions(List<Expression> nodes) {
+        var compiled = new CompiledExpression[nodes.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = compileExpression(nodes.get(i));
+        }
+        return compiled;
+    }
+
+    private CompiledStatement compileStatement(Statement node) {
+        statement = null;
+        expression = null;
+        callAccept(node);
+        if (statement != null) {
+            return statement;
+        }
+
+        var compiled = expression;
+        return frame -> {
+            compiled.evaluate(frame);
+            return null;
+        };
+    }
+
+    private CompiledStatement[] compileStatements(Collection<? extends Statement> nodes) {
+        var compiled = new CompiledStatement[nodes.size()];
+        var i = 0;
+        for (var node : nodes) {
+            compiled[i++] = compileStatement(node);
+        }
+        return compiled;
+    }
+
+    private <T extends Node> void callAccept(T node) {
+        node.accept(this);
+    }
+}
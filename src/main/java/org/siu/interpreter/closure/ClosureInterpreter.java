@@ -0,0 +1,48 @@
+package org.siu.interpreter.closure;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.siu.ast.Program;
+import org.siu.interpreter.Interpreter;
+import org.siu.interpreter.VariableResolver;
+import org.siu.interpreter.error.JavaStackOverflowException;
+import org.siu.interpreter.memo.Memoizer;
+
+import java.io.PrintStream;
+import java.util.Optional;
+
+import static org.siu.interpreter.InterpreterConfig.maxStackSize;
+import static org.siu.interpreter.InterpreterConfig.memoSize;
+
+/**
+ * Runs the program translated by {@link ClosureCompiler}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ClosureInterpreter implements Interpreter {
+    private final Program program;
+    private final PrintStream out;
+    private Memoizer memoizer;
+
+    @Override
+    public Optional<Memoizer> getMemoizer() {
+        return Optional.ofNullable(memoizer);
+    }
+
+    @Override
+    public void execute() {
+        try {
+            if (program.getGlobalFrame() == null) {
+                new VariableResolver(program).resolve();
+            }
+            memoizer = new Memoizer(program, memoSize());
+            new ClosureCompiler(program, out, memoizer).compile().run();
+        } catch (Exception e) {
+            log.error("Error while interpreting", e);
+            out.println("Error while interpreting: " + e.getMessage());
+        } catch (StackOverflowError e) {
+            log.error("Error while interpreting", e);
+            out.println("Error while interpreting: " + new JavaStackOverflowException(maxStackSize()).getMessage());
+        }
+    }
+}
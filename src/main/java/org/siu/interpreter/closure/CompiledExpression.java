@@ -0,0 +1,12 @@
+package org.siu.interpreter.closure;
+
+import org.siu.interpreter.state.Context;
+import org.siu.interpreter.state.Value;
+
+/**
+ * Expression translated by {@link ClosureCompiler}. Returns null when the expression does not evaluate to a value.
+ */
+@FunctionalInterface
+public interface CompiledExpression {
+    Value evaluate(Context frame);
+}
@@ -0,0 +1,17 @@
+package org.siu.interpreter.closure;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.siu.ast.function.FunctionDefinitionStatement;
+
+/*
+ * body is assigned after all functions are registered, so that calls (also recursive ones) are bound directly
+ */
+@Getter
+@RequiredArgsConstructor
+class CompiledFunction {
+    private final FunctionDefinitionStatement definition;
+    @Setter
+    private CompiledStatement body;
+}
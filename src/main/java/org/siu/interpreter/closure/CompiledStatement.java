@@ -0,0 +1,15 @@
+package org.siu.interpreter.closure;
+
+import org.siu.interpreter.state.Context;
+import org.siu.interpreter.state.Value;
+
+/**
+ * Statement translated by {@link ClosureCompiler}. Returns null when execution continues with the next statement,
+ * the returned value or {@link #VOID} when a return statement was executed.
+ */
+@FunctionalInterface
+public interface CompiledStatement {
+    Value VOID = () -> null;
+
+    Value execute(Context frame);
+}
@@ -0,0 +1,16 @@
+package org.siu.interpreter.closure;
+
+import org.siu.ast.type.TypeDeclaration;
+import org.siu.interpreter.state.Context;
+import org.siu.interpreter.state.Value;
+
+/*
+ * returned by a compiled return statement in place of the value of a call in tail position,
+ * the enclosing call runs the callee in a loop instead of nesting it on the JVM stack
+ */
+record TailCall(CompiledFunction function, Context context) implements Value {
+    @Override
+    public TypeDeclaration getType() {
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package org.siu.interpreter.error;
+
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ImmutableValueException extends InterpreterException {
+}
@@ -0,0 +1,18 @@
+package org.siu.interpreter.error;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The Java stack of the running thread ran out before the call stack budget was reached. The tree, closure and jit
+ * engines recurse on the Java stack, so with a large budget this is the real limit; the thread stack is raised with -Xss
+ * and the bytecode engine keeps its calls off the Java stack.
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JavaStackOverflowException extends InterpreterException {
+    int maxStackSize;
+}
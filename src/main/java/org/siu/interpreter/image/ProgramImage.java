@@ -0,0 +1,109 @@
+package org.siu.interpreter.image;
+
+import lombok.experimental.UtilityClass;
+import org.siu.ast.Program;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Precompiled program stored next to its source in a .siuc file, so that running the source again
+ * skips lexing, parsing, the return type check and the optimizer.
+ * <p>
+ * Layout: magic, format version, compiler version, hash of the source, string table, nodes of the program.
+ * Integers are written as unsigned LEB128 varints, signed values zigzag encoded, names refer to the string table.
+ * Every node starts with its tag, the tag {@link #NULL} stands for a missing node.
+ */
+@UtilityClass
+public class ProgramImage {
+    public static final String EXTENSION = ".siuc";
+    public static final int MAGIC = 0x53495543; // SIUC
+    public static final int FORMAT_VERSION = 1;
+    /*
+     * bumped whenever the parser, the return type check or the optimizer change the programs they produce
+     */
+    public static final int COMPILER_VERSION = 1;
+
+    public static final int NULL = 0;
+    public static final int FUNCTION = 1;
+    public static final int BLOCK = 2;
+    public static final int DECLARATION = 3;
+    public static final int CONST = 4;
+    public static final int STRUCT_TYPE = 5;
+    public static final int VARIANT_TYPE = 6;
+    public static final int ASSIGNMENT = 7;
+    public static final int STRUCT_MEMBER_ASSIGNMENT = 8;
+    public static final int VARIANT_ASSIGNMENT = 9;
+    public static final int IF = 10;
+    public static final int WHILE = 11;
+    public static final int RETURN = 12;
+    public static final int MATCH = 13;
+    public static final int MATCH_CASE = 14;
+    public static final int INTEGER = 15;
+    public static final int FLOAT = 16;
+    public static final int STRING = 17;
+    public static final int BOOLEAN = 18;
+    public static final int IDENTIFIER = 19;
+    public static final int STRUCT_MEMBER = 20;
+    public static final int STRUCT_DECLARATION = 21;
+    public static final int VARIANT_DECLARATION = 22;
+    public static final int CALL = 23;
+    public static final int CAST = 24;
+    public static final int COPY = 25;
+    public static final int ADD = 26;
+    public static final int SUBTRACT = 27;
+    public static final int MULTIPLY = 28;
+    public static final int DIVIDE = 29;
+    public static final int MODULO = 30;
+    public static final int NEGATE = 31;
+    public static final int AND = 32;
+    public static final int OR = 33;
+    public static final int NOT = 34;
+    public static final int EQUAL = 35;
+    public static final int NOT_EQUAL = 36;
+    public static final int LESS = 37;
+    public static final int LESS_EQUAL = 38;
+    public static final int GREATER = 39;
+    public static final int GREATER_EQUAL = 40;
+
+    /*
+     * script.siu is precompiled to script.siuc
+     */
+    public static Path pathFor(Path source) {
+        var name = source.getFileName().toString();
+        var dot = name.lastIndexOf('.');
+        return source.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + EXTENSION);
+    }
+
+    /**
+     * Returns the program stored in the image when it was compiled from a source with the given hash by this compiler version.
+     */
+    public static Optional<Program> load(Path image, String sourceHash) throws IOException {
+        if (!Files.isRegularFile(image)) {
+            return Optional.empty();
+        }
+        try (var channel = FileChannel.open(image, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ProgramImageReader(buffer).read(sourceHash);
+        }
+    }
+
+    /*
+     * written to a temporary file first, so that a concurrent run never loads a partially written image
+     */
+    public static void save(Path image, String sourceHash, Program program) throws IOException {
+        var bytes = new ProgramImageWriter().write(sourceHash, program);
+        var temporary = Files.createTempFile(image.toAbsolutePath().getParent(), image.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, bytes);
+            Files.move(temporary, image, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package org.siu.interpreter.image;
+
+import org.siu.ast.BlockStatement;
+import org.siu.ast.Parameter;
+import org.siu.ast.Program;
+import org.siu.ast.Statement;
+import org.siu.ast.expression.*;
+import org.siu.ast.expression.arithmetic.*;
+import org.siu.ast.expression.logical.AndLogicalExpression;
+import org.siu.ast.expression.logical.NegateLogicalExpression;
+import org.siu.ast.expression.logical.OrLogicalExpression;
+import org.siu.ast.expression.relation.*;
+import org.siu.ast.function.FunctionDefinitionStatement;
+import org.siu.ast.statement.*;
+import org.siu.ast.type.BooleanExpression;
+import org.siu.ast.type.FloatExpression;
+import org.siu.ast.type.IntegerExpression;
+import org.siu.ast.type.StringExpression;
+import org.siu.ast.type.TypeDeclaration;
+import org.siu.ast.type.ValueType;
+import org.siu.token.Position;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.siu.interpreter.image.ProgramImage.*;
+
+/**
+ * Reads a program written by {@link ProgramImageWriter}, directly from the mapped file.
+ */
+public class ProgramImageReader {
+    private static final ValueType[] VALUE_TYPES = ValueType.values();
+
+    private final ByteBuffer buffer;
+    private String[] strings;
+
+    public ProgramImageReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Returns the program unless the image is stale: written by another format or compiler version or for another source.
+     */
+    public Optional<Program> read(String sourceHash) throws IOException {
+        try {
+            if (buffer.remaining() < Integer.BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a program image");
+            }
+            if (readInt() != FORMAT_VERSION || readInt() != COMPILER_VERSION || !readBytes().equals(sourceHash)) {
+                return Optional.empty();
+            }
+
+            strings = new String[readLength()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = readBytes();
+            }
+
+            var functions = new HashMap<String, FunctionDefinitionStatement>();
+            readNamed(functions);
+            var declarations = new HashMap<String, Statement>();
+            readNamed(declarations);
+            var typeDefinitions = new HashMap<String, Statement>();
+            readNamed(typeDefinitions);
+            return Optional.of(new Program(functions, declarations, typeDefinitions));
+        } catch (RuntimeException e) {
+            // whatever garbage decodes to, a damaged image is reported as unreadable and compiled again
+            throw new IOException("Corrupted program image", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Statement> void readNamed(Map<String, T> statements) {
+        var size = readLength();
+        for (int i = 0; i < size; i++) {
+            var name = readString();
+            statements.put(name, (T) readNode());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Statement> List<T> readNodes() {
+        var size = readLength();
+        var nodes = new ArrayList<T>(size);
+        for (int i = 0; i < size; i++) {
+            nodes.add((T) readNode());
+        }
+        return nodes;
+    }
+
+    private Expression readExpression() {
+        return (Expression) readNode();
+    }
+
+    private BlockStatement readBlock() {
+        return (BlockStatement) readNode();
+    }
+
+    private Statement readNode() {
+        var tag = readInt();
+        return switch (tag) {
+            case NULL -> null;
+            case FUNCTION -> new FunctionDefinitionStatement(readString(), readParameters(), Optional.ofNullable(readType()), readBlock(), readPosition());
+            case BLOCK -> new BlockStatement(readNodes(), readPosition());
+            case DECLARATION -> new DeclarationStatement(readParameter(), readExpression(), readPosition());
+            case CONST -> new ConstStatement(readParameter(), (DeclarationStatement) readNode(), readPosition());
+            case STRUCT_TYPE -> new StructTypeDefinitionStatement(readString(), readParameters(), readPosition());
+            case VARIANT_TYPE -> new VariantTypeDefinitionStatement(readString(), readParameters(), readPosition());
+            case ASSIGNMENT -> new AssignmentStatement(readString(), readExpression(), readPosition());
+            case STRUCT_MEMBER_ASSIGNMENT -> new StructMemberAssignmentStatement((StructMemberExpression) readNode(), readExpression(), readPosition());
+            case VARIANT_ASSIGNMENT -> new VariantAssignmentStatement((VariantDeclarationExpression) readNode(), readExpression(), readPosition());
+            case IF -> new IfStatement(readNodes(), readNodes(), Optional.ofNullable(readBlock()), readPosition());
+            case WHILE -> new WhileStatement(readExpression(), readBlock(), readPosition());
+            case RETURN -> new ReturnStatement(readExpression(), readPosition());
+            case MATCH -> new MatchStatement(readExpression(), readNodes(), readPosition());
+            case MATCH_CASE -> new MatchCaseStatement(readString(), readString(), readString(), readBlock(), readPosition());
+            case INTEGER -> new IntegerExpression(readSigned(), readPosition());
+            case FLOAT -> new FloatExpression(Float.intBitsToFloat(buffer.getInt()), readPosition());
+            case STRING -> new StringExpression(readString(), readPosition());
+            case BOOLEAN -> new BooleanExpression(readInt() != 0, readPosition());
+            case IDENTIFIER -> new IdentifierExpression(readString(), readPosition());
+            case STRUCT_MEMBER -> new StructMemberExpression(readString(), readString(), readPosition());
+            case STRUCT_DECLARATION -> new StructDeclarationExpression(readString(), readNodes(), readPosition());
+            case VARIANT_DECLARATION -> new VariantDeclarationExpression(readString(), readString(), readExpression(), readPosition());
+            case CALL -> new FunctionCallExpression(readString(), readNodes(), readPosition());
+            case CAST -> new CastedFactorExpression(readType(), readExpression(), readPosition());
+            case COPY -> new CopiedValueExpression((NamedExpression) readNode(), readPosition());
+            case ADD -> new AddArithmeticExpression(readExpression(), readExpression(), readPosition());
+            case SUBTRACT -> new SubtractArithmeticExpression(readExpression(), readExpression(), readPosition());
+            case MULTIPLY -> new MultiplyArithmeticExpression(readExpression(), readExpression(), readPosition());
+            case DIVIDE -> new DivideArithmeticExpression(readExpression(), readExpression(), readPosition());
+            case MODULO -> new ModuloArithmeticExpression(readExpression(), readExpression(), readPosition());
+            case NEGATE -> new NegateArithmeticExpression(readExpression(), readPosition());
+            case AND -> new AndLogicalExpression(readExpression(), readExpression(), readPosition());
+            case OR -> new OrLogicalExpression(readExpression(), readExpression(), readPosition());
+            case NOT -> new NegateLogicalExpression(readExpression(), readPosition());
+            case EQUAL -> new EqualExpression(readExpression(), readExpression(), readPosition());
+            case NOT_EQUAL -> new NotEqualExpression(readExpression(), readExpression(), readPosition());
+            case LESS -> new LessExpression(readExpression(), readExpression(), readPosition());
+            case LESS_EQUAL -> new LessEqualExpression(readExpression(), readExpression(), readPosition());
+            case GREATER -> new GreaterExpression(readExpression(), readExpression(), readPosition());
+            case GREATER_EQUAL -> new GreaterEqualExpression(readExpression(), readExpression(), readPosition());
+            default -> throw new IndexOutOfBoundsException("Unknown node tag " + tag);
+        };
+    }
+
+    private List<Parameter> readParameters() {
+        var size = readLength();
+        var parameters = new ArrayList<Parameter>(size);
+        for (int i = 0; i < size; i++) {
+            parameters.add(readParameter());
+        }
+        return parameters;
+    }
+
+    private Parameter readParameter() {
+        return new Parameter(readType(), readString());
+    }
+
+    private TypeDeclaration readType() {
+        var valueType = readInt();
+        if (valueType == 0) {
+            return null;
+        }
+        var customType = readString();
+        return customType == null ? new TypeDeclaration(VALUE_TYPES[valueType - 1]) : new TypeDeclaration(VALUE_TYPES[valueType - 1], customType);
+    }
+
+    private long readPosition() {
+        var line = readInt();
+        if (line == 0) {
+            return Position.NONE;
+        }
+        return Position.pack(line - 1, readInt());
+    }
+
+    private String readString() {
+        var index = readInt();
+        return index == 0 ? null : strings[index - 1];
+    }
+
+    private String readBytes() {
+        var bytes = new byte[readLength()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * every element takes at least a byte, so a longer length than the bytes left can only come from a damaged image
+     */
+    private int readLength() {
+        var length = readInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IndexOutOfBoundsException("Invalid length " + length);
+        }
+        return length;
+    }
+
+    private int readSigned() {
+        var value = readInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private int readInt() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            var next = buffer.get();
+            value |= (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+    }
+}
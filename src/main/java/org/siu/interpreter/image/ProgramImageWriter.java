@@ -0,0 +1,429 @@
+package org.siu.interpreter.image;
+
+import org.siu.ast.BlockStatement;
+import org.siu.ast.Node;
+import org.siu.ast.Parameter;
+import org.siu.ast.Program;
+import org.siu.ast.Statement;
+import org.siu.ast.expression.*;
+import org.siu.ast.expression.arithmetic.*;
+import org.siu.ast.expression.logical.AndLogicalExpression;
+import org.siu.ast.expression.logical.LogicalExpression;
+import org.siu.ast.expression.logical.NegateLogicalExpression;
+import org.siu.ast.expression.relation.*;
+import org.siu.ast.function.FunctionDefinitionStatement;
+import org.siu.ast.statement.*;
+import org.siu.ast.type.BooleanExpression;
+import org.siu.ast.type.FloatExpression;
+import org.siu.ast.type.IntegerExpression;
+import org.siu.ast.type.StringExpression;
+import org.siu.ast.type.TypeDeclaration;
+import org.siu.interpreter.Visitor;
+import org.siu.interpreter.builtin.PrintFunction;
+import org.siu.token.Position;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.siu.interpreter.image.ProgramImage.*;
+
+/**
+ * Writes the nodes of a program in the layout described by {@link ProgramImage}.
+ */
+public class ProgramImageWriter implements Visitor {
+    private final ByteArrayOutputStream nodes = new ByteArrayOutputStream();
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+    public byte[] write(String sourceHash, Program program) {
+        program.accept(this);
+
+        var body = nodes.toByteArray();
+        nodes.reset();
+        writeRaw(MAGIC);
+        writeInt(FORMAT_VERSION);
+        writeInt(COMPILER_VERSION);
+        writeBytes(sourceHash);
+        writeInt(strings.size());
+        for (var string : strings.keySet()) {
+            writeBytes(string);
+        }
+        nodes.writeBytes(body);
+        return nodes.toByteArray();
+    }
+
+    @Override
+    public void visit(Program program) {
+        writeNamed(program.getFunctionDefinitions());
+        writeNamed(program.getDeclarations());
+        writeNamed(program.getTypeDefinitions());
+    }
+
+    @Override
+    public void visit(WhileStatement statement) {
+        writeInt(WHILE);
+        write(statement.getCondition());
+        write(statement.getBlock());
+        writePosition(statement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(IfStatement statement) {
+        writeInt(IF);
+        writeNodes(statement.getConditions());
+        writeNodes(statement.getIfInstructions());
+        write(statement.getElseInstructions().orElse(null));
+        writePosition(statement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(ReturnStatement statement) {
+        writeInt(RETURN);
+        write(statement.getExpression());
+        writePosition(statement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(DeclarationStatement statement) {
+        writeInt(DECLARATION);
+        write(statement.getParameter());
+        write(statement.getExpression());
+        writePosition(statement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(BlockStatement blockStatement) {
+        writeInt(BLOCK);
+        writeNodes(blockStatement.getStatements());
+        writePosition(blockStatement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(AssignmentStatement assignmentStatement) {
+        writeInt(ASSIGNMENT);
+        writeString(assignmentStatement.getName());
+        write(assignmentStatement.getValue());
+        writePosition(assignmentStatement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(VariantTypeDefinitionStatement variantTypeDefinitionStatement) {
+        writeInt(VARIANT_TYPE);
+        writeString(variantTypeDefinitionStatement.getName());
+        writeParameters(variantTypeDefinitionStatement.getParameters());
+        writePosition(variantTypeDefinitionStatement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(StructTypeDefinitionStatement structTypeDefinitionStatement) {
+        writeInt(STRUCT_TYPE);
+        writeString(structTypeDefinitionStatement.getName());
+        writeParameters(structTypeDefinitionStatement.getParameters());
+        writePosition(structTypeDefinitionStatement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(ConstStatement statement) {
+        writeInt(CONST);
+        write(statement.getParameter());
+        write(statement.getStatement());
+        writePosition(statement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(FunctionDefinitionStatement statement) {
+        writeInt(FUNCTION);
+        writeString(statement.getName());
+        writeParameters(statement.getParameters());
+        write(statement.getReturnType().orElse(null));
+        write(statement.getBlock());
+        writePosition(statement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(StructDeclarationExpression statement) {
+        writeInt(STRUCT_DECLARATION);
+        writeString(statement.getIdentifier());
+        writeNodes(statement.getArguments());
+        writePosition(statement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(StructMemberAssignmentStatement statement) {
+        writeInt(STRUCT_MEMBER_ASSIGNMENT);
+        write(statement.getStruct());
+        write(statement.getValue());
+        writePosition(statement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(VariantAssignmentStatement statement) {
+        writeInt(VARIANT_ASSIGNMENT);
+        write(statement.getVariant());
+        write(statement.getValue());
+        writePosition(statement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(MatchStatement matchStatement) {
+        writeInt(MATCH);
+        write(matchStatement.getExpression());
+        writeNodes(matchStatement.getStatements());
+        writePosition(matchStatement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(MatchCaseStatement matchCaseStatement) {
+        writeInt(MATCH_CASE);
+        writeString(matchCaseStatement.getVariantType());
+        writeString(matchCaseStatement.getFieldName());
+        writeString(matchCaseStatement.getVariable());
+        write(matchCaseStatement.getBlock());
+        writePosition(matchCaseStatement.getPackedPosition());
+    }
+
+    @Override
+    public void visit(IntegerExpression expression) {
+        writeInt(INTEGER);
+        writeSigned(expression.getValue());
+        writePosition(expression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(FloatExpression expression) {
+        writeInt(FLOAT);
+        writeRaw(Float.floatToRawIntBits(expression.getValue()));
+        writePosition(expression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(StringExpression expression) {
+        writeInt(STRING);
+        writeString(expression.getValue());
+        writePosition(expression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(BooleanExpression expression) {
+        writeInt(BOOLEAN);
+        writeInt(expression.getValue() ? 1 : 0);
+        writePosition(expression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(VariantDeclarationExpression expression) {
+        writeInt(VARIANT_DECLARATION);
+        writeString(expression.getTypeName());
+        writeString(expression.getFieldName());
+        write(expression.getExpression());
+        writePosition(expression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(StructMemberExpression expression) {
+        writeInt(STRUCT_MEMBER);
+        writeString(expression.getStructName());
+        writeString(expression.getFieldName());
+        writePosition(expression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(IdentifierExpression identifierExpression) {
+        writeInt(IDENTIFIER);
+        writeString(identifierExpression.getIdentifier());
+        writePosition(identifierExpression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(FunctionCallExpression expression) {
+        writeInt(CALL);
+        writeString(expression.getIdentifier());
+        writeNodes(expression.getArguments());
+        writePosition(expression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(RelationExpression expression) {
+        if (expression instanceof LessExpression) {
+            writeInt(LESS);
+        } else if (expression instanceof LessEqualExpression) {
+            writeInt(LESS_EQUAL);
+        } else if (expression instanceof GreaterExpression) {
+            writeInt(GREATER);
+        } else if (expression instanceof GreaterEqualExpression) {
+            writeInt(GREATER_EQUAL);
+        } else {
+            throw new IllegalArgumentException("Unknown relation " + expression);
+        }
+        writeBinary(expression.getLeft(), expression.getRight(), expression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(EqualityRelationalExpression expression) {
+        writeInt(expression instanceof EqualExpression ? EQUAL : NOT_EQUAL);
+        writeBinary(expression.getLeft(), expression.getRight(), expression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(BinaryArithmeticExpression expression) {
+        if (expression instanceof AddArithmeticExpression) {
+            writeInt(ADD);
+        } else if (expression instanceof SubtractArithmeticExpression) {
+            writeInt(SUBTRACT);
+        } else if (expression instanceof MultiplyArithmeticExpression) {
+            writeInt(MULTIPLY);
+        } else if (expression instanceof DivideArithmeticExpression) {
+            writeInt(DIVIDE);
+        } else if (expression instanceof ModuloArithmeticExpression) {
+            writeInt(MODULO);
+        } else {
+            throw new IllegalArgumentException("Unknown arithmetic operator " + expression);
+        }
+        writeBinary(expression.getLeft(), expression.getRight(), expression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(NegateArithmeticExpression negateArithmeticExpression) {
+        writeInt(NEGATE);
+        write(negateArithmeticExpression.getExpression());
+        writePosition(negateArithmeticExpression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(LogicalExpression expression) {
+        writeInt(expression instanceof AndLogicalExpression ? AND : OR);
+        writeBinary(expression.getLeft(), expression.getRight(), expression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(NegateLogicalExpression expression) {
+        writeInt(NOT);
+        write(expression.getExpression());
+        writePosition(expression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(CastedFactorExpression castedFactorExpression) {
+        writeInt(CAST);
+        write(castedFactorExpression.getType());
+        write(castedFactorExpression.getExpression());
+        writePosition(castedFactorExpression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(CopiedValueExpression copiedFactorExpression) {
+        writeInt(COPY);
+        write(copiedFactorExpression.getExpression());
+        writePosition(copiedFactorExpression.getPackedPosition());
+    }
+
+    @Override
+    public void visit(PrintFunction expression) {
+        throw new IllegalArgumentException("Builtin functions are not part of program images");
+    }
+
+    private void writeNamed(Map<String, ? extends Statement> statements) {
+        writeInt(statements.size());
+        for (var entry : statements.entrySet()) {
+            writeString(entry.getKey());
+            write(entry.getValue());
+        }
+    }
+
+    private void writeNodes(Collection<? extends Node> list) {
+        writeInt(list.size());
+        for (var node : list) {
+            write(node);
+        }
+    }
+
+    private void writeBinary(Expression left, Expression right, long position) {
+        write(left);
+        write(right);
+        writePosition(position);
+    }
+
+    private void write(Node node) {
+        if (node == null) {
+            writeInt(NULL);
+        } else {
+            node.accept(this);
+        }
+    }
+
+    private void writeParameters(List<Parameter> parameters) {
+        writeInt(parameters.size());
+        for (var parameter : parameters) {
+            write(parameter);
+        }
+    }
+
+    private void write(Parameter parameter) {
+        write(parameter.getType());
+        writeString(parameter.getName());
+    }
+
+    /*
+     * types are written as the ordinal of their value type plus one, 0 for no type
+     */
+    private void write(TypeDeclaration type) {
+        if (type == null) {
+            writeInt(0);
+            return;
+        }
+        writeInt(type.getValueType().ordinal() + 1);
+        writeString(type.getCustomType());
+    }
+
+    /*
+     * lines are written plus one, 0 for no position
+     */
+    private void writePosition(long position) {
+        if (position == Position.NONE) {
+            writeInt(0);
+            return;
+        }
+        writeInt(Position.line(position) + 1);
+        writeInt(Position.column(position));
+    }
+
+    /*
+     * strings are written as their index in the string table plus one, 0 for null
+     */
+    private void writeString(String string) {
+        if (string == null) {
+            writeInt(0);
+            return;
+        }
+        var index = strings.computeIfAbsent(string, key -> strings.size());
+        writeInt(index + 1);
+    }
+
+    private void writeBytes(String string) {
+        var bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length);
+        nodes.writeBytes(bytes);
+    }
+
+    private void writeSigned(int value) {
+        writeInt((value << 1) ^ (value >> 31));
+    }
+
+    private void writeInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            nodes.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        nodes.write(value);
+    }
+
+    private void writeRaw(int value) {
+        nodes.write(value >>> 24);
+        nodes.write(value >>> 16);
+        nodes.write(value >>> 8);
+        nodes.write(value);
+    }
+}
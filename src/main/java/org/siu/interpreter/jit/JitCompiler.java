@@ -0,0 +1,149 @@
+package org.siu.interpreter.jit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.objectweb.asm.ClassWriter;
+import org.siu.ast.Program;
+import org.siu.ast.function.FunctionDefinitionStatement;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.*;
+
+import static org.objectweb.asm.Opcodes.*;
+import static org.siu.interpreter.InterpreterConfig.JIT_THRESHOLD;
+
+/**
+ * Counts calls of program functions and translates them to JVM bytecode once one of them gets hot.
+ * <p>
+ * All supported functions are defined together as static methods of a single hidden class, so they call each other
+ * directly. Functions that are not supported, or all of them when the class cannot be defined,
+ * are left to the interpreter.
+ * <p>
+ * The compiler of a program is shared by all its runs, see {@link #of(Program)}, so calls are counted across runs,
+ * possibly on several threads, and a program compiled once runs compiled from then on.
+ */
+@Slf4j
+public class JitCompiler {
+    private static final String CLASS_NAME = JitCompiler.class.getPackageName().replace('.', '/') + "/NativeFunctions";
+
+    private final Program program;
+    private final int threshold;
+    private final Map<FunctionDefinitionStatement, Integer> calls = new IdentityHashMap<>();
+    /*
+     * null until the functions are compiled, then never changed, so it is read without locking
+     */
+    private volatile Map<FunctionDefinitionStatement, NativeFunction> compiled;
+
+    public JitCompiler(Program program, int threshold) {
+        this.program = program;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the compiler shared by the runs of the program, created on its first run.
+     */
+    public static JitCompiler of(Program program) {
+        synchronized (program) {
+            if (program.getJit() == null) {
+                program.setJit(new JitCompiler(program, JIT_THRESHOLD));
+            }
+            return program.getJit();
+        }
+    }
+
+    /**
+     * Returns the compiled function or null when the function should be interpreted.
+     */
+    public NativeFunction lookup(FunctionDefinitionStatement function) {
+        var functions = compiled;
+        return functions != null ? functions.get(function) : count(function);
+    }
+
+    private synchronized NativeFunction count(FunctionDefinitionStatement function) {
+        if (compiled == null && calls.merge(function, 1, Integer::sum) > threshold) {
+            compiled = compileAll();
+        }
+        return compiled != null ? compiled.get(function) : null;
+    }
+
+    boolean isCompiled(FunctionDefinitionStatement function) {
+        var functions = compiled;
+        return functions != null && functions.containsKey(function);
+    }
+
+    private Map<FunctionDefinitionStatement, NativeFunction> compileAll() {
+        var natives = new IdentityHashMap<FunctionDefinitionStatement, NativeFunction>();
+        var functions = program.getFunctionDefinitions();
+        var supported = supportedFunctions(functions);
+        if (supported.isEmpty()) {
+            return natives;
+        }
+
+        try {
+            var nodes = new ArrayList<>();
+            var compiler = new NativeFunctionCompiler(CLASS_NAME, supported, functions, nodes);
+
+            var writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+                @Override
+                protected String getCommonSuperClass(String first, String second) {
+                    return "java/lang/Object";
+                }
+            };
+            writer.visit(V17, ACC_FINAL | ACC_SUPER, CLASS_NAME, null, "java/lang/Object", null);
+            writer.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, NativeFunctionCompiler.NODES_FIELD, "[Ljava/lang/Object;", null, null).visitEnd();
+
+            for (var name : supported) {
+                var function = functions.get(name);
+                var method = writer.visitMethod(ACC_STATIC, NativeFunctionCompiler.methodName(function),
+                        NativeFunctionCompiler.descriptor(function), null, null);
+                compiler.compile(function, method);
+            }
+
+            var initializer = writer.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+            initializer.visitCode();
+            initializer.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+            initializer.visitLdcInsn("_");
+            initializer.visitLdcInsn(org.objectweb.asm.Type.getType(Object[].class));
+            initializer.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "classData",
+                    "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;", false);
+            initializer.visitTypeInsn(CHECKCAST, "[Ljava/lang/Object;");
+            initializer.visitFieldInsn(PUTSTATIC, CLASS_NAME, NativeFunctionCompiler.NODES_FIELD, "[Ljava/lang/Object;");
+            initializer.visitInsn(RETURN);
+            initializer.visitMaxs(0, 0);
+            initializer.visitEnd();
+            writer.visitEnd();
+
+            var lookup = MethodHandles.lookup().defineHiddenClassWithClassData(writer.toByteArray(), nodes.toArray(), true);
+            var nativeClass = lookup.lookupClass();
+
+            var genericType = MethodType.methodType(Object.class, int.class, Object[].class);
+            for (var name : supported) {
+                var function = functions.get(name);
+                var type = MethodType.fromMethodDescriptorString(NativeFunctionCompiler.descriptor(function), null);
+                var handle = lookup.findStatic(nativeClass, NativeFunctionCompiler.methodName(function), type)
+                        .asSpreader(Object[].class, function.getParameters().size())
+                        .asType(genericType);
+                natives.put(function, new NativeFunction(function, handle));
+            }
+            log.debug("Compiled functions {} to JVM bytecode", supported);
+        } catch (Exception | LinkageError e) {
+            log.warn("Could not compile functions to JVM bytecode, falling back to the interpreter", e);
+            natives.clear();
+        }
+        return natives;
+    }
+
+    /*
+     * drops functions that are not supported or call one until nothing changes
+     */
+    private static Set<String> supportedFunctions(Map<String, FunctionDefinitionStatement> functions) {
+        var supported = new LinkedHashSet<>(functions.keySet());
+        var checker = new NativeFunctionCompiler(CLASS_NAME, supported, functions, new ArrayList<>());
+
+        boolean changed = true;
+        while (changed) {
+            changed = supported.removeIf(name -> !checker.check(functions.get(name)));
+        }
+        return supported;
+    }
+}
@@ -0,0 +1,60 @@
+package org.siu.interpreter.jit;
+
+import lombok.RequiredArgsConstructor;
+import org.siu.ast.function.FunctionDefinitionStatement;
+import org.siu.interpreter.state.Context;
+import org.siu.interpreter.state.Value;
+import org.siu.interpreter.state.value.BoolValue;
+import org.siu.interpreter.state.value.FloatValue;
+import org.siu.interpreter.state.value.IntValue;
+
+import java.lang.invoke.MethodHandle;
+
+import static org.siu.interpreter.InterpreterUtilities.FLOAT_TYPE;
+import static org.siu.interpreter.InterpreterUtilities.INT_TYPE;
+
+/**
+ * Function compiled to a static JVM method by {@link JitCompiler}.
+ * The handle takes the stack depth and the boxed arguments and returns the boxed result.
+ */
+@RequiredArgsConstructor
+public class NativeFunction {
+    private final FunctionDefinitionStatement definition;
+    private final MethodHandle handle;
+
+    /**
+     * Calls the function with the arguments bound in the parameter slots of the context.
+     */
+    public Value invoke(int depth, Context context) {
+        var parameters = definition.getFrame().getParameters();
+        var arguments = new Object[parameters.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            var variable = context.getVariable(parameters.get(i).getIndex());
+            var type = definition.getParameters().get(i).getType();
+            var value = variable.getValue();
+            if (INT_TYPE.equals(type)) {
+                arguments[i] = value.getInteger();
+            } else if (FLOAT_TYPE.equals(type)) {
+                arguments[i] = value.getFloatVal();
+            } else {
+                arguments[i] = value.isBool();
+            }
+        }
+
+        Object result;
+        try {
+            result = handle.invokeExact(depth, arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+
+        if (result instanceof Integer integer) {
+            return IntValue.of(integer);
+        } else if (result instanceof Float floatValue) {
+            return FloatValue.of(floatValue);
+        }
+        return BoolValue.of((Boolean) result);
+    }
+}
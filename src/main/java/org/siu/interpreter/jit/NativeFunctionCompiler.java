@@ -0,0 +1,616 @@
+package org.siu.interpreter.jit;
+
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.siu.ast.BlockStatement;
+import org.siu.ast.Node;
+import org.siu.ast.Program;
+import org.siu.ast.Statement;
+import org.siu.ast.expression.*;
+import org.siu.ast.expression.arithmetic.BinaryArithmeticExpression;
+import org.siu.ast.expression.arithmetic.NegateArithmeticExpression;
+import org.siu.ast.expression.logical.LogicalExpression;
+import org.siu.ast.expression.logical.NegateLogicalExpression;
+import org.siu.ast.expression.relation.EqualityRelationalExpression;
+import org.siu.ast.expression.relation.RelationExpression;
+import org.siu.ast.function.FunctionDefinitionStatement;
+import org.siu.ast.statement.*;
+import org.siu.ast.type.*;
+import org.siu.interpreter.Visitor;
+import org.siu.interpreter.builtin.PrintFunction;
+import org.siu.interpreter.error.FunctionDidNotReturnException;
+import org.siu.interpreter.error.FunctionStackLimitException;
+import org.siu.interpreter.state.Slot;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.objectweb.asm.Opcodes.*;
+import static org.siu.interpreter.InterpreterConfig.maxStackSize;
+import static org.siu.interpreter.InterpreterUtilities.*;
+
+/**
+ * Checks whether a function can run as JVM code and generates its static method.
+ * <p>
+ * Supported functions work only on int, float and bool values held in JVM locals: they read no globals,
+ * never assign their parameters and never alias a variable, so passing arguments by reference is not observable.
+ * Arithmetic, relational and logical operators call the AST node, so errors are the same as in the interpreter.
+ * When {@code method} is null the visitor only checks the function.
+ */
+class NativeFunctionCompiler implements Visitor {
+    static final String NODES_FIELD = "NODES";
+
+    private final String className;
+    private final Set<String> supportedFunctions;
+    private final Map<String, FunctionDefinitionStatement> functions;
+    private final List<Object> nodes;
+
+    private MethodVisitor method;
+    private TypeDeclaration[] slotTypes;
+    private boolean[] parameterSlots;
+    private boolean[] constantSlots;
+    private Map<Integer, Integer> locals;
+    private int nextLocal;
+    private TypeDeclaration returnType;
+    private FunctionDefinitionStatement function;
+    private Label entry;
+    private boolean tailCall;
+
+    private boolean supported;
+    private TypeDeclaration type;
+
+    NativeFunctionCompiler(String className, Set<String> supportedFunctions, Map<String, FunctionDefinitionStatement> functions, List<Object> nodes) {
+        this.className = className;
+        this.supportedFunctions = supportedFunctions;
+        this.functions = functions;
+        this.nodes = nodes;
+    }
+
+    static String methodName(FunctionDefinitionStatement function) {
+        return "siu$" + function.getName();
+    }
+
+    static String descriptor(FunctionDefinitionStatement function) {
+        var descriptor = new StringBuilder("(I");
+        for (var parameter : function.getParameters()) {
+            descriptor.append(descriptor(parameter.getType()));
+        }
+        return descriptor.append(')').append(descriptor(function.getReturnType().orElseThrow())).toString();
+    }
+
+    private static String descriptor(TypeDeclaration type) {
+        return switch (type.getValueType()) {
+            case INT -> "I";
+            case FLOAT -> "F";
+            case BOOL -> "Z";
+            default -> throw new IllegalArgumentException(type.toString());
+        };
+    }
+
+    static boolean isNative(TypeDeclaration type) {
+        return INT_TYPE.equals(type) || FLOAT_TYPE.equals(type) || BOOL_TYPE.equals(type);
+    }
+
+    boolean check(FunctionDefinitionStatement function) {
+        method = null;
+        return compileFunction(function);
+    }
+
+    void compile(FunctionDefinitionStatement function, MethodVisitor method) {
+        this.method = method;
+        compileFunction(function);
+    }
+
+    private boolean compileFunction(FunctionDefinitionStatement function) {
+        supported = true;
+        this.function = function;
+        entry = new Label();
+        tailCall = false;
+        returnType = function.getReturnType().orElse(null);
+        if (!isNative(returnType)) {
+            return false;
+        }
+
+        var frame = function.getFrame();
+        slotTypes = new TypeDeclaration[frame.getSize()];
+        parameterSlots = new boolean[frame.getSize()];
+        constantSlots = new boolean[frame.getSize()];
+        locals = new HashMap<>();
+        nextLocal = 1;
+
+        for (int i = 0; i < function.getParameters().size(); i++) {
+            var slot = frame.getParameters().get(i);
+            var parameterType = function.getParameters().get(i).getType();
+            if (!isNative(parameterType) || slot.isRedeclared()) {
+                return false;
+            }
+            slotTypes[slot.getIndex()] = parameterType;
+            parameterSlots[slot.getIndex()] = true;
+            local(slot.getIndex(), parameterType);
+        }
+
+        if (method != null) {
+            method.visitCode();
+            method.visitVarInsn(ILOAD, 0);
+            method.visitLdcInsn(maxStackSize());
+            var withinLimit = new Label();
+            method.visitJumpInsn(IF_ICMPLE, withinLimit);
+            throwNew(FunctionStackLimitException.class);
+            method.visitLabel(withinLimit);
+            method.visitLabel(entry);
+        }
+
+        callAccept(function.getBlock());
+
+        if (method != null) {
+            throwNew(FunctionDidNotReturnException.class);
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+        return supported;
+    }
+
+    @Override
+    public void visit(Program program) {
+        supported = false;
+    }
+
+    @Override
+    public void visit(WhileStatement statement) {
+        var start = new Label();
+        var end = new Label();
+        label(start);
+        compileCondition(statement.getCondition(), end);
+        callAccept(statement.getBlock());
+        jump(GOTO, start);
+        label(end);
+    }
+
+    @Override
+    public void visit(IfStatement statement) {
+        var end = new Label();
+        for (int i = 0; i < statement.getConditions().size(); i++) {
+            var next = new Label();
+            compileCondition(statement.getConditions().get(i), next);
+            callAccept(statement.getIfInstructions().get(i));
+            jump(GOTO, end);
+            label(next);
+        }
+        statement.getElseInstructions().ifPresent(this::callAccept);
+        label(end);
+    }
+
+    private void compileCondition(Expression condition, Label otherwise) {
+        callAccept(condition);
+        require(BOOL_TYPE);
+        jump(IFEQ, otherwise);
+    }
+
+    @Override
+    public void visit(ReturnStatement statement) {
+        var expression = statement.getExpression();
+        if (expression == null || aliasesParameter(expression)) {
+            supported = false;
+            return;
+        }
+
+        if (expression instanceof FunctionCallExpression call
+                && isTailCall(function, functions.get(call.getIdentifier()), call.getArguments().size())) {
+            compileTailCall(call);
+            return;
+        }
+
+        callAccept(expression);
+        require(returnType);
+        if (method != null) {
+            method.visitInsn(FLOAT_TYPE.equals(returnType) ? FRETURN : IRETURN);
+        }
+    }
+
+    /*
+     * a recursive tail call rebinds the parameters and jumps to the start of the method,
+     * other tail calls keep the depth of the caller like in the interpreter
+     */
+    private void compileTailCall(FunctionCallExpression call) {
+        if (call.getIdentifier().equals(function.getName())) {
+            var parameters = function.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                callAccept(call.getArguments().get(i));
+                require(parameters.get(i).getType());
+            }
+            for (int i = parameters.size() - 1; i >= 0; i--) {
+                store(function.getFrame().getParameters().get(i).getIndex(), parameters.get(i).getType());
+            }
+            jump(GOTO, entry);
+            return;
+        }
+
+        tailCall = true;
+        callAccept(call);
+        require(returnType);
+        if (method != null) {
+            method.visitInsn(FLOAT_TYPE.equals(returnType) ? FRETURN : IRETURN);
+        }
+    }
+
+    @Override
+    public void visit(DeclarationStatement statement) {
+        compileDeclaration(statement.getSlot(), statement.getParameter().getType(), statement.getExpression(), false);
+    }
+
+    @Override
+    public void visit(ConstStatement statement) {
+        var declaration = statement.getStatement();
+        compileDeclaration(declaration.getSlot(), statement.getParameter().getType(), declaration.getExpression(), true);
+    }
+
+    /*
+     * a declaration initialised with a variable shares its value in the interpreter, so it is not supported
+     */
+    private void compileDeclaration(Slot slot, TypeDeclaration declaredType, Expression initializer, boolean constant) {
+        if (!isNative(declaredType) || !isLocal(slot) || slot.isRedeclared() || aliases(initializer)) {
+            supported = false;
+            return;
+        }
+
+        callAccept(initializer);
+        require(declaredType);
+
+        var index = slot.getIndex();
+        slotTypes[index] = declaredType;
+        parameterSlots[index] = false;
+        constantSlots[index] = constant;
+        store(index, declaredType);
+    }
+
+    @Override
+    public void visit(BlockStatement blockStatement) {
+        for (var statement : blockStatement.getStatements()) {
+            if (!supported) {
+                return;
+            }
+            if (statement instanceof FunctionCallExpression call) {
+                callAccept(call);
+                if (method != null) {
+                    method.visitInsn(POP);
+                }
+            } else {
+                callAccept(statement);
+            }
+        }
+    }
+
+    @Override
+    public void visit(AssignmentStatement statement) {
+        var slot = statement.getSlot();
+        if (!isLocal(slot) || parameterSlots[slot.getIndex()] || constantSlots[slot.getIndex()] || aliases(statement.getValue())) {
+            supported = false;
+            return;
+        }
+
+        var variableType = slotTypes[slot.getIndex()];
+        callAccept(statement.getValue());
+        require(variableType);
+        store(slot.getIndex(), variableType);
+    }
+
+    @Override
+    public void visit(VariantTypeDefinitionStatement statement) {
+        supported = false;
+    }
+
+    @Override
+    public void visit(StructTypeDefinitionStatement statement) {
+        supported = false;
+    }
+
+    @Override
+    public void visit(FunctionDefinitionStatement statement) {
+        supported = false;
+    }
+
+    @Override
+    public void visit(StructDeclarationExpression statement) {
+        supported = false;
+    }
+
+    @Override
+    public void visit(StructMemberAssignmentStatement statement) {
+        supported = false;
+    }
+
+    @Override
+    public void visit(VariantAssignmentStatement statement) {
+        supported = false;
+    }
+
+    @Override
+    public void visit(MatchStatement matchStatement) {
+        supported = false;
+    }
+
+    @Override
+    public void visit(MatchCaseStatement matchCaseStatement) {
+        supported = false;
+    }
+
+    @Override
+    public void visit(IntegerExpression expression) {
+        if (method != null) {
+            method.visitLdcInsn(expression.getValue());
+        }
+        type = INT_TYPE;
+    }
+
+    @Override
+    public void visit(FloatExpression expression) {
+        if (method != null) {
+            method.visitLdcInsn(expression.getValue());
+        }
+        type = FLOAT_TYPE;
+    }
+
+    @Override
+    public void visit(StringExpression expression) {
+        supported = false;
+    }
+
+    @Override
+    public void visit(BooleanExpression expression) {
+        if (method != null) {
+            method.visitInsn(expression.getValue() ? ICONST_1 : ICONST_0);
+        }
+        type = BOOL_TYPE;
+    }
+
+    @Override
+    public void visit(VariantDeclarationExpression expression) {
+        supported = false;
+    }
+
+    @Override
+    public void visit(StructMemberExpression expression) {
+        supported = false;
+    }
+
+    @Override
+    public void visit(IdentifierExpression expression) {
+        var slot = expression.getSlot();
+        if (!isLocal(slot) || slotTypes[slot.getIndex()] == null) {
+            supported = false;
+            return;
+        }
+
+        type = slotTypes[slot.getIndex()];
+        if (method != null) {
+            method.visitVarInsn(FLOAT_TYPE.equals(type) ? FLOAD : ILOAD, local(slot.getIndex(), type));
+        }
+    }
+
+    @Override
+    public void visit(FunctionCallExpression expression) {
+        var callee = functions.get(expression.getIdentifier());
+        if (callee == null || !supportedFunctions.contains(callee.getName())
+                || callee.getParameters().size() != expression.getArguments().size()) {
+            supported = false;
+            return;
+        }
+
+        if (method != null) {
+            method.visitVarInsn(ILOAD, 0);
+            if (!tailCall) {
+                method.visitInsn(ICONST_1);
+                method.visitInsn(IADD);
+            }
+        }
+        tailCall = false;
+        for (int i = 0; i < expression.getArguments().size(); i++) {
+            callAccept(expression.getArguments().get(i));
+            require(callee.getParameters().get(i).getType());
+        }
+
+        if (method != null) {
+            method.visitMethodInsn(INVOKESTATIC, className, methodName(callee), descriptor(callee), false);
+        }
+        type = callee.getReturnType().orElseThrow();
+    }
+
+    @Override
+    public void visit(RelationExpression expression) {
+        compileBinary(expression, RelationExpression.class, expression.getLeft(), expression.getRight(), false);
+        type = BOOL_TYPE;
+    }
+
+    @Override
+    public void visit(EqualityRelationalExpression expression) {
+        compileBinary(expression, RelationExpression.class, expression.getLeft(), expression.getRight(), false);
+        type = BOOL_TYPE;
+    }
+
+    @Override
+    public void visit(BinaryArithmeticExpression expression) {
+        compileBinary(expression, BinaryArithmeticExpression.class, expression.getLeft(), expression.getRight(), true);
+    }
+
+    /*
+     * evaluates the operation with the AST node, which is loaded before the operands
+     */
+    private void compileBinary(Node node, Class<?> nodeType, Expression left, Expression right, boolean arithmetic) {
+        loadNode(node, nodeType);
+
+        callAccept(left);
+        var operandType = type;
+        if (!INT_TYPE.equals(operandType) && !FLOAT_TYPE.equals(operandType)) {
+            supported = false;
+            return;
+        }
+        callAccept(right);
+        require(operandType);
+
+        if (method != null) {
+            var operand = descriptor(operandType);
+            var result = arithmetic ? operand : "Z";
+            method.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(nodeType), "evaluate", "(" + operand + operand + ")" + result, true);
+        }
+        type = operandType;
+    }
+
+    @Override
+    public void visit(NegateArithmeticExpression expression) {
+        callAccept(expression.getExpression());
+        if (!INT_TYPE.equals(type) && !FLOAT_TYPE.equals(type)) {
+            supported = false;
+            return;
+        }
+        if (method != null) {
+            method.visitInsn(INT_TYPE.equals(type) ? INEG : FNEG);
+        }
+    }
+
+    @Override
+    public void visit(LogicalExpression expression) {
+        loadNode(expression, LogicalExpression.class);
+        callAccept(expression.getLeft());
+        require(BOOL_TYPE);
+        callAccept(expression.getRight());
+        require(BOOL_TYPE);
+
+        if (method != null) {
+            method.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(LogicalExpression.class), "evaluate", "(ZZ)Z", true);
+        }
+        type = BOOL_TYPE;
+    }
+
+    @Override
+    public void visit(NegateLogicalExpression expression) {
+        callAccept(expression.getExpression());
+        require(BOOL_TYPE);
+
+        if (method != null) {
+            method.visitInsn(ICONST_1);
+            method.visitInsn(IXOR);
+        }
+        type = BOOL_TYPE;
+    }
+
+    @Override
+    public void visit(CastedFactorExpression expression) {
+        var targetType = expression.getType();
+        callAccept(expression.getExpression());
+        if (!supported) {
+            return;
+        }
+
+        if (INT_TYPE.equals(targetType)) {
+            if (FLOAT_TYPE.equals(type) && method != null) {
+                method.visitInsn(F2I);
+            }
+        } else if (FLOAT_TYPE.equals(targetType)) {
+            if (!FLOAT_TYPE.equals(type) && method != null) {
+                method.visitInsn(I2F);
+            }
+        } else {
+            supported = false;
+            return;
+        }
+        type = targetType;
+    }
+
+    @Override
+    public void visit(CopiedValueExpression expression) {
+        callAccept(expression.getExpression());
+    }
+
+    @Override
+    public void visit(PrintFunction expression) {
+        supported = false;
+    }
+
+    private boolean aliases(Expression expression) {
+        if (expression instanceof IdentifierExpression) {
+            return true;
+        }
+        return expression instanceof CastedFactorExpression cast && aliasesUnderCast(cast);
+    }
+
+    private boolean aliasesParameter(Expression expression) {
+        if (expression instanceof IdentifierExpression identifier) {
+            return isLocal(identifier.getSlot()) && parameterSlots[identifier.getSlot().getIndex()];
+        }
+        return expression instanceof CastedFactorExpression cast && aliasesUnderCast(cast) && aliasesParameter(cast.getExpression());
+    }
+
+    /*
+     * casting a value to its own type returns the same value
+     */
+    private boolean aliasesUnderCast(CastedFactorExpression cast) {
+        var operand = cast.getExpression();
+        if (!aliases(operand)) {
+            return false;
+        }
+        var operandType = operand instanceof IdentifierExpression identifier && isLocal(identifier.getSlot())
+                ? slotTypes[identifier.getSlot().getIndex()]
+                : null;
+        return operandType == null || operandType.equals(cast.getType());
+    }
+
+    private boolean isLocal(Slot slot) {
+        return slot.isResolved() && !slot.isGlobal();
+    }
+
+    private void require(TypeDeclaration expected) {
+        if (!expected.equals(type)) {
+            supported = false;
+        }
+    }
+
+    private int local(int slot, TypeDeclaration localType) {
+        return locals.computeIfAbsent(slot * ValueType.values().length + localType.getValueType().ordinal(), key -> nextLocal++);
+    }
+
+    private void store(int slot, TypeDeclaration localType) {
+        if (method != null) {
+            method.visitVarInsn(FLOAT_TYPE.equals(localType) ? FSTORE : ISTORE, local(slot, localType));
+        }
+    }
+
+    private void loadNode(Object node, Class<?> nodeType) {
+        if (method == null) {
+            return;
+        }
+        method.visitFieldInsn(GETSTATIC, className, NODES_FIELD, "[Ljava/lang/Object;");
+        method.visitLdcInsn(nodes.size());
+        method.visitInsn(AALOAD);
+        method.visitTypeInsn(CHECKCAST, Type.getInternalName(nodeType));
+        nodes.add(node);
+    }
+
+    private void throwNew(Class<?> exception) {
+        var name = Type.getInternalName(exception);
+        method.visitTypeInsn(NEW, name);
+        method.visitInsn(DUP);
+        method.visitMethodInsn(INVOKESPECIAL, name, "<init>", "()V", false);
+        method.visitInsn(ATHROW);
+    }
+
+    private void jump(int opcode, Label label) {
+        if (method != null) {
+            method.visitJumpInsn(opcode, label);
+        }
+    }
+
+    private void label(Label label) {
+        if (method != null) {
+            method.visitLabel(label);
+        }
+    }
+
+    private <T extends Node> void callAccept(T node) {
+        if (supported) {
+            node.accept(this);
+        }
+    }
+}
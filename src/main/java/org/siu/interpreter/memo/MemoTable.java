@@ -0,0 +1,76 @@
+package org.siu.interpreter.memo;
+
+import lombok.Getter;
+import org.siu.interpreter.state.Context;
+import org.siu.interpreter.state.FrameLayout;
+import org.siu.interpreter.state.Value;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of a pure function keyed by its arguments, evicting the least recently used result when full.
+ * Each result remembers how many frames its computation needed, so that a cached call can still
+ * exceed the call stack limit exactly where the computed call would.
+ */
+public class MemoTable {
+    private final Map<List<Value>, Entry> entries;
+    @Getter
+    private long hits;
+    @Getter
+    private long misses;
+
+    public record Entry(Value value, int height) {
+    }
+
+    public MemoTable(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Value>, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /*
+     * arguments are copied, so the key is not changed by later assignments to the passed variables
+     */
+    public static List<Value> key(Value[] arguments) {
+        var copies = new Value[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            copies[i] = arguments[i].copy();
+        }
+        return List.of(copies);
+    }
+
+    public static List<Value> key(Context context, FrameLayout frame) {
+        var parameters = frame.getParameters();
+        var arguments = new Value[parameters.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = context.getVariable(parameters.get(i).getIndex()).getValue();
+        }
+        return key(arguments);
+    }
+
+    /**
+     * Returns the result cached for the arguments if its computation fits in the given number of frames, otherwise null.
+     */
+    public Entry lookup(List<Value> key, int availableFrames) {
+        var entry = entries.get(key);
+        if (entry == null || entry.height() > availableFrames) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry;
+    }
+
+    public void store(List<Value> key, Value value, int height) {
+        entries.put(key, new Entry(value.copy(), height));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
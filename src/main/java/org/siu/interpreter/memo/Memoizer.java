@@ -0,0 +1,66 @@
+package org.siu.interpreter.memo;
+
+import lombok.Getter;
+import org.siu.ast.Program;
+import org.siu.ast.expression.FunctionCallExpression;
+import org.siu.ast.function.FunctionDefinitionStatement;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Memo tables of the pure functions of a program, found by {@link PurityAnalysis}.
+ * Capacity 0 disables memoization.
+ * <p>
+ * Purity depends only on the program, so it is analyzed once and shared by all its runs. The tables belong to a single
+ * run: they are not synchronized, and runs of a compiled program may happen on several threads at once.
+ */
+public class Memoizer {
+    private final Program program;
+    private final Map<String, Boolean> freshResults;
+    @Getter
+    private final Map<String, MemoTable> tables = new HashMap<>();
+
+    public Memoizer(Program program, int capacity) {
+        this.program = program;
+        this.freshResults = capacity > 0 ? PurityAnalysis.of(program) : Map.of();
+        for (var name : freshResults.keySet()) {
+            tables.put(name, new MemoTable(capacity));
+        }
+    }
+
+    /**
+     * Returns the memo table to use for the call, or null when its result cannot be memoized.
+     */
+    public MemoTable table(FunctionCallExpression call, FunctionDefinitionStatement callee) {
+        return isMemoized(program, call, callee) ? table(callee) : null;
+    }
+
+    /**
+     * Returns the memo table of a function already checked with {@link #isMemoized}, null when memoization is disabled.
+     */
+    public MemoTable table(FunctionDefinitionStatement callee) {
+        return tables.get(callee.getName());
+    }
+
+    /**
+     * Whether results of the call may be memoized, which depends only on the program.
+     * A function may return one of its arguments, which the caller then shares with the passed variable;
+     * results of such functions are memoized only when all arguments are newly created values.
+     */
+    public static boolean isMemoized(Program program, FunctionCallExpression call, FunctionDefinitionStatement callee) {
+        if (program.getFunctionDefinitions().get(callee.getName()) != callee) {
+            return false;
+        }
+        var freshResult = PurityAnalysis.of(program).get(callee.getName());
+        if (freshResult == null || freshResult) {
+            return freshResult != null;
+        }
+        for (var argument : call.getArguments()) {
+            if (!PurityAnalysis.createsValue(argument)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
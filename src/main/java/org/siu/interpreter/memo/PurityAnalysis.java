@@ -0,0 +1,316 @@
+package org.siu.interpreter.memo;
+
+import org.siu.ast.BlockStatement;
+import org.siu.ast.Node;
+import org.siu.ast.Program;
+import org.siu.ast.expression.*;
+import org.siu.ast.expression.arithmetic.BinaryArithmeticExpression;
+import org.siu.ast.expression.arithmetic.NegateArithmeticExpression;
+import org.siu.ast.expression.logical.LogicalExpression;
+import org.siu.ast.expression.logical.NegateLogicalExpression;
+import org.siu.ast.expression.relation.EqualityRelationalExpression;
+import org.siu.ast.expression.relation.RelationExpression;
+import org.siu.ast.function.FunctionDefinitionStatement;
+import org.siu.ast.statement.*;
+import org.siu.ast.type.*;
+import org.siu.interpreter.Visitor;
+import org.siu.interpreter.builtin.PrintFunction;
+import org.siu.interpreter.error.UnsupportedOperationException;
+import org.siu.interpreter.state.Slot;
+
+import java.util.*;
+
+/**
+ * Finds functions whose result depends only on their arguments, so that it can be memoized.
+ * A function is pure when its parameters and return type are primitive, it does not use global variables,
+ * calls only pure functions and does not assign to a variable which may share its value with an argument.
+ * Runs on a program resolved by {@link org.siu.interpreter.VariableResolver}.
+ */
+public class PurityAnalysis implements Visitor {
+    private final Program program;
+    private final Set<String> pure = new HashSet<>();
+
+    private boolean impure;
+    private boolean freshResult;
+    private Set<Integer> sharedSlots;
+    private Set<Integer> assignedSlots;
+
+    public PurityAnalysis(Program program) {
+        this.program = program;
+    }
+
+    /**
+     * Returns the result of {@link #analyze()} for the program, which is analyzed only on its first run.
+     */
+    public static Map<String, Boolean> of(Program program) {
+        var pureFunctions = program.getPureFunctions();
+        if (pureFunctions == null) {
+            pureFunctions = Map.copyOf(new PurityAnalysis(program).analyze());
+            program.setPureFunctions(pureFunctions);
+        }
+        return pureFunctions;
+    }
+
+    /**
+     * Returns pure functions mapped to true when every value they return is newly created,
+     * false when the result may be the value of an argument.
+     */
+    public Map<String, Boolean> analyze() {
+        for (var function : program.getFunctionDefinitions().values()) {
+            if (hasPrimitiveSignature(function)) {
+                pure.add(function.getName());
+            }
+        }
+
+        // optimistically assume all candidates pure and drop those calling impure functions until nothing changes
+        var fresh = new HashMap<String, Boolean>();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (var name : List.copyOf(pure)) {
+                if (!analyze(program.getFunctionDefinitions().get(name))) {
+                    pure.remove(name);
+                    changed = true;
+                }
+                fresh.put(name, freshResult);
+            }
+        }
+        fresh.keySet().retainAll(pure);
+        return fresh;
+    }
+
+    /*
+     * value of an expression which is newly created by its evaluation, so it is not shared with any variable
+     */
+    public static boolean createsValue(Expression expression) {
+        return expression instanceof IntegerExpression || expression instanceof FloatExpression
+                || expression instanceof StringExpression || expression instanceof BooleanExpression
+                || expression instanceof BinaryArithmeticExpression || expression instanceof NegateArithmeticExpression
+                || expression instanceof RelationExpression || expression instanceof EqualityRelationalExpression
+                || expression instanceof LogicalExpression || expression instanceof NegateLogicalExpression
+                || expression instanceof CopiedValueExpression;
+    }
+
+    private static boolean isPrimitive(TypeDeclaration type) {
+        return type.getValueType() != ValueType.CUSTOM;
+    }
+
+    private static boolean hasPrimitiveSignature(FunctionDefinitionStatement function) {
+        if (function.getReturnType().isEmpty() || !isPrimitive(function.getReturnType().get())) {
+            return false;
+        }
+        for (int i = 0; i < function.getParameters().size(); i++) {
+            if (!isPrimitive(function.getParameters().get(i).getType()) || function.getFrame().getParameters().get(i).isRedeclared()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean analyze(FunctionDefinitionStatement function) {
+        impure = false;
+        freshResult = true;
+        sharedSlots = new HashSet<>();
+        assignedSlots = new HashSet<>();
+        for (var slot : function.getFrame().getParameters()) {
+            sharedSlots.add(slot.getIndex());
+        }
+        callAccept(function.getBlock());
+
+        // slots are reused by sibling scopes, so a slot counts as shared when any variable stored in it is
+        assignedSlots.retainAll(sharedSlots);
+        return !impure && assignedSlots.isEmpty();
+    }
+
+    private void use(Slot slot) {
+        if (slot.isGlobal() || !slot.isResolved()) {
+            impure = true;
+        }
+    }
+
+    @Override
+    public void visit(Program program) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void visit(WhileStatement statement) {
+        callAccept(statement.getCondition());
+        callAccept(statement.getBlock());
+    }
+
+    @Override
+    public void visit(IfStatement statement) {
+        statement.getConditions().forEach(this::callAccept);
+        statement.getIfInstructions().forEach(this::callAccept);
+        statement.getElseInstructions().ifPresent(this::callAccept);
+    }
+
+    @Override
+    public void visit(ReturnStatement statement) {
+        if (statement.getExpression() != null) {
+            callAccept(statement.getExpression());
+            freshResult &= createsValue(statement.getExpression());
+        }
+    }
+
+    @Override
+    public void visit(DeclarationStatement statement) {
+        use(statement.getSlot());
+        if (!isPrimitive(statement.getParameter().getType()) || !createsValue(statement.getExpression())) {
+            sharedSlots.add(statement.getSlot().getIndex());
+        }
+        callAccept(statement.getExpression());
+    }
+
+    @Override
+    public void visit(BlockStatement blockStatement) {
+        blockStatement.getStatements().forEach(this::callAccept);
+    }
+
+    @Override
+    public void visit(AssignmentStatement statement) {
+        use(statement.getSlot());
+        assignedSlots.add(statement.getSlot().getIndex());
+        callAccept(statement.getValue());
+    }
+
+    @Override
+    public void visit(VariantTypeDefinitionStatement statement) {
+    }
+
+    @Override
+    public void visit(StructTypeDefinitionStatement statement) {
+    }
+
+    @Override
+    public void visit(ConstStatement statement) {
+        callAccept(statement.getStatement());
+    }
+
+    @Override
+    public void visit(FunctionDefinitionStatement statement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void visit(StructDeclarationExpression expression) {
+        expression.getArguments().forEach(this::callAccept);
+    }
+
+    @Override
+    public void visit(StructMemberAssignmentStatement statement) {
+        impure = true;
+    }
+
+    @Override
+    public void visit(VariantAssignmentStatement statement) {
+        impure = true;
+    }
+
+    @Override
+    public void visit(MatchStatement statement) {
+        callAccept(statement.getExpression());
+        statement.getStatements().forEach(this::callAccept);
+    }
+
+    @Override
+    public void visit(MatchCaseStatement statement) {
+        use(statement.getSlot());
+        sharedSlots.add(statement.getSlot().getIndex());
+        callAccept(statement.getBlock());
+    }
+
+    @Override
+    public void visit(IntegerExpression expression) {
+    }
+
+    @Override
+    public void visit(FloatExpression expression) {
+    }
+
+    @Override
+    public void visit(StringExpression expression) {
+    }
+
+    @Override
+    public void visit(BooleanExpression expression) {
+    }
+
+    @Override
+    public void visit(VariantDeclarationExpression expression) {
+        callAccept(expression.getExpression());
+    }
+
+    @Override
+    public void visit(StructMemberExpression expression) {
+        use(expression.getSlot());
+    }
+
+    @Override
+    public void visit(IdentifierExpression expression) {
+        use(expression.getSlot());
+    }
+
+    @Override
+    public void visit(FunctionCallExpression expression) {
+        var callee = program.getFunctionDefinitions().get(expression.getIdentifier());
+        if (callee == null || !pure.contains(callee.getName())) {
+            impure = true;
+        }
+        expression.getArguments().forEach(this::callAccept);
+    }
+
+    @Override
+    public void visit(RelationExpression expression) {
+        callAccept(expression.getLeft());
+        callAccept(expression.getRight());
+    }
+
+    @Override
+    public void visit(EqualityRelationalExpression expression) {
+        callAccept(expression.getLeft());
+        callAccept(expression.getRight());
+    }
+
+    @Override
+    public void visit(BinaryArithmeticExpression expression) {
+        callAccept(expression.getLeft());
+        callAccept(expression.getRight());
+    }
+
+    @Override
+    public void visit(NegateArithmeticExpression expression) {
+        callAccept(expression.getExpression());
+    }
+
+    @Override
+    public void visit(LogicalExpression expression) {
+        callAccept(expression.getLeft());
+        callAccept(expression.getRight());
+    }
+
+    @Override
+    public void visit(NegateLogicalExpression expression) {
+        callAccept(expression.getExpression());
+    }
+
+    @Override
+    public void visit(CastedFactorExpression expression) {
+        callAccept(expression.getExpression());
+    }
+
+    @Override
+    public void visit(CopiedValueExpression expression) {
+        callAccept(expression.getExpression());
+    }
+
+    @Override
+    public void visit(PrintFunction expression) {
+        impure = true;
+    }
+
+    private <T extends Node> void callAccept(T node) {
+        node.accept(this);
+    }
+}
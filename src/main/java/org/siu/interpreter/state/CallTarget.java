@@ -0,0 +1,21 @@
+package org.siu.interpreter.state;
+
+import org.siu.ast.function.FunctionDefinitionStatement;
+
+import java.util.Map;
+
+/**
+ * Inline cache of a function call site: the called function, whose arity was checked against the call,
+ * the function definitions it was resolved with and whether its results may be memoized.
+ * <p>
+ * Definitions are compared by identity. Every run of a program resolves calls against the function map of the program,
+ * so runs, also concurrent ones, share the cached targets. An interpreter that replaces a function resolves them
+ * against its own copy of the definitions from then on.
+ */
+@lombok.Value
+public class CallTarget {
+    FunctionDefinitionStatement definition;
+    FrameLayout frame;
+    Map<String, FunctionDefinitionStatement> definitions;
+    boolean memoized;
+}
@@ -1,50 +1,122 @@
 package org.siu.interpreter.state;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.siu.ast.type.ValueType;
+import org.siu.interpreter.error.InvalidTypeAssignmentException;
+import org.siu.interpreter.error.NoVariableException;
+import org.siu.interpreter.error.TypesDoNotMatchException;
+import org.siu.interpreter.state.value.StringValue;
+import org.siu.interpreter.state.value.StructValue;
+import org.siu.interpreter.state.value.VariantValue;
 import org.siu.token.Position;
 
-import java.util.*;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
 
-@RequiredArgsConstructor
 public class Context {
     @Getter
     private final String functionName;
-    @Getter
-    private final Position position;
-    private final Deque<Scope> scopes = new ArrayDeque<>(List.of(new Scope()));
+    private final long position;
+    private Variable[] variables;
+
+    public Context(String functionName, long position, int size) {
+        this.functionName = functionName;
+        this.position = position;
+        this.variables = new Variable[size];
+    }
 
-    public void incrementScope() {
-        scopes.add(new Scope());
+    public Position getPosition() {
+        return Position.unpack(position);
     }
 
-    public void decrementScope() {
-        scopes.removeLast();
+    public void reset(int size) {
+        variables = new Variable[size];
     }
 
-    public Optional<Variable> findVariable(String identifier) {
-        for (Iterator<Scope> it = scopes.descendingIterator(); it.hasNext(); ) {
-            var scope = it.next();
-            var variable = scope.findVariable(identifier);
-            if (variable.isPresent()) {
-                return variable;
+    public Variable getVariable(int index) {
+        var variable = variables[index];
+        if (variable == null) {
+            throw new NoVariableException();
+        }
+        return variable;
+    }
+
+    public void addVariable(int index, Variable variable) {
+        variables[index] = variable;
+    }
+
+    public void updateVariable(int index, Value value) {
+        var previousValue = getVariable(index);
+        if (!Objects.equals(previousValue.getType(), value.getType())) {
+            throw new TypesDoNotMatchException(value.getType(), previousValue.getType());
+        }
+
+        update(previousValue.getValue(), value);
+    }
+
+    private final static Map<ValueType, BiConsumer<Value, Value>> MAPPERS = Map.of(
+            ValueType.INT, (previousValue, newValue) -> previousValue.setInteger(newValue.getInteger()),
+            ValueType.FLOAT, (previousValue, newValue) -> previousValue.setFloatVal(newValue.getFloatVal()),
+            ValueType.STRING, (previousValue, newValue) -> ((StringValue) previousValue).set((StringValue) newValue),
+            ValueType.BOOL, (previousValue, newValue) -> previousValue.setBool(newValue.isBool())
+    );
+
+    private static void update(Value previousValue, Value newValue) {
+        var updateFunction = MAPPERS.get(previousValue.getType().getValueType());
+        if (updateFunction != null) {
+            updateFunction.accept(previousValue, newValue);
+        } else {
+            if (!newValue.isStruct() && !previousValue.isVariant()) {
+                throw new InvalidTypeAssignmentException(newValue.getType().toString());
             }
+
+            if(!StringUtils.equals(previousValue.getType().getCustomType(), newValue.getType().getCustomType())) {
+                throw new TypesDoNotMatchException(newValue.getType(), previousValue.getType());
+            }
+
+            updateStruct(previousValue, newValue);
+            updateVariant(previousValue, newValue);
         }
-        return Optional.empty();
     }
 
-    public void addVariable(Variable variable) {
-        var scope = scopes.getLast();
-        scope.addVariable(variable);
+    private static void updateVariant(Value previousValue, Value newValue) {
+        if(!newValue.isVariant()) return;
+
+        var previousVariantValue = (VariantValue) previousValue;
+        var newVariantValue = (VariantValue) newValue;
+
+        var ordinal = newVariantValue.getOrdinal();
+        if (previousVariantValue.getDescriptor() != newVariantValue.getDescriptor()) {
+            ordinal = previousVariantValue.getDescriptor().ordinal(newVariantValue.getCurrentField());
+            if (ordinal < 0) {
+                throw new TypesDoNotMatchException(previousValue.getType(), newValue.getType());
+            }
+        }
+        previousVariantValue.setOrdinal(ordinal);
+        previousVariantValue.setValue(newVariantValue.getValue());
     }
 
-    public boolean updateVariable(String identifier, Value value) {
-        for(Iterator<Scope> it = scopes.descendingIterator(); it.hasNext(); ) {
-            var scope = it.next();
-            if (scope.updateVariable(identifier, value)) {
-                return true;
+    private static void updateStruct(Value previousValue, Value newValue) {
+        if(!newValue.isStruct()) return;
+
+        var previousStructValue = (StructValue) previousValue;
+        var newStructValue = (StructValue) newValue;
+
+        if (previousStructValue.getLayout() == newStructValue.getLayout()) {
+            for (int i = 0; i < previousStructValue.size(); i++) {
+                previousStructValue.put(i, newStructValue.get(i));
+            }
+            return;
+        }
+
+        for (var member : previousStructValue.getLayout().getMembers()) {
+            var offset = newStructValue.getLayout().offset(member.getName());
+            if (offset < 0) {
+                throw new TypesDoNotMatchException(previousValue.getType(), newValue.getType());
             }
+            previousStructValue.put(previousStructValue.offset(member.getName()), newStructValue.get(offset));
         }
-        return false;
     }
 }
@@ -0,0 +1,10 @@
+package org.siu.interpreter.state;
+
+/**
+ * Inline cache of a struct member access: the layout of the struct it was last executed with and the offset of the member in it.
+ */
+@lombok.Value
+public class FieldOffset {
+    StructLayout layout;
+    int offset;
+}
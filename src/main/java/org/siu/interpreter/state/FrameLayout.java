@@ -0,0 +1,12 @@
+package org.siu.interpreter.state;
+
+import java.util.List;
+
+/**
+ * Number of slots needed by a function frame and slots of its parameters.
+ */
+@lombok.Value
+public class FrameLayout {
+    int size;
+    List<Slot> parameters;
+}
@@ -0,0 +1,44 @@
+package org.siu.interpreter.state;
+
+import lombok.Getter;
+import org.siu.ast.expression.MatchCaseStatement;
+import org.siu.ast.statement.MatchStatement;
+import org.siu.interpreter.state.value.VariantValue;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Jump table of a match statement for one variant type: index of the first case matching each field ordinal, -1 for none.
+ */
+public class MatchTable {
+    public static final int NO_CASE = -1;
+
+    @Getter
+    private final VariantDescriptor descriptor;
+    private final int[] cases;
+
+    public MatchTable(VariantDescriptor descriptor, List<MatchCaseStatement> statements) {
+        this.descriptor = descriptor;
+        this.cases = new int[descriptor.getFields().size()];
+        Arrays.fill(cases, NO_CASE);
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            var ordinal = descriptor.ordinal(statements.get(i).getFieldName());
+            if (ordinal >= 0) {
+                cases[ordinal] = i;
+            }
+        }
+    }
+
+    /*
+     * case of the statement selected by the variant, the table is built on the first match and again for another variant type
+     */
+    public static int select(MatchStatement statement, VariantValue variant) {
+        var table = statement.getTable();
+        if (table == null || table.descriptor != variant.getDescriptor()) {
+            table = new MatchTable(variant.getDescriptor(), statement.getStatements());
+            statement.setTable(table);
+        }
+        return table.cases[variant.getOrdinal()];
+    }
+}
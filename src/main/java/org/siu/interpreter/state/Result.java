@@ -1,36 +1,36 @@
 package org.siu.interpreter.state;
 
-
-import lombok.Builder;
-import lombok.experimental.FieldDefaults;
-
-@Builder(toBuilder = true)
-@lombok.Value
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Register holding the result of the last evaluated node.
+ * A single instance is reused by the interpreter, so evaluating a node does not allocate a new result.
+ * returned - signals that a return statement was executed and enclosing blocks should stop
+ */
+@Getter
 public class Result {
-    Value value;
-
-    @Builder.Default
-    boolean present = true;
-
-    @Builder.Default
-    boolean returned = false;
-
-    @Builder.Default
-    boolean copy = false;
-
-    @Builder.Default
-    boolean constant = false;
-
-    public static Result ok(Value value) {
-        return Result.builder()
-                .value(value)
-                .build();
+    private Value value;
+    private boolean present;
+    private boolean constant;
+    @Setter
+    private boolean returned;
+
+    public void ok(Value value) {
+        ok(value, false);
     }
 
-    public static Result empty() {
-        return Result.builder()
-                .present(false)
-                .build();
+    public void ok(Value value, boolean constant) {
+        this.value = value;
+        this.present = true;
+        this.constant = constant;
+        this.returned = false;
     }
 
+    public void empty() {
+        this.value = null;
+        this.present = false;
+        this.constant = false;
+        this.returned = false;
+    }
 }
@@ -0,0 +1,38 @@
+package org.siu.interpreter.state;
+
+/**
+ * Statically resolved location of a variable.
+ * depth - LOCAL for the frame of the currently executed function, GLOBAL for the frame of global declarations
+ * index - position of the variable in the frame
+ */
+@lombok.Value
+public class Slot {
+    public static final int LOCAL = 0;
+    public static final int GLOBAL = 1;
+    public static final Slot UNRESOLVED = new Slot(LOCAL, -1, false);
+
+    int depth;
+    int index;
+    /*
+     * variable with the same name is already declared in the same scope
+     */
+    boolean redeclared;
+
+    public Slot(int depth, int index) {
+        this(depth, index, false);
+    }
+
+    public Slot(int depth, int index, boolean redeclared) {
+        this.depth = depth;
+        this.index = index;
+        this.redeclared = redeclared;
+    }
+
+    public boolean isResolved() {
+        return index >= 0;
+    }
+
+    public boolean isGlobal() {
+        return depth == GLOBAL;
+    }
+}
@@ -0,0 +1,44 @@
+package org.siu.interpreter.state;
+
+import org.siu.interpreter.state.value.FloatValue;
+import org.siu.interpreter.state.value.IntValue;
+import org.siu.interpreter.state.value.StringValue;
+
+/**
+ * Operand type an operator node has specialized itself for after its first execution.
+ * UNINITIALIZED - the node was not executed yet
+ * GENERIC - the node has seen operands of different types and dispatches on every execution
+ */
+public enum Specialization {
+    UNINITIALIZED,
+    INT,
+    FLOAT,
+    STRING,
+    GENERIC;
+
+    /**
+     * Guard of the specialized node, true when the operand has the type the node is specialized for.
+     */
+    public boolean accepts(Value value) {
+        return switch (this) {
+            case INT -> value instanceof IntValue;
+            case FLOAT -> value instanceof FloatValue;
+            case STRING -> value instanceof StringValue;
+            default -> false;
+        };
+    }
+
+    /**
+     * Returns the specialization for the type of the operand or UNINITIALIZED when operators do not support it.
+     */
+    public static Specialization of(Value value) {
+        if (value instanceof IntValue) {
+            return INT;
+        } else if (value instanceof FloatValue) {
+            return FLOAT;
+        } else if (value instanceof StringValue) {
+            return STRING;
+        }
+        return UNINITIALIZED;
+    }
+}
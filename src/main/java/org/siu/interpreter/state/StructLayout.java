@@ -0,0 +1,49 @@
+package org.siu.interpreter.state;
+
+import lombok.Getter;
+import org.siu.ast.Parameter;
+import org.siu.ast.statement.CustomTypeStatement;
+import org.siu.ast.statement.StructTypeDefinitionStatement;
+import org.siu.ast.type.TypeDeclaration;
+import org.siu.ast.type.ValueType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offsets of the members of a custom type in the member array of its struct values, shared by all values of the type.
+ */
+public class StructLayout {
+    @Getter
+    private final TypeDeclaration type;
+    @Getter
+    private final List<Parameter> members;
+    private final Map<String, Integer> offsets = new HashMap<>();
+
+    public StructLayout(CustomTypeStatement statement) {
+        this.type = new TypeDeclaration(ValueType.CUSTOM, statement.getName());
+        this.members = List.copyOf(statement.getParameters());
+        for (int i = 0; i < members.size(); i++) {
+            offsets.put(members.get(i).getName(), i);
+        }
+    }
+
+    /*
+     * layouts of struct types are computed once per definition, other types get structs only by mistake
+     */
+    public static StructLayout of(CustomTypeStatement statement) {
+        return statement instanceof StructTypeDefinitionStatement struct ? struct.getLayout() : new StructLayout(statement);
+    }
+
+    /*
+     * returns -1 when the type has no such member
+     */
+    public int offset(String member) {
+        return offsets.getOrDefault(member, -1);
+    }
+
+    public int size() {
+        return members.size();
+    }
+}
@@ -1,6 +1,7 @@
 package org.siu.interpreter.state;
 
 import lombok.Getter;
+import org.siu.ast.expression.StructMemberExpression;
 import org.siu.ast.type.TypeDeclaration;
 import org.siu.interpreter.error.UnexpectedTypeException;
 
@@ -48,6 +49,14 @@ public interface Value {
         throw new UnexpectedTypeException();
     }
 
+    default Value get(StructMemberExpression member) {
+        return get(member.getFieldName());
+    }
+
+    default void put(StructMemberExpression member, Value value) {
+        put(member.getFieldName(), value);
+    }
+
     // variant
     default Value get() {
         throw new UnexpectedTypeException();
@@ -61,6 +70,17 @@ public interface Value {
         throw new UnexpectedTypeException();
     }
 
+    /*
+     * immutable values are shared by literals and value caches, variables and members get mutable copies of them
+     */
+    default boolean isImmutable() {
+        return false;
+    }
+
+    default Value toMutable() {
+        return isImmutable() ? copy() : this;
+    }
+
     default boolean isStruct() { return false; }
     default boolean isVariant() { return false; }
 }
@@ -21,7 +21,7 @@ public class Variable {
     public Variable(TypeDeclaration type, String identifier, Value value) {
         this.type = type;
         this.identifier = identifier;
-        this.value = value;
+        this.value = value.toMutable();
         this.constant = false;
 
         if (!Objects.equals(type, value.getType())) {
@@ -32,7 +32,7 @@ public class Variable {
     public Variable(TypeDeclaration type, String identifier, Value value, boolean constant, boolean isVariant) {
         this.type = type;
         this.identifier = identifier;
-        this.value = value;
+        this.value = value.toMutable();
         this.constant = constant;
 
         if(isVariant) return;
@@ -45,7 +45,7 @@ public class Variable {
     public Variable(TypeDeclaration type, String identifier, Value value, boolean constant) {
         this.type = type;
         this.identifier = identifier;
-        this.value = value;
+        this.value = value.toMutable();
         this.constant = constant;
 
         if (!Objects.equals(type, value.getType())) {
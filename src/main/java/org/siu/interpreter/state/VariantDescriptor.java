@@ -0,0 +1,50 @@
+package org.siu.interpreter.state;
+
+import lombok.Getter;
+import org.siu.ast.Parameter;
+import org.siu.ast.statement.CustomTypeStatement;
+import org.siu.ast.statement.VariantTypeDefinitionStatement;
+import org.siu.ast.type.TypeDeclaration;
+import org.siu.ast.type.ValueType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fields of a variant type numbered by ordinals, shared by all values of the type.
+ * A field name declared twice refers to its first declaration.
+ */
+public class VariantDescriptor {
+    @Getter
+    private final TypeDeclaration type;
+    @Getter
+    private final List<Parameter> fields;
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    public VariantDescriptor(CustomTypeStatement statement) {
+        this.type = new TypeDeclaration(ValueType.CUSTOM, statement.getName());
+        this.fields = List.copyOf(statement.getParameters());
+        for (int i = 0; i < fields.size(); i++) {
+            ordinals.putIfAbsent(fields.get(i).getName(), i);
+        }
+    }
+
+    /*
+     * descriptors of variant types are computed once per definition, other types get variants only by mistake
+     */
+    public static VariantDescriptor of(CustomTypeStatement statement) {
+        return statement instanceof VariantTypeDefinitionStatement variant ? variant.getDescriptor() : new VariantDescriptor(statement);
+    }
+
+    /*
+     * returns -1 when the type has no such field
+     */
+    public int ordinal(String field) {
+        return ordinals.getOrDefault(field, -1);
+    }
+
+    public Parameter field(int ordinal) {
+        return fields.get(ordinal);
+    }
+}
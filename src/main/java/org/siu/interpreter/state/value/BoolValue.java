@@ -2,18 +2,45 @@ package org.siu.interpreter.state.value;
 
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.experimental.FieldDefaults;
 import org.siu.ast.type.TypeDeclaration;
 import org.siu.ast.type.ValueType;
+import org.siu.interpreter.error.ImmutableValueException;
 import org.siu.interpreter.state.Value;
 
 @Data
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class BoolValue implements Value {
+    private static final TypeDeclaration TYPE = new TypeDeclaration(ValueType.BOOL);
+    public static final BoolValue TRUE = new BoolValue(true, true);
+    public static final BoolValue FALSE = new BoolValue(false, true);
+
     boolean bool;
-    private final TypeDeclaration type = new TypeDeclaration(ValueType.BOOL);
+    private final TypeDeclaration type = TYPE;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    final boolean immutable;
 
     public BoolValue(boolean bool) {
+        this(bool, false);
+    }
+
+    private BoolValue(boolean bool, boolean immutable) {
+        this.bool = bool;
+        this.immutable = immutable;
+    }
+
+    public static BoolValue of(boolean bool) {
+        return bool ? TRUE : FALSE;
+    }
+
+    @Override
+    public void setBool(boolean bool) {
+        if (immutable) {
+            throw new ImmutableValueException();
+        }
         this.bool = bool;
     }
 
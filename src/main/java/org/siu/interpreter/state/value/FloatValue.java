@@ -2,24 +2,44 @@ package org.siu.interpreter.state.value;
 
 import lombok.AccessLevel;
 import lombok.Data;
-import lombok.Getter;
-import lombok.Setter;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.experimental.FieldDefaults;
 import org.siu.ast.type.TypeDeclaration;
 import org.siu.ast.type.ValueType;
+import org.siu.interpreter.error.ImmutableValueException;
 import org.siu.interpreter.state.Value;
 
-import java.io.Serial;
-
 
 @Data
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class FloatValue implements Value {
-    @Setter
+    private static final TypeDeclaration TYPE = new TypeDeclaration(ValueType.FLOAT);
+
     float floatVal;
-    private final TypeDeclaration type = new TypeDeclaration(ValueType.FLOAT);
+    private final TypeDeclaration type = TYPE;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    final boolean immutable;
 
     public FloatValue(float floatVal) {
+        this(floatVal, false);
+    }
+
+    private FloatValue(float floatVal, boolean immutable) {
+        this.floatVal = floatVal;
+        this.immutable = immutable;
+    }
+
+    public static FloatValue of(float floatVal) {
+        return new FloatValue(floatVal, true);
+    }
+
+    @Override
+    public void setFloatVal(float floatVal) {
+        if (immutable) {
+            throw new ImmutableValueException();
+        }
         this.floatVal = floatVal;
     }
 
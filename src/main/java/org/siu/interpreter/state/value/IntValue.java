@@ -2,20 +2,58 @@ package org.siu.interpreter.state.value;
 
 import lombok.AccessLevel;
 import lombok.Data;
-import lombok.Setter;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.experimental.FieldDefaults;
 import org.siu.ast.type.TypeDeclaration;
 import org.siu.ast.type.ValueType;
+import org.siu.interpreter.error.ImmutableValueException;
 import org.siu.interpreter.state.Value;
 
 @Data
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class IntValue implements Value {
-    @Setter
+    private static final TypeDeclaration TYPE = new TypeDeclaration(ValueType.INT);
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+    private static final IntValue[] CACHE = new IntValue[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new IntValue(CACHE_LOW + i, true);
+        }
+    }
+
     int integer;
-    private final TypeDeclaration type = new TypeDeclaration(ValueType.INT);
+    private final TypeDeclaration type = TYPE;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    final boolean immutable;
 
     public IntValue(int integer) {
+        this(integer, false);
+    }
+
+    private IntValue(int integer, boolean immutable) {
+        this.integer = integer;
+        this.immutable = immutable;
+    }
+
+    /*
+     * immutable value, shared for small integers
+     */
+    public static IntValue of(int integer) {
+        if (integer >= CACHE_LOW && integer <= CACHE_HIGH) {
+            return CACHE[integer - CACHE_LOW];
+        }
+        return new IntValue(integer, true);
+    }
+
+    @Override
+    public void setInteger(int integer) {
+        if (immutable) {
+            throw new ImmutableValueException();
+        }
         this.integer = integer;
     }
 
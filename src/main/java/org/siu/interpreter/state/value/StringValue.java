@@ -1,24 +1,128 @@
 package org.siu.interpreter.state.value;
 
 import lombok.AccessLevel;
-import lombok.Data;
+import lombok.Getter;
 import lombok.experimental.FieldDefaults;
 import org.siu.ast.type.TypeDeclaration;
 import org.siu.ast.type.ValueType;
+import org.siu.interpreter.error.ImmutableValueException;
 import org.siu.interpreter.state.Value;
 
-@Data
+/**
+ * String value which may keep its characters as a prefix of a builder shared with the values it was concatenated from.
+ * Characters already in a builder are never changed, so concatenating to a value ending at the end of its builder
+ * appends in place and building a string by repeated concatenation takes linear time.
+ * The string is flattened only when it is read, e.g. printed, compared or cast.
+ */
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class StringValue implements Value {
+    /*
+     * shorter concatenations produce plain strings, as a builder would be flattened anyway
+     */
+    private static final int BUILDER_THRESHOLD = 64;
+    private static final TypeDeclaration TYPE = new TypeDeclaration(ValueType.STRING);
+
+    StringBuilder builder;
+    int length;
     String string;
-    final TypeDeclaration type = new TypeDeclaration(ValueType.STRING);
+    @Getter
+    final TypeDeclaration type = TYPE;
+    @Getter
+    final boolean immutable;
 
     public StringValue(String string) {
+        this(null, string.length(), string);
+    }
+
+    private StringValue(String string, boolean immutable) {
         this.string = string;
+        this.length = string.length();
+        this.immutable = immutable;
+    }
+
+    private StringValue(StringBuilder builder, int length, String string) {
+        this.builder = builder;
+        this.length = length;
+        this.string = string;
+        this.immutable = false;
+    }
+
+    public static StringValue of(String string) {
+        return new StringValue(string, true);
+    }
+
+    @Override
+    public String getString() {
+        if (string == null) {
+            string = builder.substring(0, length);
+        }
+        return string;
+    }
+
+    @Override
+    public void setString(String string) {
+        checkMutable();
+        this.string = string;
+        this.length = string.length();
+        this.builder = null;
+    }
+
+    /*
+     * assignment takes over the characters of the assigned value, so it stays at the end of a shared builder
+     */
+    public void set(StringValue value) {
+        checkMutable();
+        this.builder = value.builder;
+        this.length = value.length;
+        this.string = value.string;
+    }
+
+    public StringValue concat(StringValue other) {
+        var length = this.length + other.length;
+        if (length < BUILDER_THRESHOLD) {
+            return new StringValue(getString() + other.getString());
+        }
+
+        var extended = builder;
+        if (extended == null || extended.length() != this.length) {
+            extended = new StringBuilder(2 * length);
+            appendTo(extended);
+        }
+        other.appendTo(extended);
+        return new StringValue(extended, length, null);
+    }
+
+    private void checkMutable() {
+        if (immutable) {
+            throw new ImmutableValueException();
+        }
+    }
+
+    private void appendTo(StringBuilder target) {
+        if (string != null || builder == target) {
+            target.append(getString());
+        } else {
+            target.append(builder, 0, length);
+        }
     }
 
     @Override
     public StringValue copy() {
-        return new StringValue(string);
+        return new StringValue(builder, length, string);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof StringValue value && getString().equals(value.getString());
+    }
+
+    @Override
+    public int hashCode() {
+        return getString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "StringValue(string=" + getString() + ", type=" + type + ")";
     }
 }
@@ -1,62 +1,141 @@
 package org.siu.interpreter.state.value;
 
 import lombok.Getter;
+import org.siu.ast.expression.StructMemberExpression;
 import org.siu.ast.type.TypeDeclaration;
 import org.siu.interpreter.error.NotExistingStructMemberException;
 import org.siu.interpreter.error.StructMemberNotInitializedException;
 import org.siu.interpreter.error.TypesDoNotMatchException;
+import org.siu.interpreter.state.FieldOffset;
+import org.siu.interpreter.state.StructLayout;
 import org.siu.interpreter.state.Value;
 
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Arrays;
 
-@lombok.Value
+/**
+ * Struct whose members are stored at the offsets given by the layout of its type.
+ */
 public class StructValue implements Value {
-    TypeDeclaration type;
     @Getter
-    Map<String, Value> structMembers;
+    private final StructLayout layout;
+    private final Value[] members;
+
+    public StructValue(StructLayout layout) {
+        this(layout, new Value[layout.size()]);
+    }
+
+    public StructValue(StructLayout layout, Value[] members) {
+        this.layout = layout;
+        this.members = members;
+    }
 
     @Override
-    public Value get(String key) {
-        if (!structMembers.containsKey(key)) {
-            throw new NotExistingStructMemberException(type.getCustomType(), key);
+    public TypeDeclaration getType() {
+        return layout.getType();
+    }
+
+    /*
+     * offset of the member, resolved on the first access of the expression and again when it accesses a struct of another type
+     */
+    public int offset(StructMemberExpression member) {
+        var cached = member.getOffset();
+        if (cached != null && cached.getLayout() == layout) {
+            return cached.getOffset();
         }
 
-        var value = structMembers.get(key);
+        var offset = offset(member.getFieldName());
+        member.setOffset(new FieldOffset(layout, offset));
+        return offset;
+    }
 
-        if (value == null) {
-            throw new StructMemberNotInitializedException(type.getCustomType(), key);
+    public int offset(String key) {
+        var offset = layout.offset(key);
+        if (offset < 0) {
+            throw new NotExistingStructMemberException(getType().getCustomType(), key);
         }
+        return offset;
+    }
+
+    @Override
+    public Value get(StructMemberExpression member) {
+        return get(offset(member));
+    }
+
+    @Override
+    public void put(StructMemberExpression member, Value value) {
+        put(offset(member), value);
+    }
+
+    @Override
+    public Value get(String key) {
+        return get(offset(key));
+    }
 
+    public Value get(int offset) {
+        var value = members[offset];
+        if (value == null) {
+            throw new StructMemberNotInitializedException(getType().getCustomType(), layout.getMembers().get(offset).getName());
+        }
         return value;
     }
 
     @Override
     public void put(String key, Value value) {
-        var previous = structMembers.put(key, value);
+        put(offset(key), value);
+    }
+
+    public void put(int offset, Value value) {
+        var previous = members[offset];
         if (previous == null) {
-            throw new StructMemberNotInitializedException(type.getCustomType(), key);
+            throw new StructMemberNotInitializedException(getType().getCustomType(), layout.getMembers().get(offset).getName());
         }
 
         if (!previous.getType().equals(value.getType())) {
             throw new TypesDoNotMatchException(value.getType(), previous.getType());
         }
 
-        structMembers.put(key, value);
+        members[offset] = value.toMutable();
+    }
+
+    /*
+     * stores a member of a struct being created
+     */
+    public void initialize(int offset, Value value) {
+        members[offset] = value.toMutable();
+    }
+
+    public int size() {
+        return members.length;
     }
 
     @Override
     public StructValue copy() {
-        var newStructMembers = this.structMembers.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> entry.getValue().copy()
-                ));
-        return new StructValue(new TypeDeclaration(type.getValueType(), type.getCustomType()), newStructMembers);
+        var copies = members.clone();
+        for (int i = 0; i < copies.length; i++) {
+            if (copies[i] != null) {
+                copies[i] = copies[i].copy();
+            }
+        }
+        return new StructValue(layout, copies);
     }
 
     @Override
     public boolean isStruct() {
         return true;
     }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof StructValue struct && getType().equals(struct.getType()) && Arrays.equals(members, struct.members);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * getType().hashCode() + Arrays.hashCode(members);
+    }
+
+    @Override
+    public String toString() {
+        return "StructValue(type=" + getType() + ", members=" + Arrays.toString(members) + ")";
+    }
 }
@@ -1,39 +1,45 @@
 package org.siu.interpreter.state.value;
 
-import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.Setter;
-import lombok.experimental.FieldDefaults;
-import org.siu.ast.Parameter;
 import org.siu.ast.type.TypeDeclaration;
-import org.siu.interpreter.error.TypeNotDefinedException;
 import org.siu.interpreter.state.Value;
+import org.siu.interpreter.state.VariantDescriptor;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Objects;
 
-@lombok.Data
-@RequiredArgsConstructor
-@FieldDefaults(level = AccessLevel.PRIVATE)
+/**
+ * Variant holding the value of the field with the given ordinal in the descriptor of its type.
+ */
 public class VariantValue implements Value {
-    TypeDeclaration type;
     @Getter
-    Map<String, Parameter> variantMembers;
-    @Setter
-    Value value;
+    private final VariantDescriptor descriptor;
     @Getter
-    String currentField;
+    @Setter
+    private int ordinal;
+    private Value value;
 
-    public VariantValue(TypeDeclaration typeDeclaration, Map<String, Parameter> copiedVariantMembers, String field, Value value) {
-        this.type = typeDeclaration;
-        this.variantMembers = new HashMap<>(copiedVariantMembers);
-        this.currentField = field;
-        this.value = value;
+    public VariantValue(VariantDescriptor descriptor, int ordinal, Value value) {
+        this.descriptor = descriptor;
+        this.ordinal = ordinal;
+        this.value = value == null ? null : value.toMutable();
+    }
 
-        if (!variantMembers.containsKey(field)) {
-            throw new TypeNotDefinedException(field);
-        }
+    @Override
+    public TypeDeclaration getType() {
+        return descriptor.getType();
+    }
+
+    public String getCurrentField() {
+        return descriptor.field(ordinal).getName();
+    }
+
+    public Value getValue() {
+        return value;
+    }
+
+    public void setValue(Value value) {
+        this.value = value == null ? null : value.toMutable();
     }
 
     @Override
@@ -47,20 +53,27 @@ public class VariantValue implements Value {
 
     @Override
     public VariantValue copy() {
-        Map<String, Parameter> copiedVariantMembers = new HashMap<>();
-        for (Map.Entry<String, Parameter> entry : variantMembers.entrySet()) {
-            copiedVariantMembers.put(entry.getKey(), new Parameter(entry.getValue().getType(), entry.getValue().getName()));
-        }
-
-        return new VariantValue(
-                new TypeDeclaration(type.getValueType(), type.getCustomType()),
-                copiedVariantMembers,
-                currentField,
-                value == null ? null : value.copy()
-        );
+        return new VariantValue(descriptor, ordinal, value == null ? null : value.copy());
     }
+
     @Override
     public boolean isVariant() {
         return true;
     }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof VariantValue variant && getType().equals(variant.getType())
+                && getCurrentField().equals(variant.getCurrentField()) && Objects.equals(value, variant.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getType(), getCurrentField(), value);
+    }
+
+    @Override
+    public String toString() {
+        return "VariantValue(type=" + getType() + ", currentField=" + getCurrentField() + ", value=" + value + ")";
+    }
 }
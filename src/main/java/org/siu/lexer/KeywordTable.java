@@ -0,0 +1,84 @@
+package org.siu.lexer;
+
+import org.siu.token.TokenType;
+import org.siu.token.TokenUtils;
+
+/**
+ * Perfect hash of the keywords: the first and the last character and the length of every keyword
+ * select a different slot, so a word is recognized by one hash and one comparison without building a string.
+ * The multipliers are searched for when the class is loaded, so new keywords only need an entry in {@link TokenType}.
+ */
+final class KeywordTable {
+    private static final int SIZE = 64;
+    private static final int MAX_MULTIPLIER = 256;
+
+    private static final TokenType[] TYPES = new TokenType[SIZE];
+    private static final char[][] KEYWORDS = new char[SIZE][];
+    private static final int FIRST;
+    private static final int LAST;
+    private static final int MAX_LENGTH;
+
+    static {
+        var keywords = TokenUtils.KEYWORDS.keySet().stream().map(String::toCharArray).toList();
+        MAX_LENGTH = keywords.stream().mapToInt(keyword -> keyword.length).max().orElse(0);
+
+        var multipliers = findMultipliers(keywords);
+        FIRST = multipliers[0];
+        LAST = multipliers[1];
+        for (var keyword : keywords) {
+            var slot = slot(keyword, 0, keyword.length, FIRST, LAST);
+            KEYWORDS[slot] = keyword;
+            TYPES[slot] = TokenUtils.KEYWORDS.get(new String(keyword));
+        }
+    }
+
+    private KeywordTable() {
+    }
+
+    /**
+     * Returns the type of the keyword spelled by the characters, or null when they are not a keyword.
+     */
+    static TokenType lookup(char[] text, int start, int length) {
+        if (length > MAX_LENGTH || length == 0) {
+            return null;
+        }
+        var slot = slot(text, start, length, FIRST, LAST);
+        var keyword = KEYWORDS[slot];
+        if (keyword == null || keyword.length != length) {
+            return null;
+        }
+        for (int i = 0; i < length; i++) {
+            if (keyword[i] != text[start + i]) {
+                return null;
+            }
+        }
+        return TYPES[slot];
+    }
+
+    private static int slot(char[] text, int start, int length, int first, int last) {
+        return (text[start] * first + text[start + length - 1] * last + length) & (SIZE - 1);
+    }
+
+    private static int[] findMultipliers(Iterable<char[]> keywords) {
+        for (int first = 1; first < MAX_MULTIPLIER; first++) {
+            for (int last = 0; last < MAX_MULTIPLIER; last++) {
+                if (isPerfect(keywords, first, last)) {
+                    return new int[]{first, last};
+                }
+            }
+        }
+        throw new IllegalStateException("No perfect hash of the keywords in " + SIZE + " slots");
+    }
+
+    private static boolean isPerfect(Iterable<char[]> keywords, int first, int last) {
+        var used = new boolean[SIZE];
+        for (var keyword : keywords) {
+            var slot = slot(keyword, 0, keyword.length, first, last);
+            if (used[slot]) {
+                return false;
+            }
+            used[slot] = true;
+        }
+        return true;
+    }
+}
@@ -19,4 +19,13 @@ public final class LexerConfig {
             "\\", '\\',  // Backslash
             "n", '\n'    // New line
     );
+
+    /*
+     * system property making the compiler tokenize whole sources into a token buffer before parsing, e.g. -Dsiu.tokenBuffer=true
+     */
+    public static final String TOKEN_BUFFER_PROPERTY = "siu.tokenBuffer";
+
+    public static boolean tokenBuffer() {
+        return Boolean.getBoolean(TOKEN_BUFFER_PROPERTY);
+    }
 }
@@ -22,23 +22,39 @@ public class LexerImpl implements Lexer {
     private final Position position;
     private Position tokenPosition;
     private final ErrorHandler errorHandler;
+    private final Trivia trivia;
 
-    public LexerImpl(BufferedReader reader, ErrorHandler errorHandler) {
+    public LexerImpl(BufferedReader reader, Trivia trivia, ErrorHandler errorHandler) {
         this.reader = reader;
+        this.trivia = trivia;
         this.errorHandler = errorHandler;
         this.position = new Position();
         nextCharacter();
     }
 
+    public LexerImpl(BufferedReader reader, ErrorHandler errorHandler) {
+        this(reader, Trivia.KEEP, errorHandler);
+    }
+
     public LexerImpl(String text, ErrorHandler errorHandler) {
-        this.reader = new BufferedReader(new StringReader(text));
-        this.errorHandler = errorHandler;
-        this.position = new Position();
-        nextCharacter();
+        this(new BufferedReader(new StringReader(text)), Trivia.KEEP, errorHandler);
     }
 
     @Override
     public Token nextToken() {
+        var token = buildToken();
+        while (trivia == Trivia.SKIP && isComment(token)) {
+            skipComment(token);
+            token = buildToken();
+        }
+        return isComment(token) ? buildComment(token) : token;
+    }
+
+    private static boolean isComment(Token token) {
+        return token.getType() == TokenType.SINGLE_LINE_COMMENT || token.getType() == TokenType.MULTI_LINE_COMMENT_OPEN;
+    }
+
+    private Token buildToken() {
         skipWhiteCharacters();
         tokenPosition = position.copy();
         Token token = buildEOF()
@@ -53,11 +69,30 @@ public class LexerImpl implements Lexer {
             throw new InvalidTokenException();
         }
 
-        if (token.getType() == TokenType.SINGLE_LINE_COMMENT || token.getType() == TokenType.MULTI_LINE_COMMENT_OPEN) {
-            return buildComment(token);
+        return token;
+    }
+
+    /*
+     * reads past the comment as buildComment does, without collecting its text
+     */
+    private void skipComment(Token token) {
+        if (token.getType() == TokenType.SINGLE_LINE_COMMENT) {
+            while (!character.equals(LexerConfig.LINE_BREAK) && !character.equals(TokenUtils.END_OF_FILE)) {
+                nextCharacter();
+            }
+            return;
         }
 
-        return token;
+        while (!character.equals(TokenUtils.END_OF_FILE)) {
+            if (character.equals(String.valueOf(TokenType.MULTI_LINE_COMMENT_CLOSE.getKeyword().charAt(0)))) {
+                nextCharacter();
+                if (character.equals(String.valueOf(TokenType.MULTI_LINE_COMMENT_CLOSE.getKeyword().charAt(1)))) {
+                    nextCharacter();
+                    break;
+                }
+            }
+            nextCharacter();
+        }
     }
 
     private Token buildComment(Token token) {
@@ -0,0 +1,106 @@
+package org.siu.lexer;
+
+import lombok.Getter;
+import org.siu.error.ErrorHandler;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * Text of a program held in a char array for the {@link TableLexer}.
+ * Files are memory mapped and decoded from UTF-8 straight from the mapping, so their bytes never reach the heap,
+ * other input such as the standard input is read through a reader.
+ */
+public class Source {
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    @Getter
+    private final char[] text;
+    @Getter
+    private final int length;
+    /*
+     * kept for hashing, so a mapped file is not encoded back to UTF-8
+     */
+    private final ByteBuffer bytes;
+
+    private Source(char[] text, int length, ByteBuffer bytes) {
+        this.text = text;
+        this.length = length;
+        this.bytes = bytes;
+    }
+
+    public static Source of(String text) {
+        return new Source(text.toCharArray(), text.length(), null);
+    }
+
+    /*
+     * malformed UTF-8 is reported as by Files.readString
+     */
+    public static Source map(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Source file too large: " + file);
+            }
+            var bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            var decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+            // UTF-8 never decodes to more chars than it has bytes
+            var text = CharBuffer.allocate((int) size);
+            var result = decoder.decode(bytes.duplicate(), text, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+            decoder.flush(text);
+            return new Source(text.array(), text.position(), bytes);
+        }
+    }
+
+    public static Source read(Reader reader) throws IOException {
+        var text = new char[READ_BUFFER_SIZE];
+        var length = 0;
+        int read;
+        while ((read = reader.read(text, length, text.length - length)) != -1) {
+            length += read;
+            if (length == text.length) {
+                text = Arrays.copyOf(text, 2 * text.length);
+            }
+        }
+        return new Source(text, length, null);
+    }
+
+    /*
+     * digests the UTF-8 encoding of the text
+     */
+    public void digest(MessageDigest digest) {
+        digest.update(bytes != null
+                ? bytes.duplicate()
+                : StandardCharsets.UTF_8.encode(CharBuffer.wrap(text, 0, length)));
+    }
+
+    public Lexer lexer(ErrorHandler errorHandler) {
+        return lexer(Trivia.KEEP, errorHandler);
+    }
+
+    public Lexer lexer(Trivia trivia, ErrorHandler errorHandler) {
+        return new TableLexer(this, trivia, errorHandler);
+    }
+
+    public TokenBuffer tokenize(ErrorHandler errorHandler) {
+        return tokenize(Trivia.KEEP, errorHandler);
+    }
+
+    public TokenBuffer tokenize(Trivia trivia, ErrorHandler errorHandler) {
+        return new TableLexer(this, trivia, errorHandler).tokenize();
+    }
+}
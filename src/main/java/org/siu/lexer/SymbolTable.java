@@ -0,0 +1,91 @@
+package org.siu.lexer;
+
+import java.util.Arrays;
+
+/**
+ * Interns identifiers into canonical names.
+ * Names are looked up straight from the characters of the source, so an identifier seen before costs no allocation
+ * and every occurrence of a name is the same String, compared by identity and hashed once.
+ * Not thread safe, every compilation interns into its own table.
+ */
+public class SymbolTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    /*
+     * open addressing, holding the index of a name plus one, zero marks a free slot
+     */
+    private int[] slots = new int[2 * INITIAL_CAPACITY];
+    private int size;
+
+    public String intern(String name) {
+        return intern(name.toCharArray(), 0, name.length());
+    }
+
+    public String intern(char[] text, int start, int length) {
+        var hash = hash(text, start, length);
+        var mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            var entry = slots[slot];
+            if (entry == 0) {
+                return add(new String(text, start, length), hash, slot);
+            }
+            var name = names[entry - 1];
+            if (hashes[entry - 1] == hash && matches(name, text, start, length)) {
+                return name;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private String add(String name, int hash, int slot) {
+        var index = size++;
+        if (index == names.length) {
+            names = Arrays.copyOf(names, 2 * index);
+            hashes = Arrays.copyOf(hashes, 2 * index);
+        }
+        names[index] = name;
+        hashes[index] = hash;
+        slots[slot] = index + 1;
+        if (2 * size > slots.length) {
+            rehash();
+        }
+        return name;
+    }
+
+    private void rehash() {
+        slots = new int[2 * slots.length];
+        var mask = slots.length - 1;
+        for (int index = 0; index < size; index++) {
+            var slot = hashes[index] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+    }
+
+    private static int hash(char[] text, int start, int length) {
+        var hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + text[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String name, char[] text, int start, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != text[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,451 @@
+package org.siu.lexer;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.siu.error.ErrorHandler;
+import org.siu.error.InvalidTokenException;
+import org.siu.token.Position;
+import org.siu.token.Token;
+import org.siu.token.TokenType;
+import org.siu.token.type.*;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lexer scanning the whole source held in a char array. Characters are classified through a table
+ * and tokens are recognized by switching on the class of their first character, so no string is built per character.
+ * Keywords are recognized through the {@link KeywordTable} and identifiers are interned into a {@link SymbolTable}.
+ * Produces the same tokens at the same positions as {@link LexerImpl}.
+ * <p>
+ * Scanning a token only finds its kind and the characters holding its value, the value is decoded from them
+ * when the token is built, so a {@link TokenBuffer} can keep the scanned tokens and decode their values later.
+ * {@link Trivia#SKIP Skipped} comments are stepped over while scanning, so no token is returned or buffered for them.
+ */
+@Slf4j
+public class TableLexer implements Lexer {
+    private static final byte OTHER = 0;
+    private static final byte WHITESPACE = 1;
+    private static final byte LETTER = 2;
+    private static final byte DIGIT = 3;
+    private static final byte END = 4;
+
+    private static final byte[] CLASSES = new byte[128];
+
+    static {
+        for (char c = 0; c < CLASSES.length; c++) {
+            CLASSES[c] = classify(c);
+        }
+    }
+
+    private final char[] text;
+    private final int length;
+    private final ErrorHandler errorHandler;
+    @Getter
+    private final SymbolTable symbols;
+    private final Trivia trivia;
+    /*
+     * offsets past the end stand for the end of file, which is read again on every step, moving the column as LexerImpl does
+     */
+    private int offset = -1;
+    private int line = 1;
+    private int lineBreak = -1;
+
+    /*
+     * the last scanned token; comments and booleans keep the kind they were scanned as,
+     * SINGLE_LINE_COMMENT, MULTI_LINE_COMMENT_OPEN, BOOLEAN_TRUE or BOOLEAN_FALSE, which tells how to decode their value
+     */
+    TokenType kind;
+    int valueStart;
+    int valueLength;
+    int tokenLine;
+    int tokenColumn;
+    private int numberEnd;
+
+    public TableLexer(char[] text, int length, SymbolTable symbols, Trivia trivia, ErrorHandler errorHandler) {
+        this.text = text;
+        this.length = length;
+        this.symbols = symbols;
+        this.trivia = trivia;
+        this.errorHandler = errorHandler;
+        advance();
+    }
+
+    public TableLexer(char[] text, int length, SymbolTable symbols, ErrorHandler errorHandler) {
+        this(text, length, symbols, Trivia.KEEP, errorHandler);
+    }
+
+    public TableLexer(char[] text, int length, ErrorHandler errorHandler) {
+        this(text, length, new SymbolTable(), errorHandler);
+    }
+
+    public TableLexer(String text, ErrorHandler errorHandler) {
+        this(text.toCharArray(), text.length(), errorHandler);
+    }
+
+    public TableLexer(Reader reader, ErrorHandler errorHandler) throws IOException {
+        this(Source.read(reader), errorHandler);
+    }
+
+    public TableLexer(Source source, ErrorHandler errorHandler) {
+        this(source, Trivia.KEEP, errorHandler);
+    }
+
+    public TableLexer(Source source, Trivia trivia, ErrorHandler errorHandler) {
+        this(source.getText(), source.getLength(), new SymbolTable(), trivia, errorHandler);
+    }
+
+    @Override
+    public Token nextToken() {
+        scan();
+        return token(kind, valueStart, valueLength, new Position(tokenLine, tokenColumn));
+    }
+
+    /**
+     * Scans the rest of the source into a buffer without decoding any value.
+     * An invalid token ends the buffer, which fails when it is reached.
+     */
+    public TokenBuffer tokenize() {
+        var buffer = new TokenBuffer(this);
+        try {
+            do {
+                scan();
+                buffer.add(kind, valueStart, valueLength, tokenLine, tokenColumn);
+            } while (kind != TokenType.END_OF_FILE);
+        } catch (InvalidTokenException e) {
+            buffer.fail();
+        }
+        buffer.trim();
+        return buffer;
+    }
+
+    void scan() {
+        do {
+            scanToken();
+        } while (trivia == Trivia.SKIP && (kind == TokenType.SINGLE_LINE_COMMENT || kind == TokenType.MULTI_LINE_COMMENT_OPEN));
+    }
+
+    private void scanToken() {
+        var end = offset;
+        while (characterClass(end) == WHITESPACE) {
+            end++;
+        }
+        moveAcross(end);
+        tokenLine = line;
+        tokenColumn = offset - lineBreak;
+        valueStart = offset;
+        valueLength = 0;
+
+        kind = switch (characterClass(offset)) {
+            case END -> TokenType.END_OF_FILE;
+            case DIGIT -> scanNumber();
+            case LETTER -> scanIdentifierOrKeyword();
+            default -> text[offset] == '"' ? scanString() : scanOperatorOrSymbol();
+        };
+    }
+
+    Token token(TokenType kind, int start, int length, Position position) {
+        return switch (kind) {
+            case IDENTIFIER, STRING_CONSTANT -> new StringToken(kind, position, value(kind, start, length));
+            case INTEGER_CONSTANT -> new IntegerToken(position, value(kind, start, length));
+            case FLOAT_CONSTANT -> new FloatToken(position, value(kind, start, length));
+            case BOOLEAN_TRUE, BOOLEAN_FALSE -> new BooleanToken(position, kind == TokenType.BOOLEAN_TRUE);
+            case SINGLE_LINE_COMMENT, MULTI_LINE_COMMENT_OPEN -> new CommentToken(position, value(kind, start, length));
+            default -> new KeywordToken(kind, position);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T value(TokenType kind, int start, int length) {
+        Object value = switch (kind) {
+            case IDENTIFIER -> symbols.intern(text, start, length);
+            case STRING_CONSTANT -> unescape(start, start + length);
+            case INTEGER_CONSTANT, FLOAT_CONSTANT -> number(start, null);
+            case BOOLEAN_TRUE, BOOLEAN_FALSE -> kind == TokenType.BOOLEAN_TRUE;
+            case SINGLE_LINE_COMMENT -> new String(text, start, length);
+            case MULTI_LINE_COMMENT_OPEN -> multiLineComment(start);
+            default -> null;
+        };
+        return (T) value;
+    }
+
+    private TokenType scanOperatorOrSymbol() {
+        var symbol = text[offset];
+        advance();
+        var type = switch (symbol) {
+            case '(' -> TokenType.BRACKET_OPEN;
+            case ')' -> TokenType.BRACKET_CLOSE;
+            case '{' -> TokenType.CURLY_BRACKET_OPEN;
+            case '}' -> TokenType.CURLY_BRACKET_CLOSE;
+            case ';' -> TokenType.SEMICOLON;
+            case ',' -> TokenType.COMMA;
+            case '@' -> TokenType.COPY_OPERATOR;
+            case '.' -> TokenType.DOT;
+            case '+' -> TokenType.PLUS;
+            case '-' -> TokenType.MINUS;
+            case '%' -> TokenType.MODULO;
+            case '#' -> TokenType.SINGLE_LINE_COMMENT;
+            case ':' -> follow(':', TokenType.DOUBLE_COLON, TokenType.COLON);
+            case '<' -> follow('=', TokenType.LESS_EQUAL, TokenType.LESS);
+            case '>' -> follow('=', TokenType.GREATER_EQUAL, TokenType.GREATER);
+            case '=' -> follow('=', TokenType.EQUAL, TokenType.ASSIGN);
+            case '!' -> follow('=', TokenType.NOT_EQUAL, null);
+            case '/' -> follow('*', TokenType.MULTI_LINE_COMMENT_OPEN, TokenType.DIVIDE);
+            case '*' -> follow('/', TokenType.MULTI_LINE_COMMENT_CLOSE, TokenType.MULTIPLY);
+            default -> null;
+        };
+
+        if (type == null) {
+            log.error("Invalid token");
+            throw new InvalidTokenException();
+        }
+        if (type == TokenType.SINGLE_LINE_COMMENT) {
+            scanSingleLineComment();
+        } else if (type == TokenType.MULTI_LINE_COMMENT_OPEN) {
+            scanMultiLineComment();
+        }
+        return type;
+    }
+
+    private TokenType follow(char second, TokenType pair, TokenType single) {
+        if (offset < length && text[offset] == second) {
+            advance();
+            return pair;
+        }
+        return single;
+    }
+
+    /*
+     * like LexerImpl the comment starts one character after the hash and keeps the line break ending it
+     */
+    private void scanSingleLineComment() {
+        var end = offset;
+        while (end < length && text[end] != '\n') {
+            end++;
+        }
+        var to = Math.min(end + 1, length);
+        valueStart = Math.min(offset + 1, to);
+        valueLength = to - valueStart;
+        moveTo(end);
+    }
+
+    private void scanMultiLineComment() {
+        valueStart = offset;
+        var end = offset;
+        while (end < length) {
+            if (text[end] == '*') {
+                end++;
+                if (end < length && text[end] == '/') {
+                    end++;
+                    break;
+                }
+            }
+            end++;
+        }
+        valueLength = Math.min(end, length) - valueStart;
+        moveAcross(end);
+    }
+
+    /*
+     * replays the scan of the comment, which like LexerImpl keeps a star only when it does not close the comment
+     */
+    private String multiLineComment(int from) {
+        var sb = new StringBuilder();
+        for (int i = from; i < length; i++) {
+            if (text[i] == '*') {
+                i++;
+                if (i < length && text[i] == '/') {
+                    break;
+                }
+                sb.append('*');
+            }
+            if (i < length) {
+                sb.append(text[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private TokenType scanIdentifierOrKeyword() {
+        var start = offset;
+        var end = start;
+        var rest = -1;
+        while (isAlphanumeric(end)) {
+            if (end - start == LexerConfig.MAX_IDENTIFIER_LENGTH) {
+                log.error("Too long identifier. Skipping rest characters");
+                errorHandler.handleLexerError(new Exception("Too long identifier"), new Position(tokenLine, tokenColumn));
+                rest = end;
+                while (isAlphanumeric(rest)) {
+                    rest++;
+                }
+                break;
+            }
+            end++;
+        }
+        moveTo(rest < 0 ? end : rest);
+
+        valueLength = end - start;
+        var tokenType = KeywordTable.lookup(text, start, valueLength);
+        return tokenType == null ? TokenType.IDENTIFIER : tokenType;
+    }
+
+    private TokenType scanString() {
+        advance();
+        valueStart = offset;
+        var end = offset;
+        while (end < length && text[end] != '"') {
+            end += text[end] == '\\' ? 2 : 1;
+        }
+        valueLength = Math.min(end, length) - valueStart;
+        moveAcross(end);
+        advance();
+        return TokenType.STRING_CONSTANT;
+    }
+
+    private String unescape(int from, int to) {
+        var sb = new StringBuilder(to - from);
+        for (int i = from; i < to; i++) {
+            var character = text[i];
+            if (character != '\\') {
+                sb.append(character);
+            } else if (++i >= to) {
+                // only an escape symbol ending the source is the last character of a string
+                sb.append('\\');
+            } else {
+                appendEscaped(sb, text[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendEscaped(StringBuilder sb, char character) {
+        switch (character) {
+            case 't' -> sb.append('\t');
+            case 'n' -> sb.append('\n');
+            case '\'', '"', '\\' -> sb.append(character);
+            default -> sb.append('\\').append(character);
+        }
+    }
+
+    private TokenType scanNumber() {
+        var number = number(offset, new Position(tokenLine, tokenColumn));
+        valueLength = numberEnd - offset;
+        moveTo(numberEnd);
+        return number instanceof Float ? TokenType.FLOAT_CONSTANT : TokenType.INTEGER_CONSTANT;
+    }
+
+    /*
+     * parses the integer or float starting at the index and sets numberEnd past it, skipping digits over the limits;
+     * errors are reported at the given position while scanning, but not again when the value is decoded
+     */
+    private Number number(int from, Position position) {
+        var i = from;
+        int decimal = text[i++] - '0';
+        int x;
+        while (isDigit(i)) {
+            x = text[i] - '0';
+            if (decimal > (Integer.MAX_VALUE - x) / 10) {
+                if (position != null) {
+                    log.error("integer overflow. Skipping rest digits");
+                    errorHandler.handleLexerError(new Exception("Integer overflow"), position);
+                }
+                while (isDigit(i)) {
+                    i++;
+                }
+                break;
+            }
+            decimal = decimal * 10 + x;
+            i++;
+        }
+        if (i >= length || text[i] != '.') {
+            numberEnd = i;
+            return decimal;
+        }
+
+        int result = 0;
+        int power = 0;
+        i++;
+        while (isDigit(i)) {
+            if (power >= LexerConfig.MAX_FRACTIONAL_DIGITS) {
+                if (position != null) {
+                    log.error("Too many fractional digits. Skipping rest digits");
+                    errorHandler.handleLexerError(new Exception("Too many fractional digits"), position);
+                }
+                while (isDigit(i)) {
+                    i++;
+                }
+                break;
+            }
+            result = result * 10 + (text[i] - '0');
+            power++;
+            i++;
+        }
+        numberEnd = i;
+        float fractional = (float) result / (float) Math.pow(10, power);
+        return (float) decimal + fractional;
+    }
+
+    private void advance() {
+        offset++;
+        if (offset < length && text[offset] == '\n') {
+            line++;
+            lineBreak = offset;
+        }
+    }
+
+    /*
+     * skips characters known not to break the line
+     */
+    private void moveTo(int index) {
+        if (index != offset) {
+            offset = index - 1;
+            advance();
+        }
+    }
+
+    /*
+     * skips a run of characters found by a scanning loop, counting the line breaks in it as advance would,
+     * so the loop itself only compares characters
+     */
+    private void moveAcross(int index) {
+        var last = Math.min(index, length - 1);
+        for (int i = offset + 1; i <= last; i++) {
+            if (text[i] == '\n') {
+                line++;
+                lineBreak = i;
+            }
+        }
+        offset = index;
+    }
+
+    private boolean isAlphanumeric(int index) {
+        var characterClass = characterClass(index);
+        return characterClass == LETTER || characterClass == DIGIT;
+    }
+
+    private boolean isDigit(int index) {
+        return characterClass(index) == DIGIT;
+    }
+
+    private byte characterClass(int index) {
+        if (index >= length) {
+            return END;
+        }
+        var c = text[index];
+        return c < CLASSES.length ? CLASSES[c] : classify(c);
+    }
+
+    /*
+     * the same character classes as the StringUtils checks of LexerImpl, including non ASCII letters and digits
+     */
+    private static byte classify(char c) {
+        if (Character.isWhitespace(c)) {
+            return WHITESPACE;
+        } else if (Character.isLetter(c)) {
+            return LETTER;
+        } else if (Character.isDigit(c)) {
+            return DIGIT;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,158 @@
+package org.siu.lexer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.siu.error.InvalidTokenException;
+import org.siu.token.Position;
+import org.siu.token.Token;
+import org.siu.token.TokenType;
+
+import java.util.Arrays;
+
+/**
+ * Whole token stream of a source kept in parallel arrays: the kind of every token, the start and length
+ * of the characters holding its value and its line and column {@link Position#pack packed} into a long.
+ * Values are decoded from the source only when they are asked for, so a token costs 17 bytes instead of
+ * a token and a position object, and the stream can be kept and read again by any number of {@link #lexer() lexers}.
+ */
+@Slf4j
+public class TokenBuffer {
+    private static final TokenType[] KINDS = TokenType.values();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final TableLexer decoder;
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private int size;
+    /*
+     * tokenizing stopped at an invalid token, which is reported when a lexer reaches the end of the buffer
+     */
+    private boolean failed;
+
+    TokenBuffer(TableLexer decoder) {
+        this.decoder = decoder;
+    }
+
+    void add(TokenType kind, int start, int length, int line, int column) {
+        if (size == kinds.length) {
+            resize(2 * size);
+        }
+        kinds[size] = (byte) kind.ordinal();
+        starts[size] = start;
+        lengths[size] = length;
+        positions[size] = Position.pack(line, column);
+        size++;
+    }
+
+    void fail() {
+        failed = true;
+    }
+
+    /*
+     * drops the capacity left over from growing, as a finished buffer does not grow any more
+     */
+    void trim() {
+        resize(size);
+    }
+
+    private void resize(int capacity) {
+        kinds = Arrays.copyOf(kinds, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public TokenType getType(int index) {
+        return switch (kind(index)) {
+            case SINGLE_LINE_COMMENT, MULTI_LINE_COMMENT_OPEN -> TokenType.COMMENT;
+            case BOOLEAN_TRUE, BOOLEAN_FALSE -> TokenType.BOOLEAN_CONSTANT;
+            default -> kind(index);
+        };
+    }
+
+    public Position getPosition(int index) {
+        return Position.unpack(positions[index]);
+    }
+
+    public long getPackedPosition(int index) {
+        return positions[index];
+    }
+
+    public <T> T getValue(int index) {
+        return decoder.value(kind(index), starts[index], lengths[index]);
+    }
+
+    /**
+     * Builds the token as the lexer would have returned it.
+     */
+    public Token getToken(int index) {
+        return decoder.token(kind(index), starts[index], lengths[index], getPosition(index));
+    }
+
+    /**
+     * Returns a lexer reading the buffer from its first token, repeating the end of file at its end.
+     */
+    public Lexer lexer() {
+        return new Lexer() {
+            private int index;
+
+            @Override
+            public Token nextToken() {
+                if (index == size) {
+                    log.error("Invalid token");
+                    throw new InvalidTokenException();
+                }
+                var token = new BufferedToken(index);
+                if (failed || kinds[index] != TokenType.END_OF_FILE.ordinal()) {
+                    index++;
+                }
+                return token;
+            }
+        };
+    }
+
+    private TokenType kind(int index) {
+        return KINDS[kinds[index]];
+    }
+
+    /*
+     * view of a buffered token, decoding its position and value when asked
+     */
+    private class BufferedToken implements Token {
+        private final int index;
+
+        BufferedToken(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public TokenType getType() {
+            return TokenBuffer.this.getType(index);
+        }
+
+        @Override
+        public Position getPosition() {
+            return TokenBuffer.this.getPosition(index);
+        }
+
+        @Override
+        public long getPackedPosition() {
+            return positions[index];
+        }
+
+        @Override
+        public <T> T getValue() {
+            return TokenBuffer.this.getValue(index);
+        }
+
+        @Override
+        public String toString() {
+            return getToken(index).toString();
+        }
+    }
+}
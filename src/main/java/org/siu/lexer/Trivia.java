@@ -0,0 +1,10 @@
+package org.siu.lexer;
+
+/**
+ * What a lexer does with comments. Tooling keeps them as comment tokens, while a program that is only executed
+ * skips them while scanning, so no comment text or token is ever built.
+ */
+public enum Trivia {
+    KEEP,
+    SKIP
+}
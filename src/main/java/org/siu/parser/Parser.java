@@ -144,7 +144,7 @@ public class Parser {
         mustBe(token, TokenType.CURLY_BRACKET_CLOSE, SyntaxError::new);
         mustBe(token, TokenType.SEMICOLON, MissingSemicolonError::new);
 
-        return Optional.of(new StructTypeDefinitionStatement(name, members, position));
+        return Optional.of(new StructTypeDefinitionStatement(name, members, position.pack()));
     }
 
     /**
@@ -178,7 +178,7 @@ public class Parser {
         mustBe(token, TokenType.CURLY_BRACKET_CLOSE, SyntaxError::new);
         mustBe(token, TokenType.SEMICOLON, MissingSemicolonError::new);
 
-        return Optional.of(new VariantTypeDefinitionStatement(name, members, position));
+        return Optional.of(new VariantTypeDefinitionStatement(name, members, position.pack()));
     }
 
     /**
@@ -216,9 +216,9 @@ public class Parser {
         }
         mustBe(token, TokenType.SEMICOLON, MissingSemicolonError::new);
         var parameter = new Parameter(typeDeclaration, identifier);
-        var declaration = new DeclarationStatement(parameter, expression.get(), position);
+        var declaration = new DeclarationStatement(parameter, expression.get(), position.pack());
         if (isConst) {
-            return Optional.of(new ConstStatement(parameter, declaration, position));
+            return Optional.of(new ConstStatement(parameter, declaration, position.pack()));
         }
         return Optional.of(declaration);
     }
@@ -283,7 +283,7 @@ public class Parser {
             handleParserError(new SyntaxError(position), position);
         }
 
-        return Optional.of(new FunctionDefinitionStatement(name.toString(), params, returnType, block.get(), position));
+        return Optional.of(new FunctionDefinitionStatement(name.toString(), params, returnType, block.get(), position.pack()));
     }
 
     /**
@@ -301,7 +301,7 @@ public class Parser {
         }
 
         mustBe(token, TokenType.CURLY_BRACKET_CLOSE, SyntaxError::new);
-        return Optional.of(new BlockStatement(statements, position));
+        return Optional.of(new BlockStatement(statements, position.pack()));
     }
 
     private final List<Supplier<Optional<? extends Statement>>> statementSuppliers = List.of(
@@ -340,7 +340,7 @@ public class Parser {
             matchCase = parseMatchCase();
         }
         mustBe(token, TokenType.CURLY_BRACKET_CLOSE, SyntaxError::new);
-        return Optional.of(new MatchStatement(expression.get(), matchCases, position));
+        return Optional.of(new MatchStatement(expression.get(), matchCases, position.pack()));
     }
 
     /**
@@ -365,7 +365,7 @@ public class Parser {
             handleParserError(new MissingBlockStatementException(position), position);
         }
 
-        return Optional.of(new MatchCaseStatement(variantType, member, variable, block.get(), position));
+        return Optional.of(new MatchCaseStatement(variantType, member, variable, block.get(), position.pack()));
     }
 
     /**
@@ -399,7 +399,7 @@ public class Parser {
         var type = new TypeDeclaration(ValueType.CUSTOM, name);
         mustBe(token, TokenType.SEMICOLON, MissingSemicolonError::new);
 
-        return Optional.of(new DeclarationStatement(new Parameter(type, variable), expression.get(), position));
+        return Optional.of(new DeclarationStatement(new Parameter(type, variable), expression.get(), position.pack()));
     }
 
     private Optional<Statement> parseFunctionCallStatement(String name, Position position) {
@@ -412,7 +412,7 @@ public class Parser {
         mustBe(token, TokenType.BRACKET_CLOSE, SyntaxError::new);
         mustBe(token, TokenType.SEMICOLON, MissingSemicolonError::new);
 
-        return Optional.of(new FunctionCallExpression(name, arguments, position));
+        return Optional.of(new FunctionCallExpression(name, arguments, position.pack()));
     }
 
     private Optional<Statement> parseAssignmentStatement(String name, Position position) {
@@ -464,7 +464,7 @@ public class Parser {
             return parseVariantAssignment(name, position);
         }
 
-        return Optional.of(new AssignmentStatement(name, expression.get(), position));
+        return Optional.of(new AssignmentStatement(name, expression.get(), position.pack()));
     }
 
     private Optional<Statement> parseStructMemberAssignmentStatement(String structName, Position position) {
@@ -480,7 +480,7 @@ public class Parser {
             log.error("No expression in assignment at: {}", position);
             handleParserError(new MissingExpressionError(position), position);
         }
-        return Optional.of(new StructMemberAssignmentStatement(new StructMemberExpression(structName, fieldName, position), expression.get(), position));
+        return Optional.of(new StructMemberAssignmentStatement(new StructMemberExpression(structName, fieldName, position.pack()), expression.get(), position.pack()));
     }
 
     /**
@@ -497,7 +497,7 @@ public class Parser {
             handleParserError(new MissingExpressionError(position), position);
         }
         mustBe(token, TokenType.BRACKET_CLOSE, SyntaxError::new);
-        return Optional.of(new AssignmentStatement(name + "::" + variantName, variantExpression.get(), position));
+        return Optional.of(new AssignmentStatement(name + "::" + variantName, variantExpression.get(), position.pack()));
     }
 
     /**
@@ -556,7 +556,7 @@ public class Parser {
             }
             elseInstructions = Optional.of(elseBlock.get());
         }
-        return Optional.of(new IfStatement(conditions, ifInstructions, elseInstructions, position));
+        return Optional.of(new IfStatement(conditions, ifInstructions, elseInstructions, position.pack()));
     }
 
     /**
@@ -580,7 +580,7 @@ public class Parser {
             log.error("Block cannot be empty at: {}", position);
             handleParserError(new SyntaxError(position), position);
         }
-        return Optional.of(new WhileStatement(condition.get(), block.get(), position));
+        return Optional.of(new WhileStatement(condition.get(), block.get(), position.pack()));
     }
 
     /**
@@ -597,7 +597,7 @@ public class Parser {
         var expression = parseExpression();
         mustBe(token, TokenType.SEMICOLON, MissingSemicolonError::new);
 
-        return Optional.of(new ReturnStatement(expression.orElse(null), position));
+        return Optional.of(new ReturnStatement(expression.orElse(null), position.pack()));
     }
 
     private Optional<TypeDeclaration> parseReturnType() {
@@ -661,7 +661,7 @@ public class Parser {
             if (right.isEmpty()) {
                 handleParserError(new SyntaxError(position, "No expression after OR."), position);
             }
-            left = new OrLogicalExpression(left, right.get(), position);
+            left = new OrLogicalExpression(left, right.get(), position.pack());
         }
         return Optional.of(left);
     }
@@ -678,12 +678,12 @@ public class Parser {
             if (right.isEmpty()) {
                 handleParserError(new SyntaxError(token.getPosition(), "No expression after AND."), token.getPosition());
             }
-            left = new AndLogicalExpression(left, right.get(), position);
+            left = new AndLogicalExpression(left, right.get(), position.pack());
         }
         return Optional.of(left);
     }
 
-    private final Map<TokenType, Function3<Expression, Expression, Position, Expression>> relationOperator = Map.of(
+    private final Map<TokenType, Function3<Expression, Expression, Long, Expression>> relationOperator = Map.of(
             TokenType.LESS, Function3.of(LessExpression::new),
             TokenType.LESS_EQUAL, Function3.of(LessEqualExpression::new),
             TokenType.GREATER, Function3.of(GreaterExpression::new),
@@ -701,7 +701,7 @@ public class Parser {
         if (left.isEmpty()) return Optional.empty();
         var type = token.getType();
         if (!relationOperator.containsKey(type))
-            return negate ? Optional.of(new NegateLogicalExpression(left.get(), token.getPosition())) : left;
+            return negate ? Optional.of(new NegateLogicalExpression(left.get(), token.getPackedPosition())) : left;
 
         var constructor = relationOperator.get(type);
         var relationPosition = token.getPosition();
@@ -712,9 +712,9 @@ public class Parser {
             handleParserError(new SyntaxError(relationPosition, "No expression after relation operator."), relationPosition);
             assert false;
         }
-        var expression = constructor.apply(left.get(), right.get(), relationPosition);
+        var expression = constructor.apply(left.get(), right.get(), relationPosition.pack());
         if (negate)
-            return Optional.of(new NegateLogicalExpression(expression, relationPosition));
+            return Optional.of(new NegateLogicalExpression(expression, relationPosition.pack()));
 
         return Optional.of(expression);
     }
@@ -747,8 +747,8 @@ public class Parser {
             if (rightOptional.isPresent()) {
                 Expression right = rightOptional.get();
                 left = (operator == TokenType.PLUS)
-                        ? new AddArithmeticExpression(left, right, position)
-                        : new SubtractArithmeticExpression(left, right, position);
+                        ? new AddArithmeticExpression(left, right, position.pack())
+                        : new SubtractArithmeticExpression(left, right, position.pack());
             } else {
                 break;
             }
@@ -759,9 +759,9 @@ public class Parser {
 
     private Expression buildArithmeticExpression(Expression left, Expression right, TokenType operationType, Position position) {
         return switch (operationType) {
-            case MULTIPLY -> new MultiplyArithmeticExpression(left, right, position);
-            case DIVIDE -> new DivideArithmeticExpression(left, right, position);
-            case MODULO -> new ModuloArithmeticExpression(left, right, position);
+            case MULTIPLY -> new MultiplyArithmeticExpression(left, right, position.pack());
+            case DIVIDE -> new DivideArithmeticExpression(left, right, position.pack());
+            case MODULO -> new ModuloArithmeticExpression(left, right, position.pack());
             default -> null;
         };
     }
@@ -811,7 +811,7 @@ public class Parser {
                 nextToken();
                 mustBe(token, TokenType.BRACKET_CLOSE, SyntaxError::new);
                 factorOptional = parseFactor();
-                return Optional.of(new CastedFactorExpression(castedType.get(), factorOptional.get(), position));
+                return Optional.of(new CastedFactorExpression(castedType.get(), factorOptional.get(), position.pack()));
             } else {
                 factorOptional = parseExpression();
                 mustBe(token, TokenType.BRACKET_CLOSE, SyntaxError::new);
@@ -862,16 +862,16 @@ public class Parser {
             return Optional.empty();
         }
 
-        return isUnaryFactor ? Optional.of(new NegateArithmeticExpression(factorOptional.get(), position)) : factorOptional;
+        return isUnaryFactor ? Optional.of(new NegateArithmeticExpression(factorOptional.get(), position.pack())) : factorOptional;
     }
 
     private Optional<Expression> parseLiteralExpression() {
         Optional<Expression> ret;
         switch (token.getType()) {
-            case INTEGER_CONSTANT -> ret = Optional.of(new IntegerExpression(token.getValue(), token.getPosition()));
-            case FLOAT_CONSTANT -> ret = Optional.of(new FloatExpression(token.getValue(), token.getPosition()));
-            case STRING_CONSTANT -> ret = Optional.of(new StringExpression(token.getValue(), token.getPosition()));
-            case BOOLEAN_CONSTANT -> ret = Optional.of(new BooleanExpression(token.getValue(), token.getPosition()));
+            case INTEGER_CONSTANT -> ret = Optional.of(new IntegerExpression(token.getValue(), token.getPackedPosition()));
+            case FLOAT_CONSTANT -> ret = Optional.of(new FloatExpression(token.getValue(), token.getPackedPosition()));
+            case STRING_CONSTANT -> ret = Optional.of(new StringExpression(token.getValue(), token.getPackedPosition()));
+            case BOOLEAN_CONSTANT -> ret = Optional.of(new BooleanExpression(token.getValue(), token.getPackedPosition()));
             default -> ret = Optional.empty();
         }
         if (ret.isPresent()) nextToken();
@@ -898,7 +898,7 @@ public class Parser {
                 .or(() -> parseStructExpression(name, position))
                 .or(() -> parseFnCallExpression(name, position))
                 .or(() -> parseVariantExpression(name, position))
-                .or(() -> Optional.of(new IdentifierExpression(name, position)));
+                .or(() -> Optional.of(new IdentifierExpression(name, position.pack())));
     }
 
     private Optional<Expression> parseStructExpression(String name, Position position) {
@@ -906,7 +906,7 @@ public class Parser {
 
         nextToken();
         var fieldName = mustBe(token, TokenType.IDENTIFIER, SyntaxError::new).toString();
-        return Optional.of(new StructMemberExpression(name, fieldName, position));
+        return Optional.of(new StructMemberExpression(name, fieldName, position.pack()));
     }
 
     private Optional<Expression> parseFnCallExpression(String name, Position position) {
@@ -914,7 +914,7 @@ public class Parser {
 
         var arguments = parseFnArguments();
         mustBe(token, TokenType.BRACKET_CLOSE, SyntaxError::new);
-        return Optional.of(new FunctionCallExpression(name, arguments, position));
+        return Optional.of(new FunctionCallExpression(name, arguments, position.pack()));
     }
 
     private Optional<Expression> parseVariantExpression(String name, Position position) {
@@ -931,7 +931,7 @@ public class Parser {
             handleParserError(new MissingExpressionError(position), position);
         }
         mustBe(token, TokenType.BRACKET_CLOSE, SyntaxError::new);
-        return Optional.of(new VariantDeclarationExpression(name, fieldName, variantExpression.get(), position));
+        return Optional.of(new VariantDeclarationExpression(name, fieldName, variantExpression.get(), position.pack()));
     }
 
     /**
@@ -958,7 +958,7 @@ public class Parser {
                     handleParserError(new SyntaxError(token.getPosition(), "Copy operator can only be used with identifiers."), token.getPosition());
                 }
 
-                expression = new CopiedValueExpression((NamedExpression) expression, expression.getPosition());
+                expression = new CopiedValueExpression((NamedExpression) expression, expression.getPackedPosition());
             }
             arguments.add(expression);
         } while (token.getType() == TokenType.COMMA);
@@ -989,7 +989,7 @@ public class Parser {
 
         mustBe(token, TokenType.CURLY_BRACKET_CLOSE, SyntaxError::new);
 
-        return Optional.of(new StructDeclarationExpression(identifier, arguments, position));
+        return Optional.of(new StructDeclarationExpression(identifier, arguments, position.pack()));
     }
 
     private boolean parseCopyOperator() {
@@ -10,6 +10,11 @@ import lombok.*;
 @ToString
 @Builder(toBuilder = true)
 public class Position {
+    /*
+     * packed position of a node without one, no position packs to it as lines start at 1
+     */
+    public static final long NONE = 0;
+
     @Builder.Default
     int line = 1;
     @Builder.Default
@@ -19,8 +24,29 @@ public class Position {
     public void nextCharacter() { column++; }
 
     public Position copy() {
-        return this.toBuilder().build();
+        return new Position(line, column);
+    }
+
+    public long pack() {
+        return pack(line, column);
+    }
+
+    public static long pack(int line, int column) {
+        return (long) line << 32 | (column & 0xFFFFFFFFL);
+    }
+
+    public static Position unpack(long packed) {
+        return packed == NONE ? null : new Position(line(packed), column(packed));
+    }
+
+    public static int line(long packed) {
+        return (int) (packed >>> 32);
     }
+
+    public static int column(long packed) {
+        return (int) packed;
+    }
+
     public String toPositionString() {
         return "line, column " + line + ":" + column;
     }
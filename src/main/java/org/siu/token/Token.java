@@ -3,5 +3,8 @@ package org.siu.token;
 public interface Token {
     TokenType getType();
     Position getPosition();
+    default long getPackedPosition() {
+        return getPosition().pack();
+    }
     <T> T getValue();
 }
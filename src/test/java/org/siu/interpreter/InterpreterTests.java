@@ -1,10 +1,29 @@
 package org.siu.interpreter;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.siu.ast.Program;
+import org.siu.ast.expression.CastedFactorExpression;
+import org.siu.ast.expression.FunctionCallExpression;
+import org.siu.ast.expression.StructMemberExpression;
+import org.siu.ast.expression.arithmetic.BinaryArithmeticExpression;
+import org.siu.ast.statement.DeclarationStatement;
+import org.siu.ast.statement.MatchStatement;
+import org.siu.ast.statement.StructMemberAssignmentStatement;
+import org.siu.ast.statement.StructTypeDefinitionStatement;
+import org.siu.ast.statement.VariantTypeDefinitionStatement;
+import org.siu.ast.type.IntegerExpression;
+import org.siu.ast.type.TypeDeclaration;
+import org.siu.ast.type.ValueType;
 import org.siu.error.ErrorHandler;
 import org.siu.error.ErrorHandlerImpl;
+import org.siu.interpreter.error.ImmutableValueException;
+import org.siu.interpreter.state.FieldOffset;
+import org.siu.interpreter.state.Specialization;
+import org.siu.interpreter.state.Variable;
+import org.siu.interpreter.state.value.BoolValue;
+import org.siu.interpreter.state.value.IntValue;
 import org.siu.lexer.FilterCommentsLexer;
 import org.siu.lexer.LexerImpl;
 import org.siu.parser.Parser;
@@ -12,7 +31,7 @@ import org.siu.parser.Parser;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class InterpreterTests {
 
@@ -36,6 +55,7 @@ public class InterpreterTests {
             "print-fn-return.txt, 'General Kenobi!'",
             "reference-test.txt, 5",
             "return-struct.txt, '3\n4'",
+            "tail-call-test.txt, '50005000\nfalse'",
             "test-pass-struct-by-copy.txt, 1",
             "test-pass-struct-by-ref.txt, 2",
             "test-pass-variant-by-copy.txt, 1",
@@ -43,20 +63,16 @@ public class InterpreterTests {
             "test-print-string-expression.txt, 'Hello there!'",
             "test-return-flow-test.txt, '10\n9\n8\n7\n6\n5\n4\n-1'",
             "test-scope-shadowing.txt, '2\n5'",
+            "test-string-builder.txt, 'alias\ncopy\nbranch\nself'",
             "test-string-concatenation.txt, 'AB'",
             "variant-as-fncall-test.txt, Marcin",
             "variant-test.txt, 33"
     })
     void testInterpreter(String fileName, String expectedOutput) throws IOException {
-        String code = readFileFromResources(fileName);
-        var program = buildProgram(code);
-        var output = new ByteArrayOutputStream();
-        final String utf8 = StandardCharsets.UTF_8.name();
-        PrintStream out = new PrintStream(output, true, utf8);
-        var visitor = new InterpretingVisitor(program, out);
-
-        visitor.execute();
-        assertEquals(expectedOutput.trim(), output.toString().trim());
+        for (var engine : Engine.values()) {
+            var output = interpret(fileName, engine);
+            assertEquals(expectedOutput.trim(), output.trim(), engine.name());
+        }
     }
 
     @ParameterizedTest
@@ -92,19 +108,233 @@ public class InterpreterTests {
             "error-zerodivision-test.txt,                                   ZeroDivisionException",
     })
     void testInterpreterErrors(String fileName, String expectedError) throws IOException {
+        for (var engine : Engine.values()) {
+            String fullOutput = interpret(fileName, engine);
+
+            String errorName = extractErrorName(fullOutput);
+
+            assertEquals(expectedError.trim(), errorName.trim(), engine.name());
+        }
+    }
+
+    @Test
+    void errorsPrintNodePositionsAsLineAndColumn() throws IOException {
+        for (var engine : Engine.values()) {
+            var output = interpret("error-invalid-fn-call-too-many-args-test.txt", engine);
+
+            assertTrue(output.contains("FunctionCallExpression(identifier=test, arguments=[IntegerExpression(value=1, position=Position(line=7, column=18)), "), output);
+            assertTrue(output.contains("position=Position(line=7, column=13))"), output);
+            assertFalse(output.contains("packedPosition"), output);
+        }
+
+        var code = """
+                struct Point { int x; int y; };
+                fn test(int b): int { return 0; }
+                fn main() {
+                    Point p = Point { 1, 2 };
+                    int x = 1;
+                    int a = test(x, p.x);
+                }
+                """;
+        for (var engine : Engine.values()) {
+            var output = new ByteArrayOutputStream();
+            engine.create(buildProgram(code), new PrintStream(output, true, StandardCharsets.UTF_8.name())).execute();
+
+            assertTrue(output.toString().contains("arguments=[IdentifierExpression(identifier=x, position=Position(line=6, column=18)), "
+                    + "StructMemberExpression(structName=p, fieldName=x, position=Position(line=6, column=21))]"), output.toString());
+            assertFalse(output.toString().contains("slot="), output.toString());
+        }
+    }
+
+    @Test
+    void operatorSpecializesItselfAndTurnsGenericWhenGuardFails() throws IOException {
+        var program = buildProgram("fn main() { int a = 1 + 2; print((string) a); }");
+        var main = program.getFunctionDefinitions().get("main");
+        var add = (BinaryArithmeticExpression) ((DeclarationStatement) main.getBlock().getStatements().get(0)).getExpression();
+
+        assertEquals("3", run(program).trim());
+        assertEquals(Specialization.INT, add.getSpecialization());
+
+        add.setSpecialization(Specialization.FLOAT);
+        assertEquals("3", run(program).trim());
+        assertEquals(Specialization.GENERIC, add.getSpecialization());
+    }
+
+    @Test
+    void callSiteCachesItsFunctionUntilDefinitionsChange() throws IOException {
+        var program = buildProgram("fn one(): int { return 1; } fn main() { print((string) one()); }");
+        var main = program.getFunctionDefinitions().get("main");
+        var print = (FunctionCallExpression) main.getBlock().getStatements().get(0);
+        var call = (FunctionCallExpression) ((CastedFactorExpression) print.getArguments().get(0)).getExpression();
+        var interpreter = new InterpretingVisitor(program, new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8.name()));
+
+        interpreter.execute();
+        var target = call.getTarget();
+        assertSame(program.getFunctionDefinitions().get("one"), target.getDefinition());
+
+        call.accept(interpreter);
+        assertSame(target, call.getTarget());
+
+        var redefined = buildProgram("fn one(): int { return 2; }");
+        new VariableResolver(redefined).resolve();
+        interpreter.define(redefined.getFunctionDefinitions().get("one"));
+        call.accept(interpreter);
+        assertSame(redefined.getFunctionDefinitions().get("one"), call.getTarget().getDefinition());
+
+        interpreter.define(program.getFunctionDefinitions().get("one"));
+        call.accept(interpreter);
+        assertSame(program.getFunctionDefinitions().get("one"), call.getTarget().getDefinition());
+    }
+
+    @Test
+    void structMembersAreAccessedByOffsetOfTheirLayout() throws IOException {
+        var program = buildProgram("""
+                struct Point { int x; int y; };
+                fn main() {
+                    Point p = Point { 1, 2 };
+                    p.y = p.x + 5;
+                    print((string) p.y);
+                }
+                """);
+        var statements = program.getFunctionDefinitions().get("main").getBlock().getStatements();
+        var assignment = (StructMemberAssignmentStatement) statements.get(1);
+        var read = (StructMemberExpression) ((BinaryArithmeticExpression) assignment.getValue()).getLeft();
+
+        for (var engine : Engine.values()) {
+            var output = new ByteArrayOutputStream();
+            engine.create(program, new PrintStream(output, true, StandardCharsets.UTF_8.name())).execute();
+            assertEquals("6", output.toString().trim(), engine.name());
+        }
+
+        var layout = ((StructTypeDefinitionStatement) program.getTypeDefinitions().get("Point")).getLayout();
+        assertEquals(new FieldOffset(layout, 0), read.getOffset());
+        assertEquals(new FieldOffset(layout, 1), assignment.getStruct().getOffset());
+    }
+
+    @Test
+    void matchDispatchesOnTheOrdinalOfTheVariantField() throws IOException {
+        var program = buildProgram("""
+                variant Number { int whole; float real; string text; };
+                fn describe(Number n) {
+                    match(n) {
+                        Number::text(t) { print("text " + t); }
+                        Number::whole(w) { print("whole " + (string) w); }
+                        Number::whole(w) { print("unreachable"); }
+                    }
+                }
+                fn main() {
+                    Number n = Number::whole(1);
+                    describe(n);
+                    n = Number::text("two");
+                    describe(n);
+                    n = Number::real(3.0);
+                    describe(n);
+                }
+                """);
+        var match = (MatchStatement) program.getFunctionDefinitions().get("describe").getBlock().getStatements().get(0);
+
+        for (var engine : Engine.values()) {
+            var output = new ByteArrayOutputStream();
+            engine.create(program, new PrintStream(output, true, StandardCharsets.UTF_8.name())).execute();
+            assertEquals("whole 1\ntext two", output.toString().trim(), engine.name());
+        }
+
+        var descriptor = ((VariantTypeDefinitionStatement) program.getTypeDefinitions().get("Number")).getDescriptor();
+        assertSame(descriptor, match.getTable().getDescriptor());
+        assertEquals(1, descriptor.ordinal("real"));
+        assertEquals(-1, descriptor.ordinal("complex"));
+    }
+
+    @Test
+    void literalsAreSharedImmutableValuesCopiedIntoVariables() throws IOException {
+        var program = buildProgram("""
+                struct Point { int x; int y; };
+                fn main() {
+                    int a = 5;
+                    int alias = a;
+                    alias = alias + 1;
+                    Point p = Point { 5, 5 };
+                    p.x = p.x + a;
+                    print((string) a);
+                    print((string) 5);
+                    print((string) p.x + " " + (string) p.y);
+                }
+                """);
+        var declaration = (DeclarationStatement) program.getFunctionDefinitions().get("main").getBlock().getStatements().get(0);
+        var literal = (IntegerExpression) declaration.getExpression();
+
+        for (var engine : Engine.values()) {
+            var output = new ByteArrayOutputStream();
+            engine.create(program, new PrintStream(output, true, StandardCharsets.UTF_8.name())).execute();
+            assertEquals("6\n5\n11 5", output.toString().trim(), engine.name());
+        }
+
+        assertSame(IntValue.of(5), literal.getConstant());
+        assertTrue(literal.getConstant().isImmutable());
+        assertSame(BoolValue.TRUE, BoolValue.of(true));
+        assertThrows(ImmutableValueException.class, () -> IntValue.of(5).setInteger(6));
+
+        var variable = new Variable(new TypeDeclaration(ValueType.INT), "a", IntValue.of(5));
+        assertNotSame(IntValue.of(5), variable.getValue());
+        assertFalse(variable.getValue().isImmutable());
+    }
+
+    @Test
+    void stackBudgetIsConfigurable() throws IOException {
+        var code = "fn depth(int n): int { if (n == 0) { return 0; } return depth(n - 1) + 1; } fn main() { print((string) depth(500)); }";
+
+        System.setProperty(InterpreterConfig.MAX_STACK_SIZE_PROPERTY, "1000");
+        try {
+            for (var engine : Engine.values()) {
+                var output = new ByteArrayOutputStream();
+                engine.create(buildProgram(code), new PrintStream(output, true, StandardCharsets.UTF_8.name())).execute();
+                assertEquals("500", output.toString().trim(), engine.name());
+            }
+        } finally {
+            System.clearProperty(InterpreterConfig.MAX_STACK_SIZE_PROPERTY);
+        }
+
+        assertEquals("FunctionStackLimitException", extractErrorName(run(buildProgram(code))));
+    }
+
+    @Test
+    void javaStackOverflowIsNotReportedAsTheStackBudget() throws Exception {
+        var code = "fn depth(int n): int { if (n == 0) { return 0; } return depth(n - 1) + 1; } fn main() { print((string) depth(100000)); }";
+
+        System.setProperty(InterpreterConfig.MAX_STACK_SIZE_PROPERTY, "1000000");
+        try {
+            for (var engine : new Engine[]{Engine.TREE, Engine.CLOSURE, Engine.JIT}) {
+                var output = new ByteArrayOutputStream();
+                var interpreter = engine.create(buildProgram(code), new PrintStream(output, true, StandardCharsets.UTF_8.name()));
+                // a small thread stack runs out long before the budget
+                var thread = new Thread(null, interpreter::execute, "small-stack", 256 * 1024);
+                thread.start();
+                thread.join();
+
+                assertTrue(output.toString().contains("JavaStackOverflowException(super=InterpreterException(position=null), maxStackSize=1000000)"), engine.name());
+                assertFalse(output.toString().contains("FunctionStackLimitException"), engine.name());
+            }
+        } finally {
+            System.clearProperty(InterpreterConfig.MAX_STACK_SIZE_PROPERTY);
+        }
+    }
+
+    private String run(Program program) throws IOException {
+        var output = new ByteArrayOutputStream();
+        new InterpretingVisitor(program, new PrintStream(output, true, StandardCharsets.UTF_8.name())).execute();
+        return output.toString();
+    }
+
+    private String interpret(String fileName, Engine engine) throws IOException {
         String code = readFileFromResources(fileName);
         var program = buildProgram(code);
         var output = new ByteArrayOutputStream();
         final String utf8 = StandardCharsets.UTF_8.name();
         PrintStream out = new PrintStream(output, true, utf8);
-        var visitor = new InterpretingVisitor(program, out);
-
-        visitor.execute();
-        String fullOutput = output.toString();
-
-        String errorName = extractErrorName(fullOutput);
+        var interpreter = engine.create(program, out);
 
-        assertEquals(expectedError.trim(), errorName.trim());
+        interpreter.execute();
+        return output.toString();
     }
     // format CsvSource and sort alphabeticaly by Error name
 
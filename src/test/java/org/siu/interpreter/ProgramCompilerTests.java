@@ -0,0 +1,63 @@
+package org.siu.interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgramCompilerTests {
+    private static final PrintStream DIAGNOSTICS = new PrintStream(new ByteArrayOutputStream());
+
+    private static String source(int value) {
+        return "int value = " + value + "; fn twice(int n): int { return n + n; } fn main() { value = twice(value); print((string) value); }";
+    }
+
+    private static String run(CompiledProgram program, Engine engine) {
+        var output = new ByteArrayOutputStream();
+        program.run(engine, new PrintStream(output, true, StandardCharsets.UTF_8));
+        return output.toString(StandardCharsets.UTF_8).trim();
+    }
+
+    @Test
+    void sameSourceIsCompiledOnceAndRunManyTimes() {
+        var compiler = new ProgramCompiler(4, DIAGNOSTICS);
+        var program = compiler.compile(source(21));
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(program, compiler.compile(source(21)));
+            for (var engine : Engine.values()) {
+                assertEquals("42", run(program, engine), engine.name());
+            }
+        }
+        assertEquals(1, compiler.getMisses());
+        assertEquals(3, compiler.getHits());
+        assertEquals(64, program.getHash().length());
+    }
+
+    @Test
+    void leastRecentlyUsedProgramIsEvicted() {
+        var compiler = new ProgramCompiler(2, DIAGNOSTICS);
+        var first = compiler.compile(source(1));
+        compiler.compile(source(2));
+        compiler.compile(source(1));
+        compiler.compile(source(3));
+
+        assertEquals(2, compiler.size());
+        assertSame(first, compiler.compile(source(1)));
+        assertNotSame(compiler.compile(source(2)), compiler.compile(source(3)));
+        assertEquals(5, compiler.getMisses());
+    }
+
+    @Test
+    void failedCompilationIsNotCached() {
+        var compiler = new ProgramCompiler(4, DIAGNOSTICS);
+        var invalid = "fn nothing() { return 1; } fn main() { nothing(); }";
+
+        assertThrows(RuntimeException.class, () -> compiler.compile(invalid));
+        assertThrows(RuntimeException.class, () -> compiler.compile(invalid));
+        assertEquals(0, compiler.size());
+    }
+}
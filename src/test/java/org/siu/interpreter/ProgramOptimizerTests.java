@@ -0,0 +1,118 @@
+package org.siu.interpreter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.siu.ast.BlockStatement;
+import org.siu.ast.Program;
+import org.siu.ast.expression.IdentifierExpression;
+import org.siu.ast.expression.arithmetic.AddArithmeticExpression;
+import org.siu.ast.expression.arithmetic.DivideArithmeticExpression;
+import org.siu.ast.statement.DeclarationStatement;
+import org.siu.ast.statement.ReturnStatement;
+import org.siu.ast.type.IntegerExpression;
+import org.siu.error.ErrorHandler;
+import org.siu.error.ErrorHandlerImpl;
+import org.siu.lexer.FilterCommentsLexer;
+import org.siu.lexer.LexerImpl;
+import org.siu.parser.Parser;
+import org.siu.token.Position;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgramOptimizerTests {
+    private static final long POSITION = Position.pack(1, 1);
+
+    Program buildProgram(String code) {
+        final ErrorHandler errorHandler = new ErrorHandlerImpl();
+        var reader = new StringReader(code);
+        var lexer = new LexerImpl(new BufferedReader(reader), errorHandler);
+        var filteredLexer = new FilterCommentsLexer(lexer);
+        var parser = new Parser(filteredLexer, errorHandler);
+        return parser.buildProgram();
+    }
+
+    @Test
+    void foldsConstantsAndRemovesDeadBranches() throws IOException {
+        var code = """
+                const int SIZE = 4 * 5;
+                const string NAME = "a" + "b";
+                fn main() {
+                    int x = SIZE + 1;
+                    if (SIZE > 100) {
+                        print("big");
+                    } else {
+                        print(NAME + (string) (SIZE * 2));
+                    }
+                    while (false or not true) {
+                        print("never");
+                    }
+                    print((string) x);
+                }
+                """;
+        var program = buildProgram(code);
+        new ProgramOptimizer(program).optimize();
+
+        var statements = program.getFunctionDefinitions().get("main").getBlock().getStatements();
+        assertEquals(3, statements.size());
+        assertEquals(new IntegerExpression(21, POSITION), ((DeclarationStatement) statements.get(0)).getExpression());
+        assertInstanceOf(BlockStatement.class, statements.get(1));
+        assertEquals("ab40\n21", run(program, Engine.TREE).trim());
+    }
+
+    @Test
+    void keepsSharedConstantsAndFailingOperations() {
+        var program = buildProgram("""
+                const int LIMIT = 10;
+                fn shadow(int LIMIT): int {
+                    return LIMIT + 1;
+                }
+                fn divide(): int {
+                    return LIMIT / 0;
+                }
+                fn main() {
+                    int alias = LIMIT;
+                }
+                """);
+        new ProgramOptimizer(program).optimize();
+
+        var shadow = (ReturnStatement) program.getFunctionDefinitions().get("shadow").getBlock().getStatements().get(0);
+        assertInstanceOf(IdentifierExpression.class, ((AddArithmeticExpression) shadow.getExpression()).getLeft());
+
+        var divide = (ReturnStatement) program.getFunctionDefinitions().get("divide").getBlock().getStatements().get(0);
+        assertEquals(new IntegerExpression(10, POSITION), ((DivideArithmeticExpression) divide.getExpression()).getLeft());
+
+        var alias = (DeclarationStatement) program.getFunctionDefinitions().get("main").getBlock().getStatements().get(0);
+        assertInstanceOf(IdentifierExpression.class, alias.getExpression());
+    }
+
+    @ParameterizedTest
+    @MethodSource("scripts")
+    void optimizedProgramsBehaveTheSame(Path script) throws IOException {
+        var code = Files.readString(script, StandardCharsets.UTF_8);
+        for (var engine : Engine.values()) {
+            var optimized = buildProgram(code);
+            new ProgramOptimizer(optimized).optimize();
+
+            assertEquals(run(buildProgram(code), engine), run(optimized, engine), engine.name());
+        }
+    }
+
+    static Stream<Path> scripts() throws IOException, URISyntaxException {
+        var resources = Path.of(ProgramOptimizerTests.class.getClassLoader().getResource("reference-test.txt").toURI()).getParent();
+        return Files.list(resources).filter(path -> path.toString().endsWith(".txt")).sorted();
+    }
+
+    private String run(Program program, Engine engine) throws IOException {
+        var output = new ByteArrayOutputStream();
+        engine.create(program, new PrintStream(output, true, StandardCharsets.UTF_8.name())).execute();
+        return output.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package org.siu.interpreter;
+
+import org.junit.jupiter.api.Test;
+import org.siu.ast.Program;
+import org.siu.ast.expression.FunctionCallExpression;
+import org.siu.ast.statement.DeclarationStatement;
+import org.siu.error.ErrorHandler;
+import org.siu.error.ErrorHandlerImpl;
+import org.siu.lexer.FilterCommentsLexer;
+import org.siu.lexer.LexerImpl;
+import org.siu.parser.Parser;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScriptExecutorTests {
+    private static final String COUNTER = """
+            int counter = 0;
+            struct Point { int x; int y; };
+            fn add(int n): int {
+                counter = counter + n;
+                return counter;
+            }
+            fn main() {
+                Point p = Point { 0, 0 };
+                int i = 0;
+                while (i < 2000) {
+                    p.x = add(1);
+                    i = i + 1;
+                }
+                print((string) p.x + " " + (string) counter);
+            }
+            """;
+
+    Program buildProgram(String code) {
+        final ErrorHandler errorHandler = new ErrorHandlerImpl();
+        var lexer = new LexerImpl(new BufferedReader(new StringReader(code)), errorHandler);
+        var parser = new Parser(new FilterCommentsLexer(lexer), errorHandler);
+        return parser.buildProgram();
+    }
+
+    @Test
+    void concurrentExecutionsOfOneProgramHaveTheirOwnGlobals() throws InterruptedException, ExecutionException {
+        var program = buildProgram(COUNTER);
+        for (var engine : Engine.values()) {
+            try (var executor = new ScriptExecutor(engine, 4)) {
+                var outputs = executor.runAll(Collections.nCopies(16, program));
+
+                assertEquals(Collections.nCopies(16, "2000 2000\n"), outputs, engine.name());
+            }
+        }
+    }
+
+    @Test
+    void concurrentExecutionsOfOneProgramShareCallSiteCaches() throws InterruptedException, ExecutionException {
+        var program = buildProgram("""
+                fn square(int n): int { return n * n; }
+                fn main() {
+                    int last = square(1);
+                    int i = 1;
+                    while (i <= 500) {
+                        last = square(i);
+                        i = i + 1;
+                    }
+                    print((string) last);
+                }
+                """);
+        var declaration = (DeclarationStatement) program.getFunctionDefinitions().get("main").getBlock().getStatements().get(0);
+        var call = (FunctionCallExpression) declaration.getExpression();
+
+        for (var engine : List.of(Engine.TREE, Engine.JIT)) {
+            try (var executor = new ScriptExecutor(engine, 4)) {
+                assertEquals(List.of("250000\n"), executor.runAll(List.of(program)), engine.name());
+                var target = call.getTarget();
+
+                var outputs = executor.runAll(Collections.nCopies(16, program));
+
+                assertEquals(Collections.nCopies(16, "250000\n"), outputs, engine.name());
+                // a miss in any of the runs would have bound the call site again
+                assertSame(target, call.getTarget(), engine.name());
+            }
+        }
+    }
+
+    @Test
+    void interruptedCloseCancelsProgramsAndKeepsTheInterrupt() throws InterruptedException {
+        var service = Executors.newSingleThreadExecutor();
+        var started = new CountDownLatch(1);
+        var running = service.submit(() -> {
+            started.countDown();
+            new CountDownLatch(1).await();
+            return null;
+        });
+        started.await();
+
+        var executor = new ScriptExecutor(Engine.TREE, service);
+        Thread.currentThread().interrupt();
+        executor.close();
+
+        assertTrue(Thread.interrupted());
+        assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(running.isDone());
+    }
+
+    @Test
+    void differentProgramsRunAtOnce() throws InterruptedException, ExecutionException {
+        var programs = new ArrayList<Program>();
+        var expected = new ArrayList<String>();
+        for (int i = 0; i < 12; i++) {
+            programs.add(buildProgram("int base = " + i + "; fn main() { print((string) (base + base)); }"));
+            expected.add(2 * i + "\n");
+        }
+
+        try (var executor = new ScriptExecutor(Engine.CLOSURE, Executors.newCachedThreadPool())) {
+            assertEquals(expected, executor.runAll(programs));
+        }
+    }
+}
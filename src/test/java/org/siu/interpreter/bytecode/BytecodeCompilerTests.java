@@ -0,0 +1,89 @@
+package org.siu.interpreter.bytecode;
+
+import org.junit.jupiter.api.Test;
+import org.siu.ast.Program;
+import org.siu.error.ErrorHandler;
+import org.siu.error.ErrorHandlerImpl;
+import org.siu.interpreter.VariableResolver;
+import org.siu.lexer.FilterCommentsLexer;
+import org.siu.lexer.LexerImpl;
+import org.siu.parser.Parser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BytecodeCompilerTests {
+    Program buildProgram(String code) {
+        final ErrorHandler errorHandler = new ErrorHandlerImpl();
+        var reader = new StringReader(code);
+        var lexer = new LexerImpl(new BufferedReader(reader), errorHandler);
+        var filteredLexer = new FilterCommentsLexer(lexer);
+        var parser = new Parser(filteredLexer, errorHandler);
+        var program = parser.buildProgram();
+        new VariableResolver(program).resolve();
+        return program;
+    }
+
+    @Test
+    void compiledProgramCanBeRunRepeatedly() throws IOException {
+        var program = buildProgram("int counter = 0; fn main() { counter = counter + 1; print((string) counter); }");
+        var compiled = new BytecodeCompiler(program).compile();
+
+        var output = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(output, true, StandardCharsets.UTF_8.name());
+        new VirtualMachine(compiled, out).run();
+        new VirtualMachine(compiled, out).run();
+
+        assertEquals("1\n1", output.toString().trim());
+    }
+
+    @Test
+    void staticallyTypedIntegerComparisonUsesSpecialisedOpcode() {
+        var program = buildProgram("fn main() { int a = 1; while (a < 10) { a = a + 1; } }");
+        var compiled = new BytecodeCompiler(program).compile();
+
+        var main = Arrays.stream(compiled.getFunctions())
+                .filter(function -> function.getDefinition().getName().equals("main"))
+                .findFirst()
+                .orElseThrow();
+
+        var code = main.getCode();
+        assertEquals(Opcode.ILT, code[indexOf(code, Opcode.JUMP_IF_FALSE) - 4]);
+        assertTrue(Arrays.stream(code).noneMatch(opcode -> opcode == Opcode.REL_CHECK));
+    }
+
+    @Test
+    void localsAreUnboxedUnlessTheirValueIsShared() throws IOException {
+        var program = buildProgram("fn inc(int v) { v = v + 1; } "
+                + "fn count() { int i = 0; while (i < 3) { i = i + 1; } print((string) i); } "
+                + "fn share() { int shared = 0; inc(shared); print((string) shared); } "
+                + "fn main() { count(); share(); }");
+        var compiled = new BytecodeCompiler(program).compile();
+
+        assertTrue(function(compiled, "count").getUnboxedSlots() > 0);
+        assertEquals(0, function(compiled, "share").getUnboxedSlots());
+
+        var output = new ByteArrayOutputStream();
+        new VirtualMachine(compiled, new PrintStream(output, true, StandardCharsets.UTF_8.name())).run();
+        assertEquals("3\n1", output.toString().trim());
+    }
+
+    private BytecodeFunction function(BytecodeProgram compiled, String name) {
+        return Arrays.stream(compiled.getFunctions())
+                .filter(function -> function.getDefinition().getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private int indexOf(int[] code, int opcode) {
+        for (int i = 0; i < code.length; i++) {
+            if (code[i] == opcode) {
+                return i;
+            }
+        }
+        throw new AssertionError("opcode not found: " + opcode);
+    }
+}
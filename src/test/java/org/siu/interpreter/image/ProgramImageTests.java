@@ -0,0 +1,164 @@
+package org.siu.interpreter.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.siu.ast.Program;
+import org.siu.error.ErrorHandler;
+import org.siu.error.ErrorHandlerImpl;
+import org.siu.interpreter.CompiledProgram;
+import org.siu.interpreter.Engine;
+import org.siu.interpreter.ProgramCompiler;
+import org.siu.interpreter.ProgramOptimizer;
+import org.siu.lexer.FilterCommentsLexer;
+import org.siu.lexer.LexerImpl;
+import org.siu.parser.Parser;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgramImageTests {
+    private static final PrintStream DIAGNOSTICS = new PrintStream(new ByteArrayOutputStream());
+    private static final String HASH = "00ff";
+    private static final String SOURCE = """
+            struct Point { int x; int y; };
+            variant Number { int whole; float fraction; };
+            const int LIMIT = 4;
+            fn sum(Point p): int { return p.x + p.y; }
+            fn describe(Number n): string {
+                string text = "none";
+                match(n) {
+                    Number::whole(w) { text = "whole " + (string) w; }
+                    Number::fraction(f) { text = "fraction"; }
+                }
+                return text;
+            }
+            fn main() {
+                Point p = Point { 1, 2 };
+                int i = 0;
+                while (i < LIMIT and not false) {
+                    p.x = p.x + i;
+                    i = i + 1;
+                }
+                Number n = Number::whole(3);
+                print((string) sum(p) + " " + describe(n));
+            }
+            """;
+
+    private static Program parse(String code) {
+        final ErrorHandler errorHandler = new ErrorHandlerImpl();
+        var lexer = new LexerImpl(new BufferedReader(new StringReader(code)), errorHandler);
+        var program = new Parser(new FilterCommentsLexer(lexer), errorHandler).buildProgram();
+        new ProgramOptimizer(program).optimize();
+        return program;
+    }
+
+    private static Program roundTrip(Program program) throws IOException {
+        var bytes = new ProgramImageWriter().write(HASH, program);
+        return new ProgramImageReader(ByteBuffer.wrap(bytes)).read(HASH).orElseThrow();
+    }
+
+    private static String run(CompiledProgram program, Engine engine) {
+        var output = new ByteArrayOutputStream();
+        program.run(engine, new PrintStream(output, true, StandardCharsets.UTF_8));
+        return output.toString(StandardCharsets.UTF_8).trim();
+    }
+
+    @Test
+    void programsAreReadBackEqualToTheWrittenOnes() throws IOException {
+        var program = parse(SOURCE);
+        assertEquals(program, roundTrip(program));
+
+        try (Stream<Path> resources = Files.list(Path.of("src/test/resources"))) {
+            for (var resource : resources.toList()) {
+                var parsed = parse(Files.readString(resource));
+                assertEquals(parsed, roundTrip(parsed), resource.toString());
+            }
+        }
+    }
+
+    @Test
+    void imageIsWrittenNextToTheSourceAndLoadedByTheNextRun(@TempDir Path directory) throws IOException {
+        var source = Files.writeString(directory.resolve("points.siu"), SOURCE);
+        var compiled = new ProgramCompiler(4, true, DIAGNOSTICS).compile(source);
+        var image = directory.resolve("points.siuc");
+        assertTrue(Files.isRegularFile(image));
+
+        var loaded = ProgramImage.load(image, compiled.getHash());
+        assertEquals(parse(SOURCE), loaded.orElseThrow());
+
+        var reloaded = new ProgramCompiler(4, true, DIAGNOSTICS).compile(source);
+        for (var engine : Engine.values()) {
+            assertEquals("9 whole 3", run(reloaded, engine), engine.name());
+        }
+    }
+
+    @Test
+    void imagesAreNotWrittenUnlessEnabled(@TempDir Path directory) throws IOException {
+        var source = Files.writeString(directory.resolve("points.siu"), SOURCE);
+        var compiled = new ProgramCompiler(4, false, DIAGNOSTICS).compile(source);
+
+        assertEquals("9 whole 3", run(compiled, Engine.TREE));
+        assertFalse(Files.exists(ProgramImage.pathFor(source)));
+    }
+
+    @Test
+    void staleImagesAreIgnored() throws IOException {
+        var bytes = new ProgramImageWriter().write(HASH, parse(SOURCE));
+        assertTrue(new ProgramImageReader(ByteBuffer.wrap(bytes)).read("0100").isEmpty());
+
+        var buffer = ByteBuffer.wrap(bytes.clone());
+        buffer.put(Integer.BYTES, (byte) (ProgramImage.FORMAT_VERSION + 1));
+        assertTrue(new ProgramImageReader(buffer).read(HASH).isEmpty());
+    }
+
+    @Test
+    void changedSourceReplacesItsImage(@TempDir Path directory) throws IOException {
+        var source = Files.writeString(directory.resolve("points.siu"), SOURCE);
+        new ProgramCompiler(4, true, DIAGNOSTICS).compile(source);
+
+        Files.writeString(source, SOURCE.replace("LIMIT = 4", "LIMIT = 2"));
+        var changed = new ProgramCompiler(4, true, DIAGNOSTICS).compile(source);
+        assertEquals("4 whole 3", run(changed, Engine.TREE));
+        assertTrue(ProgramImage.load(ProgramImage.pathFor(source), changed.getHash()).isPresent());
+    }
+
+    @Test
+    void corruptedLengthsAreReportedAsUnreadableImages() throws IOException {
+        var bytes = new ProgramImageWriter().write(HASH, parse(SOURCE));
+        // magic, both versions and the hash come before the size of the string table
+        var sizeOffset = Integer.BYTES + 3 + HASH.length();
+        assertTrue(bytes[sizeOffset] >= 0);
+
+        for (var length : new byte[][]{{-1, -1, -1, -1, 0x07}, {-1, -1, -1, -1, 0x0F}, {(byte) 0x80, 0x40}}) {
+            var corrupted = new ByteArrayOutputStream();
+            corrupted.write(bytes, 0, sizeOffset);
+            corrupted.write(length, 0, length.length);
+            corrupted.write(bytes, sizeOffset + 1, bytes.length - sizeOffset - 1);
+
+            var reader = new ProgramImageReader(ByteBuffer.wrap(corrupted.toByteArray()));
+            var exception = assertThrows(IOException.class, () -> reader.read(HASH));
+            assertEquals("Corrupted program image", exception.getMessage());
+        }
+    }
+
+    @Test
+    void corruptedImageIsCompiledAgain(@TempDir Path directory) throws IOException {
+        var source = Files.writeString(directory.resolve("points.siu"), SOURCE);
+        var compiled = new ProgramCompiler(4, true, DIAGNOSTICS).compile(source);
+        var image = ProgramImage.pathFor(source);
+        var bytes = Files.readAllBytes(image);
+        Files.write(image, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(IOException.class, () -> ProgramImage.load(image, compiled.getHash()));
+        var recompiled = new ProgramCompiler(4, true, DIAGNOSTICS).compile(source);
+        assertEquals("9 whole 3", run(recompiled, Engine.BYTECODE));
+        assertTrue(ProgramImage.load(image, compiled.getHash()).isPresent());
+    }
+}
@@ -0,0 +1,128 @@
+package org.siu.interpreter.jit;
+
+import org.junit.jupiter.api.Test;
+import org.siu.ast.Program;
+import org.siu.error.ErrorHandler;
+import org.siu.error.ErrorHandlerImpl;
+import org.siu.interpreter.InterpretingVisitor;
+import org.siu.interpreter.VariableResolver;
+import org.siu.lexer.FilterCommentsLexer;
+import org.siu.lexer.LexerImpl;
+import org.siu.parser.Parser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JitCompilerTests {
+    Program buildProgram(String code) {
+        final ErrorHandler errorHandler = new ErrorHandlerImpl();
+        var reader = new StringReader(code);
+        var lexer = new LexerImpl(new BufferedReader(reader), errorHandler);
+        var filteredLexer = new FilterCommentsLexer(lexer);
+        var parser = new Parser(filteredLexer, errorHandler);
+        var program = parser.buildProgram();
+        new VariableResolver(program).resolve();
+        return program;
+    }
+
+    String run(Program program, JitCompiler jit) throws IOException {
+        var output = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(output, true, StandardCharsets.UTF_8.name());
+        new InterpretingVisitor(program, out, jit).execute();
+        return output.toString().trim();
+    }
+
+    @Test
+    void numericFunctionsAreCompiled() throws IOException {
+        var program = buildProgram("""
+                fn factorial(int n): int {
+                    if (n < 2) { return 1; }
+                    return n * factorial(n - 1);
+                }
+                fn average(int a, int b): float {
+                    float sum = (float) a + (float) b;
+                    return sum / 2.0;
+                }
+                fn main() {
+                    print((string) factorial(10));
+                    print((string) average(1, 2));
+                }
+                """);
+        var jit = new JitCompiler(program, 0);
+
+        assertEquals("3628800\n1.5", run(program, jit));
+        assertTrue(jit.isCompiled(program.getFunctionDefinitions().get("factorial")));
+        assertTrue(jit.isCompiled(program.getFunctionDefinitions().get("average")));
+        assertFalse(jit.isCompiled(program.getFunctionDefinitions().get("main")));
+    }
+
+    @Test
+    void runsOfAProgramShareItsCompiledFunctions() throws IOException {
+        var program = buildProgram("""
+                fn square(int n): int { return n * n; }
+                fn main() {
+                    int i = 1;
+                    int sum = 0;
+                    while (i <= 30) {
+                        sum = sum + square(i);
+                        i = i + 1;
+                    }
+                    print((string) sum);
+                }
+                """);
+        var jit = JitCompiler.of(program);
+
+        // 30 calls per run, so only calls counted across both runs reach the threshold
+        assertEquals("9455", run(program, JitCompiler.of(program)));
+        assertFalse(jit.isCompiled(program.getFunctionDefinitions().get("square")));
+        assertEquals("9455", run(program, JitCompiler.of(program)));
+        assertTrue(jit.isCompiled(program.getFunctionDefinitions().get("square")));
+        assertSame(jit, JitCompiler.of(program));
+        assertNotSame(jit, JitCompiler.of(buildProgram("fn main() {}")));
+    }
+
+    @Test
+    void functionsUsingUnsupportedConstructsAreInterpreted() throws IOException {
+        var program = buildProgram("""
+                int counter = 0;
+                fn next(): int {
+                    counter = counter + 1;
+                    return counter;
+                }
+                fn twice(): int {
+                    return next() + next();
+                }
+                fn main() {
+                    print((string) twice());
+                }
+                """);
+        var jit = new JitCompiler(program, 0);
+
+        assertEquals(run(program, null), run(program, jit));
+        assertFalse(jit.isCompiled(program.getFunctionDefinitions().get("next")));
+        assertFalse(jit.isCompiled(program.getFunctionDefinitions().get("twice")));
+    }
+
+    @Test
+    void compiledFunctionsKeepInterpreterErrors() throws IOException {
+        var program = buildProgram("""
+                fn depth(int n): int { return depth(n + 1); }
+                fn divide(int a, int b): int { return a / b; }
+                fn missing(bool flag): int { if (flag) { return 1; } }
+                fn main() {
+                    print((string) divide(1, 0));
+                }
+                """);
+        assertEquals(run(program, null), run(program, new JitCompiler(program, 0)));
+
+        var stackProgram = buildProgram("fn depth(int n): int { return depth(n + 1) + 1; } fn main() { depth(0); }");
+        var stackOutput = run(stackProgram, new JitCompiler(stackProgram, 0));
+        assertTrue(stackOutput.contains("FunctionStackLimitException"));
+        assertEquals(run(stackProgram, null), stackOutput);
+
+        var returnProgram = buildProgram("fn missing(bool flag): int { if (flag) { return 1; } } fn main() { missing(false); }");
+        assertEquals(run(returnProgram, null), run(returnProgram, new JitCompiler(returnProgram, 0)));
+    }
+}
@@ -0,0 +1,174 @@
+package org.siu.interpreter.memo;
+
+import org.junit.jupiter.api.Test;
+import org.siu.ast.Program;
+import org.siu.error.ErrorHandler;
+import org.siu.error.ErrorHandlerImpl;
+import org.siu.interpreter.Engine;
+import org.siu.interpreter.Interpreter;
+import org.siu.interpreter.VariableResolver;
+import org.siu.interpreter.error.FunctionStackLimitException;
+import org.siu.interpreter.state.value.IntValue;
+import org.siu.lexer.FilterCommentsLexer;
+import org.siu.lexer.LexerImpl;
+import org.siu.parser.Parser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoizerTests {
+    private static final String FIBONACCI = """
+            fn fib(int n): int {
+                if (n < 2) {
+                    return n;
+                }
+                return fib(n - 1) + fib(n - 2);
+            }
+            fn main() {
+                print((string) fib(25));
+            }
+            """;
+
+    Program buildProgram(String code) {
+        final ErrorHandler errorHandler = new ErrorHandlerImpl();
+        var reader = new StringReader(code);
+        var lexer = new LexerImpl(new BufferedReader(reader), errorHandler);
+        var filteredLexer = new FilterCommentsLexer(lexer);
+        var parser = new Parser(filteredLexer, errorHandler);
+        var program = parser.buildProgram();
+        new VariableResolver(program).resolve();
+        return program;
+    }
+
+    String run(Interpreter interpreter, ByteArrayOutputStream output) {
+        interpreter.execute();
+        return output.toString().trim();
+    }
+
+    @Test
+    void onlyPureFunctionsAreMemoized() {
+        var program = buildProgram("""
+                int counter = 0;
+                struct Point { int x; int y; };
+                fn square(int x): int { return x * x; }
+                fn sum(int n): int {
+                    int total = 0;
+                    while (n > 0) {
+                        total = total + square(n);
+                        n = n - 1;
+                    }
+                    return total;
+                }
+                fn count(): int {
+                    counter = counter + 1;
+                    return counter;
+                }
+                fn noisy(int x): int {
+                    print("called");
+                    return x;
+                }
+                fn callsNoisy(int x): int { return noisy(x) + 1; }
+                fn same(int x): int { return x; }
+                fn length(Point p): int { return p.x; }
+                fn main() {}
+                """);
+
+        assertEquals(Map.of("square", true, "same", false), new PurityAnalysis(program).analyze());
+    }
+
+    @Test
+    void repeatedCallsAreAnsweredFromTheMemoTable() throws IOException {
+        for (var engine : List.of(Engine.TREE, Engine.CLOSURE, Engine.BYTECODE)) {
+            var output = new ByteArrayOutputStream();
+            var interpreter = engine.create(buildProgram(FIBONACCI), new PrintStream(output, true, StandardCharsets.UTF_8.name()));
+
+            assertEquals("75025", run(interpreter, output), engine.name());
+            var table = interpreter.getMemoizer().orElseThrow().getTables().get("fib");
+            assertEquals(26, table.getMisses(), engine.name());
+            assertEquals(23, table.getHits(), engine.name());
+        }
+    }
+
+    @Test
+    void purityIsAnalyzedOncePerProgram() throws IOException {
+        var program = buildProgram(FIBONACCI);
+        for (var engine : List.of(Engine.TREE, Engine.CLOSURE, Engine.BYTECODE, Engine.TREE)) {
+            var output = new ByteArrayOutputStream();
+            var interpreter = engine.create(program, new PrintStream(output, true, StandardCharsets.UTF_8.name()));
+
+            assertEquals("75025", run(interpreter, output), engine.name());
+            // every run fills its own memo table
+            assertEquals(26, interpreter.getMemoizer().orElseThrow().getTables().get("fib").getMisses(), engine.name());
+        }
+
+        var pureFunctions = program.getPureFunctions();
+        assertEquals(Map.of("fib", false), pureFunctions);
+        assertSame(pureFunctions, PurityAnalysis.of(program));
+    }
+
+    @Test
+    void memoTableEvictsLeastRecentlyUsedResults() {
+        var table = new MemoTable(2);
+        var one = MemoTable.key(new IntValue[]{new IntValue(1)});
+        var two = MemoTable.key(new IntValue[]{new IntValue(2)});
+        var three = MemoTable.key(new IntValue[]{new IntValue(3)});
+
+        table.store(one, new IntValue(10), 1);
+        table.store(two, new IntValue(20), 1);
+        assertNotNull(table.lookup(one, 1));
+        table.store(three, new IntValue(30), 1);
+
+        assertEquals(2, table.size());
+        assertNull(table.lookup(two, 1));
+        assertEquals(new IntValue(10), table.lookup(one, 1).value());
+        assertNull(table.lookup(three, 0));
+        assertEquals(2, table.getHits());
+        assertEquals(2, table.getMisses());
+    }
+
+    @Test
+    void cachedCallsStillReachTheStackLimit() throws IOException {
+        var code = """
+                fn down(int n): int {
+                    if (n == 0) {
+                        return 0;
+                    }
+                    return down(n - 1) + 1;
+                }
+                fn wrap(int k, int n): int {
+                    if (k == 0) {
+                        return down(n);
+                    }
+                    return wrap(k - 1, n) + 0;
+                }
+                fn main() {
+                    print((string) down(50));
+                    print((string) wrap(60, 50));
+                }
+                """;
+        for (var engine : List.of(Engine.TREE, Engine.CLOSURE, Engine.BYTECODE)) {
+            var output = new ByteArrayOutputStream();
+            var interpreter = engine.create(buildProgram(code), new PrintStream(output, true, StandardCharsets.UTF_8.name()));
+
+            assertEquals("50\nError while interpreting: " + new FunctionStackLimitException().getMessage(), run(interpreter, output), engine.name());
+        }
+    }
+
+    @Test
+    void memoizationCanBeDisabled() throws IOException {
+        System.setProperty("siu.memoSize", "0");
+        try {
+            var output = new ByteArrayOutputStream();
+            var interpreter = Engine.TREE.create(buildProgram(FIBONACCI), new PrintStream(output, true, StandardCharsets.UTF_8.name()));
+
+            assertEquals("75025", run(interpreter, output));
+            assertTrue(interpreter.getMemoizer().orElseThrow().getTables().isEmpty());
+        } finally {
+            System.clearProperty("siu.memoSize");
+        }
+    }
+}
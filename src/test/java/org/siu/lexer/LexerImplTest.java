@@ -21,7 +21,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 class LexerImplTest {
-    private final ErrorHandler errorHandler = Mockito.mock(ErrorHandler.class);
+    final ErrorHandler errorHandler = Mockito.mock(ErrorHandler.class);
 
     Lexer setup(String text) {
         BufferedReader reader = new BufferedReader(new StringReader(text));
@@ -0,0 +1,65 @@
+package org.siu.lexer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.siu.error.ErrorHandlerImpl;
+import org.siu.token.TokenType;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceTest {
+    private static final String TEXT = "fn main() { print(\"zażółć 😀\"); } # ".repeat(500);
+
+    private static String text(Source source) {
+        return new String(source.getText(), 0, source.getLength());
+    }
+
+    private static byte[] digest(Source source) throws NoSuchAlgorithmException {
+        var digest = MessageDigest.getInstance("SHA-256");
+        source.digest(digest);
+        return digest.digest();
+    }
+
+    @Test
+    void mappedFileIsDecodedFromUtf8(@TempDir Path directory) throws IOException, NoSuchAlgorithmException {
+        var file = Files.writeString(directory.resolve("program.siu"), TEXT);
+        var mapped = Source.map(file);
+
+        assertEquals(TEXT, text(mapped));
+        assertArrayEquals(digest(Source.of(TEXT)), digest(mapped));
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(TEXT.getBytes(StandardCharsets.UTF_8)), digest(mapped));
+
+        var lexer = mapped.lexer(new ErrorHandlerImpl());
+        assertEquals(TokenType.FUNCTION, lexer.nextToken().getType());
+    }
+
+    @Test
+    void readerIsReadToTheEnd() throws IOException {
+        assertEquals(TEXT, text(Source.read(new StringReader(TEXT))));
+        assertEquals("", text(Source.read(new StringReader(""))));
+    }
+
+    @Test
+    void emptyFileIsMapped(@TempDir Path directory) throws IOException {
+        var source = Source.map(Files.createFile(directory.resolve("empty.siu")));
+
+        assertEquals(0, source.getLength());
+        assertEquals(TokenType.END_OF_FILE, source.lexer(new ErrorHandlerImpl()).nextToken().getType());
+    }
+
+    @Test
+    void malformedUtf8IsReported(@TempDir Path directory) throws IOException {
+        var file = Files.write(directory.resolve("broken.siu"), new byte[]{'x', (byte) 0xff, 'y'});
+
+        assertThrows(CharacterCodingException.class, () -> Source.map(file));
+    }
+}
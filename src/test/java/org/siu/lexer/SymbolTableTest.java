@@ -0,0 +1,37 @@
+package org.siu.lexer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolTableTest {
+    @Test
+    void everyOccurrenceOfANameIsTheSameString() {
+        var symbols = new SymbolTable();
+        var text = "alpha beta alpha".toCharArray();
+
+        var alpha = symbols.intern(text, 0, 5);
+        var beta = symbols.intern(text, 6, 4);
+        assertEquals("alpha", alpha);
+        assertEquals("beta", beta);
+        assertSame(alpha, symbols.intern(text, 11, 5));
+        assertSame(beta, symbols.intern("beta"));
+        assertEquals(2, symbols.size());
+    }
+
+    @Test
+    void tableGrowsKeepingEveryName() {
+        var symbols = new SymbolTable();
+        var names = new ArrayList<String>();
+        for (int i = 0; i < 10_000; i++) {
+            names.add(symbols.intern("name" + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("name" + i, names.get(i));
+            assertSame(names.get(i), symbols.intern("name" + i));
+        }
+        assertEquals(10_000, symbols.size());
+    }
+}
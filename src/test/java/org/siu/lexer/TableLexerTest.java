@@ -0,0 +1,134 @@
+package org.siu.lexer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+import org.siu.error.ErrorHandler;
+import org.siu.error.InvalidTokenException;
+import org.siu.token.Token;
+import org.siu.token.TokenType;
+import org.siu.token.TokenUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * runs every LexerImplTest case against the table lexer and compares both lexers token by token
+ */
+class TableLexerTest extends LexerImplTest {
+    @Override
+    Lexer setup(String text) {
+        try {
+            return new TableLexer(new StringReader(text), errorHandler);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /*
+     * tokens as their type, position and value, so the tokens of a buffer compare with the tokens of both lexers
+     */
+    private static List<Object> tokens(Lexer lexer) {
+        var tokens = new ArrayList<Object>();
+        try {
+            Token token;
+            do {
+                token = lexer.nextToken();
+                tokens.add(Arrays.asList(token.getType(), token.getPosition(), token.getValue()));
+            } while (token.getType() != TokenType.END_OF_FILE);
+            token = lexer.nextToken();
+            tokens.add(Arrays.asList(token.getType(), token.getPosition(), token.getValue()));
+        } catch (InvalidTokenException e) {
+            tokens.add(e.getClass());
+        }
+        return tokens;
+    }
+
+    private void assertSameTokens(String text) {
+        var expected = tokens(new LexerImpl(new BufferedReader(new StringReader(text)), Mockito.mock(ErrorHandler.class)));
+        assertEquals(expected, tokens(new TableLexer(text, errorHandler)), text);
+        assertEquals(expected, tokens(new TableLexer(text, errorHandler).tokenize().lexer()), text);
+
+        var withoutComments = tokens(new FilterCommentsLexer(new LexerImpl(new BufferedReader(new StringReader(text)), Mockito.mock(ErrorHandler.class))));
+        assertEquals(withoutComments, tokens(new LexerImpl(new BufferedReader(new StringReader(text)), Trivia.SKIP, Mockito.mock(ErrorHandler.class))), text);
+        assertEquals(withoutComments, tokens(Source.of(text).lexer(Trivia.SKIP, errorHandler)), text);
+        assertEquals(withoutComments, tokens(Source.of(text).tokenize(Trivia.SKIP, errorHandler).lexer()), text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "", " ", "\n", "\nx", "x\n", "\r\n\tx\r\n", "a1 1a 1.5 1. .5 007 2147483647 2147483648 99999999999 3.123456789",
+            "<= < >= > == = != ! :: : /* */ * / # + - % @ ( ) { } ; , .",
+            "a/*b*/c /* ** / **/ d */ e", "/* unterminated *", "/* unterminated", "# comment", "#\n#", "x # comment\ny",
+            "\"\" \"a\\tb\\nc\\\\d\\'e\\\"f\\qg\" \"line\nbreak\" \"unterminated", "\"escape at end\\",
+            "zażółć gęślą jaźń ٣٤ x٣", "truex true false falsey and or not if elif else while fn return",
+            " x y", "$", "a ~ b", "x\u0000",
+            "/* a\n\n b */ x\n \"s\nt\" y", "\"a\\\nb\" c\n\n  d", " \n\t \n  x /*\n", "\"\\\n"
+    })
+    void producesTheSameTokensAsLexerImpl(String text) {
+        assertSameTokens(text);
+    }
+
+    @Test
+    void longIdentifiersAreTruncatedLikeLexerImpl() {
+        assertSameTokens("a".repeat(LexerConfig.MAX_IDENTIFIER_LENGTH) + " " + "b".repeat(LexerConfig.MAX_IDENTIFIER_LENGTH + 1) + "1 c");
+    }
+
+    @Test
+    void producesTheSameTokensForAllTestPrograms() throws IOException {
+        try (Stream<Path> resources = Files.list(Path.of("src/test/resources"))) {
+            for (var resource : resources.toList()) {
+                assertSameTokens(Files.readString(resource));
+            }
+        }
+    }
+
+    @Test
+    void skippedCommentsAreNotBuffered() {
+        var source = Source.of("# note\nx /* block\n */ y # last");
+
+        assertEquals(6, source.tokenize(Trivia.KEEP, errorHandler).size());
+        var buffer = source.tokenize(Trivia.SKIP, errorHandler);
+        assertEquals(3, buffer.size());
+        assertEquals(TokenType.IDENTIFIER, buffer.getType(1));
+        assertEquals("y", buffer.getValue(1));
+    }
+
+    @Test
+    void everyKeywordIsRecognizedAndNearMissesAreIdentifiers() {
+        for (var keyword : TokenUtils.KEYWORDS.entrySet()) {
+            var text = keyword.getKey().toCharArray();
+            assertEquals(keyword.getValue(), KeywordTable.lookup(text, 0, text.length), keyword.getKey());
+        }
+        for (var word : List.of("x", "i", "fns", "iff", "whilst", "Struct", "elsif", "nota", "bools", "variants", "_")) {
+            assertNull(KeywordTable.lookup(word.toCharArray(), 0, word.length()), word);
+        }
+    }
+
+    @Test
+    void everyOccurrenceOfAnIdentifierIsTheSameString() {
+        var lexer = new TableLexer("count = count + other; other = count;", errorHandler);
+        var names = new ArrayList<String>();
+        for (var token = lexer.nextToken(); token.getType() != TokenType.END_OF_FILE; token = lexer.nextToken()) {
+            if (token.getType() == TokenType.IDENTIFIER) {
+                names.add(token.getValue());
+            }
+        }
+
+        assertEquals(List.of("count", "count", "other", "other", "count"), names);
+        assertSame(names.get(0), names.get(1));
+        assertSame(names.get(0), names.get(4));
+        assertSame(names.get(2), names.get(3));
+        assertEquals(2, lexer.getSymbols().size());
+    }
+}
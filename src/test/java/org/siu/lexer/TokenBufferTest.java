@@ -0,0 +1,85 @@
+package org.siu.lexer;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.siu.error.ErrorHandler;
+import org.siu.error.InvalidTokenException;
+import org.siu.token.Position;
+import org.siu.token.TokenType;
+import org.siu.token.type.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBufferTest {
+    private final ErrorHandler errorHandler = Mockito.mock(ErrorHandler.class);
+
+    @Test
+    void tokensAreBuiltFromTheBufferedKindsRangesAndPositions() {
+        var buffer = new TableLexer("int x = 12;\n# note\nprint(\"a\\tb\", true, 1.5);", errorHandler).tokenize();
+
+        assertEquals(16, buffer.size());
+        assertEquals(new KeywordToken(TokenType.INT, new Position(1, 1)), buffer.getToken(0));
+        assertEquals(new StringToken(TokenType.IDENTIFIER, new Position(1, 5), "x"), buffer.getToken(1));
+        assertEquals(new IntegerToken(new Position(1, 9), 12), buffer.getToken(3));
+        assertEquals(new CommentToken(new Position(2, 1), "note\n"), buffer.getToken(5));
+        assertEquals(TokenType.COMMENT, buffer.getType(5));
+        assertEquals(new StringToken(TokenType.STRING_CONSTANT, new Position(3, 7), "a\tb"), buffer.getToken(8));
+        assertEquals(TokenType.BOOLEAN_CONSTANT, buffer.getType(10));
+        assertEquals(true, buffer.<Boolean>getValue(10));
+        assertEquals(new FloatToken(new Position(3, 21), 1.5f), buffer.getToken(12));
+        assertEquals(new KeywordToken(TokenType.END_OF_FILE, new Position(3, 26)), buffer.getToken(15));
+    }
+
+    @Test
+    void bufferIsReadAgainByEveryLexer() {
+        var buffer = new TableLexer("a b a", errorHandler).tokenize();
+
+        for (int run = 0; run < 2; run++) {
+            var lexer = buffer.lexer();
+            var names = new ArrayList<String>();
+            for (var token = lexer.nextToken(); token.getType() != TokenType.END_OF_FILE; token = lexer.nextToken()) {
+                names.add(token.getValue());
+            }
+            assertEquals(List.of("a", "b", "a"), names);
+            assertSame(names.get(0), names.get(2));
+            assertEquals(TokenType.END_OF_FILE, lexer.nextToken().getType());
+        }
+    }
+
+    @Test
+    void lexerErrorsAreReportedOnceWhileTokenizing() {
+        var buffer = new TableLexer("99999999999 " + "x".repeat(LexerConfig.MAX_IDENTIFIER_LENGTH + 1), errorHandler).tokenize();
+        buffer.getValue(0);
+        buffer.getValue(1);
+
+        Mockito.verify(errorHandler, Mockito.times(2)).handleLexerError(Mockito.any(Exception.class), Mockito.any(Position.class));
+        assertEquals(999999999, buffer.<Integer>getValue(0));
+        assertEquals(LexerConfig.MAX_IDENTIFIER_LENGTH, buffer.<String>getValue(1).length());
+    }
+
+    @Test
+    void invalidTokenFailsWhenItIsReached() {
+        var lexer = new TableLexer("x = 1 ~ 2", errorHandler).tokenize().lexer();
+
+        assertEquals(TokenType.IDENTIFIER, lexer.nextToken().getType());
+        assertEquals(TokenType.ASSIGN, lexer.nextToken().getType());
+        assertEquals(TokenType.INTEGER_CONSTANT, lexer.nextToken().getType());
+        assertThrows(InvalidTokenException.class, lexer::nextToken);
+    }
+
+    @Test
+    void positionsAreReadPackedFromTheBuffer() {
+        var buffer = new TableLexer("a\n  bb", errorHandler).tokenize();
+        var lexer = buffer.lexer();
+
+        lexer.nextToken();
+        var token = lexer.nextToken();
+        assertEquals(Position.pack(2, 3), token.getPackedPosition());
+        assertEquals(new Position(2, 3), Position.unpack(token.getPackedPosition()));
+        assertEquals(buffer.getPosition(1).pack(), buffer.getPackedPosition(1));
+        assertNull(Position.unpack(Position.NONE));
+    }
+}
@@ -25,12 +25,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class AssignmentTest {
     private ErrorHandler errorHandler;
-    private Position position;
+    private long position;
 
     @BeforeEach
     void setUp() {
         errorHandler = Mockito.mock(ErrorHandler.class);
-        position = Mockito.mock(Position.class);
+        position = Position.NONE;
     }
 
     Parser toParser(String text) {
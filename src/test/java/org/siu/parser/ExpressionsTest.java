@@ -28,12 +28,12 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class ExpressionsTest {
     private ErrorHandler errorHandler;
-    private Position position;
+    private long position;
 
     @BeforeEach
     void setUp() {
         errorHandler = Mockito.mock(ErrorHandler.class);
-        position = Mockito.mock(Position.class);
+        position = Position.NONE;
     }
 
     Parser toParser(String text) {
@@ -65,6 +65,17 @@ public class ExpressionsTest {
         assertEquals(createDeclaration("b", ValueType.BOOL, expression), program.getDeclarations().get("b"));
     }
 
+    @Test
+    void testNodePositionsAreUnpacked() {
+        Program program = parseAndBuildProgram("int x =\n  1 + 2;");
+
+        var declaration = (DeclarationStatement) program.getDeclarations().get("x");
+        assertEquals(new Position(1, 5), declaration.getPosition());
+        var addition = (AddArithmeticExpression) declaration.getExpression();
+        assertEquals(new Position(2, 3), addition.getLeft().getPosition());
+        assertEquals(Position.pack(2, 7), addition.getRight().getPackedPosition());
+    }
+
     @Test
     void testTwoAndLogicExpression() {
         Program program = parseAndBuildProgram("bool b = true or true;");
@@ -31,12 +31,12 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class LogicalExpressionTest {
     private ErrorHandler errorHandler;
-    private Position position;
+    private long position;
 
     @BeforeEach
     void setUp() {
         errorHandler = Mockito.mock(ErrorHandler.class);
-        position = Mockito.mock(Position.class);
+        position = Position.NONE;
     }
 
     Parser toParser(String text) {